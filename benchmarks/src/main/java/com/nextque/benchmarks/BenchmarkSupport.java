@@ -0,0 +1,119 @@
+package com.nextque.benchmarks;
+
+import com.nextque.db.DatabaseManager;
+import com.nextque.model.ServiceType;
+import com.nextque.model.Ticket;
+import com.nextque.model.User;
+import com.nextque.model.UserRole;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/** Temp-file databases and synthetic ticket histories shared by the benchmark suites. */
+final class BenchmarkSupport {
+    static final String QUIET_LOGGING = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn";
+    private static final int SEED_BATCH_SIZE = 5_000;
+
+    private BenchmarkSupport() {
+    }
+
+    static Path createTempDirectory(String prefix) {
+        try {
+            return Files.createTempDirectory("nextque-bench-" + prefix);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void deleteRecursively(Path directory) {
+        if (directory == null || !Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String databaseUrl(Path directory) {
+        return "jdbc:sqlite:" + directory.resolve("nextque.db").toAbsolutePath();
+    }
+
+    /** Points the journal of any QueueManager created afterwards at {@code directory}. */
+    static void useJournalDirectory(Path directory) {
+        System.setProperty("nextque.journal.dir", directory.resolve("journal").toAbsolutePath().toString());
+    }
+
+    static DatabaseManager openDatabase(Path directory) {
+        return new DatabaseManager(databaseUrl(directory), 4);
+    }
+
+    static User agent(String username) {
+        return new User(username, "benchmark", UserRole.AGENT, username);
+    }
+
+    /**
+     * Writes {@code count} tickets spread over the configured services, issued one minute apart
+     * and ending now. All but the newest {@code waiting} tickets are completed.
+     */
+    static void seedHistory(DatabaseManager dbManager, int count, int waiting, long seed) {
+        List<ServiceType> serviceTypes = dbManager.getAllServiceTypes();
+        Ticket.PriorityReason[] reasons = Ticket.PriorityReason.values();
+        Random random = new Random(seed);
+        LocalDateTime start = LocalDateTime.now().minusMinutes(count);
+        List<Ticket> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        try {
+            for (int i = 0; i < count; i++) {
+                ServiceType type = serviceTypes.get(i % serviceTypes.size());
+                LocalDateTime issued = start.plusMinutes(i);
+                Ticket.PriorityReason reason = random.nextInt(10) == 0 ? reasons[random.nextInt(reasons.length)] : Ticket.PriorityReason.NONE;
+                Ticket ticket = waitingTicket(historyNumber(type, i + 1), type, "Customer " + i, issued, reason);
+                if (i < count - waiting) {
+                    ticket.setStatus(Ticket.TicketStatus.COMPLETED);
+                    ticket.setAgentUsername("agent" + random.nextInt(8));
+                    ticket.setCallTime(issued.plusSeconds(30 + random.nextInt(600)));
+                    ticket.setServiceStartTime(ticket.getCallTime().plusSeconds(10));
+                    ticket.setServiceEndTime(ticket.getServiceStartTime().plusSeconds(60 + random.nextInt(900)));
+                }
+                batch.add(ticket);
+                if (batch.size() == SEED_BATCH_SIZE) {
+                    dbManager.persistTicketStates(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                dbManager.persistTicketStates(batch);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to seed benchmark history", e);
+        }
+    }
+
+    static Ticket waitingTicket(String ticketNumber, ServiceType type, String customerName,
+                                LocalDateTime issueTime, Ticket.PriorityReason reason) {
+        Ticket ticket = new Ticket(ticketNumber, type, customerName, issueTime, reason);
+        ticket.setStatus(Ticket.TicketStatus.WAITING);
+        return ticket;
+    }
+
+    static String historyNumber(ServiceType type, int number) {
+        String name = type.getName();
+        return String.format("%s-%04d", name.substring(0, Math.min(name.length(), 3)).toUpperCase(), number);
+    }
+}
@@ -0,0 +1,228 @@
+package com.nextque.benchmarks;
+
+import com.nextque.db.DatabaseManager;
+import com.nextque.model.ServiceType;
+import com.nextque.model.Ticket;
+import com.nextque.model.User;
+import com.nextque.service.QueueManager;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Multithreaded stress run of {@link QueueManager}: issuer threads, agent threads that call,
+ * start and complete tickets, and a thread that changes priorities all work on the same
+ * services at once. After each round the database is checked for lost rows and rows left in
+ * an earlier state than memory reached, and a fresh QueueManager on the same database must find
+ * nothing left to call. Exits with status 1 if any round breaks an invariant.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.nextque.benchmarks.ConcurrencyStress \
+ *     [--rounds=10] [--tickets=20000] [--issuers=2] [--agents=4] [--services=2] [--journal=both]
+ * </pre>
+ * {@code --journal} is {@code on}, {@code off} or {@code both}; rounds alternate in {@code both}.
+ */
+public final class ConcurrencyStress {
+    private static final long ROUND_TIMEOUT_SECONDS = 300;
+
+    private final int tickets;
+    private final int issuers;
+    private final int agents;
+    private final int services;
+    private final Random random;
+
+    private ConcurrencyStress(int tickets, int issuers, int agents, int services, long seed) {
+        this.tickets = tickets;
+        this.issuers = issuers;
+        this.agents = agents;
+        this.services = services;
+        this.random = new Random(seed);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("org.slf4j.simpleLogger.defaultLogLevel") == null) {
+            System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "error");
+        }
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                System.err.println("Expected --name=value but got '" + arg + "'");
+                System.exit(2);
+            }
+            options.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        int rounds = Integer.parseInt(options.getOrDefault("rounds", "10"));
+        String journal = options.getOrDefault("journal", "both");
+        ConcurrencyStress stress = new ConcurrencyStress(
+                Integer.parseInt(options.getOrDefault("tickets", "20000")),
+                Integer.parseInt(options.getOrDefault("issuers", "2")),
+                Integer.parseInt(options.getOrDefault("agents", "4")),
+                Integer.parseInt(options.getOrDefault("services", "2")),
+                Long.parseLong(options.getOrDefault("seed", "1")));
+
+        int failedRounds = 0;
+        for (int round = 1; round <= rounds; round++) {
+            boolean withJournal = "both".equals(journal) ? round % 2 == 0 : "on".equals(journal);
+            List<String> violations = stress.runRound(withJournal);
+            System.out.printf("Round %d (%s journal): %s%n", round, withJournal ? "with" : "without",
+                    violations.isEmpty() ? "ok" : violations.size() + " violations");
+            for (String violation : violations.subList(0, Math.min(20, violations.size()))) {
+                System.out.println("  " + violation);
+            }
+            if (!violations.isEmpty()) {
+                failedRounds++;
+            }
+        }
+        System.out.printf("%d of %d rounds broke an invariant.%n", failedRounds, rounds);
+        System.exit(failedRounds == 0 ? 0 : 1);
+    }
+
+    private List<String> runRound(boolean withJournal) throws InterruptedException {
+        Path directory = BenchmarkSupport.createTempDirectory("stress");
+        System.setProperty("nextque.journal.enabled", Boolean.toString(withJournal));
+        BenchmarkSupport.useJournalDirectory(directory);
+        List<String> violations = new ArrayList<>();
+        try {
+            DatabaseManager dbManager = BenchmarkSupport.openDatabase(directory);
+            List<ServiceType> serviceTypes = dbManager.getAllServiceTypes().subList(0, services);
+            QueueManager queueManager = new QueueManager(dbManager);
+
+            Map<String, Ticket> issued = new ConcurrentHashMap<>();
+            Map<String, String> calledBy = new ConcurrentHashMap<>();
+            ConcurrentLinkedQueue<String> recentlyIssued = new ConcurrentLinkedQueue<>();
+            AtomicInteger remaining = new AtomicInteger(tickets);
+            AtomicBoolean issuing = new AtomicBoolean(true);
+            CountDownLatch issuersDone = new CountDownLatch(issuers);
+            List<Thread> threads = new ArrayList<>();
+
+            for (int i = 0; i < issuers; i++) {
+                long seed = random.nextLong();
+                threads.add(new Thread(() -> {
+                    Random local = new Random(seed);
+                    Ticket.PriorityReason[] reasons = Ticket.PriorityReason.values();
+                    try {
+                        while (remaining.getAndDecrement() > 0) {
+                            ServiceType type = serviceTypes.get(local.nextInt(serviceTypes.size()));
+                            Ticket.PriorityReason reason = local.nextInt(8) == 0
+                                    ? reasons[local.nextInt(reasons.length)] : Ticket.PriorityReason.NONE;
+                            Ticket ticket = queueManager.generateTicket(type, "Stress", reason);
+                            issued.put(ticket.getTicketNumber(), ticket);
+                            recentlyIssued.offer(ticket.getTicketNumber());
+                        }
+                    } finally {
+                        issuersDone.countDown();
+                    }
+                }, "stress-issuer-" + i));
+            }
+            for (int i = 0; i < agents; i++) {
+                User agent = BenchmarkSupport.agent("stress-agent-" + i);
+                ServiceType home = serviceTypes.get(i % serviceTypes.size());
+                threads.add(new Thread(() -> {
+                    while (issuing.get() || queueManager.getTotalWaitingCount() > 0) {
+                        Ticket called = queueManager.callNextTicket(home, agent);
+                        if (called == null) {
+                            for (ServiceType other : serviceTypes) {
+                                called = queueManager.callNextTicket(other, agent);
+                                if (called != null) {
+                                    break;
+                                }
+                            }
+                        }
+                        if (called == null) {
+                            Thread.onSpinWait();
+                            continue;
+                        }
+                        String previous = calledBy.putIfAbsent(called.getTicketNumber(), agent.getUsername());
+                        if (previous != null) {
+                            synchronized (violations) {
+                                violations.add("Ticket " + called.getTicketNumber() + " called by " + agent.getUsername()
+                                        + " after " + previous);
+                            }
+                        }
+                        if ((called.getTicketNumber().hashCode() & 1) == 0) {
+                            queueManager.startService(agent.getUsername());
+                        }
+                        queueManager.completeService(agent.getUsername());
+                    }
+                }, "stress-agent-" + i));
+            }
+            threads.add(new Thread(() -> {
+                Random local = new Random(7);
+                Ticket.PriorityReason[] reasons = Ticket.PriorityReason.values();
+                while (issuing.get()) {
+                    String number = recentlyIssued.poll();
+                    if (number == null) {
+                        Thread.onSpinWait();
+                    } else {
+                        queueManager.updateTicketPriority(number, reasons[local.nextInt(reasons.length)]);
+                    }
+                }
+            }, "stress-priority"));
+
+            threads.forEach(Thread::start);
+            if (!issuersDone.await(ROUND_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                violations.add("Issuers did not finish within " + ROUND_TIMEOUT_SECONDS + " s");
+            }
+            issuing.set(false);
+            for (Thread thread : threads) {
+                thread.join(TimeUnit.SECONDS.toMillis(ROUND_TIMEOUT_SECONDS));
+                if (thread.isAlive()) {
+                    violations.add(thread.getName() + " did not finish");
+                    thread.interrupt();
+                }
+            }
+            queueManager.shutdown();
+
+            for (String number : issued.keySet()) {
+                if (!calledBy.containsKey(number)) {
+                    violations.add("Ticket " + number + " was issued but never called");
+                }
+            }
+            checkDatabase(dbManager, issued, violations);
+            dbManager.close();
+
+            DatabaseManager reopened = BenchmarkSupport.openDatabase(directory);
+            QueueManager restarted = new QueueManager(reopened);
+            if (restarted.getTotalWaitingCount() > 0) {
+                violations.add("After a restart " + restarted.getTotalWaitingCount() + " completed tickets are waiting again");
+            }
+            restarted.shutdown();
+            reopened.close();
+        } finally {
+            BenchmarkSupport.deleteRecursively(directory);
+        }
+        return violations;
+    }
+
+    private static void checkDatabase(DatabaseManager dbManager, Map<String, Ticket> issued, List<String> violations) {
+        Map<String, Ticket> rows = new HashMap<>();
+        for (Ticket.TicketStatus status : Ticket.TicketStatus.values()) {
+            for (Ticket row : dbManager.getTicketsByStatus(status)) {
+                rows.put(row.getTicketNumber(), row);
+            }
+        }
+        if (rows.size() != issued.size()) {
+            violations.add("Database holds " + rows.size() + " tickets but " + issued.size() + " were issued");
+        }
+        for (String number : issued.keySet()) {
+            Ticket row = rows.get(number);
+            if (row == null) {
+                violations.add("Ticket " + number + " is missing from the database");
+            } else if (row.getStatus() != Ticket.TicketStatus.COMPLETED) {
+                violations.add("Ticket " + number + " was completed but is stored as " + row.getStatus());
+            } else if (row.getCallTime() == null || row.getServiceEndTime() == null) {
+                violations.add("Ticket " + number + " is stored as completed without its call or end time");
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.nextque.benchmarks;
+
+import com.nextque.db.ConnectionPool;
+import com.nextque.db.DatabaseManager;
+import com.nextque.db.StorageTuning;
+import com.nextque.model.Ticket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-operation latency of a point read and a single-row update through {@link ConnectionPool}
+ * leases, against opening a fresh SQLite connection for every call as DatabaseManager used to.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.QUIET_LOGGING)
+@State(Scope.Benchmark)
+public class ConnectionPoolBenchmark {
+    private static final int HISTORY = 10_000;
+    private static final String READ_SQL = "SELECT displayName FROM service_types WHERE name = ?";
+    private static final String WRITE_SQL = "UPDATE tickets SET customerName = customerName WHERE ticketNumber = ?";
+
+    private Path directory;
+    private String url;
+    private ConnectionPool pool;
+    private String serviceName;
+    private List<Ticket> waiting;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        directory = BenchmarkSupport.createTempDirectory("pool");
+        url = BenchmarkSupport.databaseUrl(directory);
+        DatabaseManager dbManager = BenchmarkSupport.openDatabase(directory);
+        BenchmarkSupport.seedHistory(dbManager, HISTORY, 200, 3L);
+        serviceName = dbManager.getAllServiceTypes().get(0).getName();
+        waiting = dbManager.getTicketsByStatus(Ticket.TicketStatus.WAITING);
+        dbManager.close();
+        pool = new ConnectionPool(url, 4, 10_000L, 30_000L, 5_000, StorageTuning.fromConfig());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.close();
+        BenchmarkSupport.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public String pooledRead() throws SQLException {
+        try (Connection conn = pool.acquireReader()) {
+            return read(conn);
+        }
+    }
+
+    @Benchmark
+    public String connectPerCallRead() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(url)) {
+            return read(conn);
+        }
+    }
+
+    @Benchmark
+    public int pooledWrite() throws SQLException {
+        try (Connection conn = pool.acquireWriter()) {
+            return write(conn);
+        }
+    }
+
+    @Benchmark
+    public int connectPerCallWrite() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(url)) {
+            return write(conn);
+        }
+    }
+
+    private String read(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(READ_SQL)) {
+            pstmt.setString(1, serviceName);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+    private int write(Connection conn) throws SQLException {
+        Ticket ticket = waiting.get(cursor);
+        cursor = cursor + 1 == waiting.size() ? 0 : cursor + 1;
+        try (PreparedStatement pstmt = conn.prepareStatement(WRITE_SQL)) {
+            pstmt.setString(1, ticket.getTicketNumber());
+            return pstmt.executeUpdate();
+        }
+    }
+}
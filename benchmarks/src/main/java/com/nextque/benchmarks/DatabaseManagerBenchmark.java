@@ -0,0 +1,125 @@
+package com.nextque.benchmarks;
+
+import com.nextque.db.DatabaseManager;
+import com.nextque.db.TicketQuery;
+import com.nextque.model.ServiceType;
+import com.nextque.model.Ticket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** {@link DatabaseManager} save, update and load paths against a temp SQLite file. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.QUIET_LOGGING)
+@State(Scope.Benchmark)
+public class DatabaseManagerBenchmark {
+    private static final int WAITING_TICKETS = 200;
+    private static final int WRITE_BATCH_SIZE = 100;
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"10000", "100000"})
+    public int history;
+
+    private Path directory;
+    private DatabaseManager dbManager;
+    private ServiceType serviceType;
+    private List<Ticket> waiting;
+    private LocalDateTime midpoint;
+    private int cursor;
+    private int sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        directory = BenchmarkSupport.createTempDirectory("db");
+        dbManager = BenchmarkSupport.openDatabase(directory);
+        BenchmarkSupport.seedHistory(dbManager, history, WAITING_TICKETS, 7L);
+        serviceType = dbManager.getAllServiceTypes().get(0);
+        waiting = dbManager.getTicketsByStatus(Ticket.TicketStatus.WAITING);
+        midpoint = LocalDateTime.now().minusMinutes(history / 2);
+        sequence = history + 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dbManager.close();
+        BenchmarkSupport.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Ticket saveTicket() {
+        Ticket ticket = BenchmarkSupport.waitingTicket(BenchmarkSupport.historyNumber(serviceType, sequence++), serviceType,
+                "Walk-in", LocalDateTime.now(), Ticket.PriorityReason.NONE);
+        dbManager.saveTicket(ticket);
+        return ticket;
+    }
+
+    @Benchmark
+    public void updateTicketStatus() {
+        Ticket ticket = nextWaiting();
+        dbManager.updateTicketStatus(ticket.getTicketNumber(), Ticket.TicketStatus.WAITING, null);
+    }
+
+    /** One write-behind transaction of {@value #WRITE_BATCH_SIZE} ticket states. */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void persistTicketStates() throws SQLException {
+        List<Ticket> batch = new ArrayList<>(WRITE_BATCH_SIZE);
+        for (int i = 0; i < WRITE_BATCH_SIZE; i++) {
+            batch.add(nextWaiting());
+        }
+        dbManager.persistTicketStates(batch);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Ticket> loadWaitingTickets() {
+        return dbManager.getTicketsByStatus(Ticket.TicketStatus.WAITING);
+    }
+
+    @Benchmark
+    public List<Ticket> firstHistoryPage() {
+        return dbManager.getTicketsIssuedBefore(null, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Ticket> deepHistoryPage() {
+        return dbManager.getTicketsIssuedBefore(midpoint, "~", PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Ticket> searchByCustomer() {
+        return dbManager.searchTickets(new TicketQuery("Customer 12", null, null, null, null, null), null, null, PAGE_SIZE);
+    }
+
+    /** The bounded read of the newest ticket numbers that seeds the ticket counter at startup. */
+    @Benchmark
+    public int highestTicketNumberSuffix() {
+        return dbManager.getHighestTicketNumberSuffix();
+    }
+
+    private Ticket nextWaiting() {
+        Ticket ticket = waiting.get(cursor);
+        cursor = cursor + 1 == waiting.size() ? 0 : cursor + 1;
+        return ticket;
+    }
+}
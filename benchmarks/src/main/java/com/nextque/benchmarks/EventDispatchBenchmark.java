@@ -0,0 +1,76 @@
+package com.nextque.benchmarks;
+
+import com.nextque.model.QueueEvent;
+import com.nextque.model.ServiceType;
+import com.nextque.model.Ticket;
+import com.nextque.service.ListenerDispatcher;
+import com.nextque.service.QueueManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Publisher-side cost of queue events fanned out to listeners through the coalescing dispatcher. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.QUIET_LOGGING)
+@State(Scope.Benchmark)
+public class EventDispatchBenchmark {
+
+    @Param({"0", "100"})
+    public long coalesceWindowMs;
+
+    @Param({"1", "16"})
+    public int listeners;
+
+    private ListenerDispatcher dispatcher;
+    private QueueEvent event;
+    private final AtomicLong delivered = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dispatcher = new ListenerDispatcher(coalesceWindowMs, 10_000, 1);
+        for (int i = 0; i < listeners; i++) {
+            dispatcher.addListener(new QueueManager.QueueEventListener() {
+                @Override
+                public void onQueueEvent(QueueEvent queueEvent) {
+                    delivered.incrementAndGet();
+                }
+
+                @Override
+                public void onQueueEvents(List<QueueEvent> events) {
+                    delivered.addAndGet(events.size());
+                }
+            });
+        }
+        ServiceType serviceType = new ServiceType("BENCHMARK", "Benchmark");
+        Ticket ticket = BenchmarkSupport.waitingTicket("BEN-0001", serviceType, "Walk-in", LocalDateTime.now(), Ticket.PriorityReason.NONE);
+        event = QueueEvent.forTicket(QueueEvent.Type.TICKET_ISSUED, ticket);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dispatcher.close();
+    }
+
+    @Benchmark
+    public void publish() {
+        dispatcher.publish(event);
+    }
+}
@@ -0,0 +1,128 @@
+package com.nextque.benchmarks;
+
+import com.formdev.flatlaf.FlatIntelliJLaf;
+import com.formdev.flatlaf.extras.FlatSVGIcon;
+import com.nextque.model.ServiceType;
+import com.nextque.ui.UITheme;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.DefaultListModel;
+import javax.swing.Icon;
+import javax.swing.JList;
+import javax.swing.UIManager;
+import javax.swing.UnsupportedLookAndFeelException;
+import javax.swing.border.Border;
+import javax.swing.border.EmptyBorder;
+import java.awt.Component;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paints a long service list page by page, the way scrolling through the admin panel does, with
+ * a renderer like AdminPanel's that looks its icon up once per cell. With {@code iconCache=false}
+ * the renderer builds a new SVG icon for every cell, as {@link UITheme#getIcon} did before it
+ * cached them. {@code htmlText=false} swaps the HTML label for plain text, which takes the
+ * per-cell HTML layout out of the measurement and leaves mostly the icon work. Runs headless.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {BenchmarkSupport.QUIET_LOGGING, "-Djava.awt.headless=true"})
+@State(Scope.Thread)
+public class IconPaintBenchmark {
+    private static final String ICON = "benchmark_list_item.svg";
+    private static final int WIDTH = 400;
+    private static final int PAGE_HEIGHT = 600;
+
+    @Param({"500", "5000"})
+    public int cells;
+
+    @Param({"true", "false"})
+    public boolean iconCache;
+
+    @Param({"true", "false"})
+    public boolean htmlText;
+
+    private JList<ServiceType> list;
+    private BufferedImage page;
+
+    @Setup(Level.Trial)
+    public void setUp() throws UnsupportedLookAndFeelException {
+        UIManager.setLookAndFeel(new FlatIntelliJLaf());
+        DefaultListModel<ServiceType> model = new DefaultListModel<>();
+        for (int i = 0; i < cells; i++) {
+            model.addElement(new ServiceType("SERVICE_" + i, "Service " + i));
+        }
+        list = new JList<>(model);
+        list.setCellRenderer(new ServiceCellRenderer(iconCache, htmlText));
+        list.setSize(WIDTH, list.getPreferredSize().height);
+        page = new BufferedImage(WIDTH, PAGE_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%nIcon cache: %d hits, %d misses.%n", UITheme.getIconCacheHits(), UITheme.getIconCacheMisses());
+    }
+
+    @Benchmark
+    public BufferedImage scrollThrough() {
+        for (int top = 0; top < list.getHeight(); top += PAGE_HEIGHT) {
+            Graphics2D g = page.createGraphics();
+            try {
+                g.translate(0, -top);
+                g.setClip(0, top, WIDTH, PAGE_HEIGHT);
+                list.paint(g);
+            } finally {
+                g.dispose();
+            }
+        }
+        return page;
+    }
+
+    private static final class ServiceCellRenderer extends DefaultListCellRenderer {
+        private static final Border CELL_BORDER = new EmptyBorder(6, 8, 6, 8);
+        private final boolean cached;
+        private final boolean html;
+
+        ServiceCellRenderer(boolean cached, boolean html) {
+            this.cached = cached;
+            this.html = html;
+        }
+
+        @Override
+        public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                      boolean isSelected, boolean cellHasFocus) {
+            super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+            ServiceType st = (ServiceType) value;
+            if (html) {
+                setText("<html><body style='padding: 3px 0px;'><b style='color:" + UITheme.COLOR_PRIMARY_NAVY_HEX() + ";'>" +
+                        st.getDisplayName() +
+                        "</b> <font color='" + UITheme.COLOR_TEXT_LIGHT_HEX() + "'>(" + st.getName() + ")</font></body></html>");
+            } else {
+                setText(st.getDisplayName() + " (" + st.getName() + ")");
+            }
+            setIcon(cached ? UITheme.getIcon(ICON) : uncachedIcon());
+            setBorder(CELL_BORDER);
+            return this;
+        }
+
+        private static Icon uncachedIcon() {
+            return new FlatSVGIcon(UITheme.class.getResource("/com/nextque/ui/icons/" + ICON)).derive(16, 16);
+        }
+    }
+}
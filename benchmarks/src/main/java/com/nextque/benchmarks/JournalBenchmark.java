@@ -0,0 +1,69 @@
+package com.nextque.benchmarks;
+
+import com.nextque.journal.JournalSnapshot;
+import com.nextque.journal.TicketJournal;
+import com.nextque.model.QueueEvent;
+import com.nextque.model.ServiceType;
+import com.nextque.model.Ticket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/** Cost of appending one ticket event to the journal with and without per-record fsync. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.QUIET_LOGGING)
+@State(Scope.Benchmark)
+public class JournalBenchmark {
+
+    @Param({"0", "50"})
+    public long fsyncIntervalMs;
+
+    private Path directory;
+    private TicketJournal journal;
+    private QueueEvent event;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = BenchmarkSupport.createTempDirectory("journal");
+        journal = TicketJournal.open(directory, fsyncIntervalMs, e -> { });
+        journal.recover();
+        ServiceType serviceType = new ServiceType("BENCHMARK", "Benchmark");
+        Ticket ticket = BenchmarkSupport.waitingTicket("BEN-0001", serviceType, "Walk-in", LocalDateTime.now(), Ticket.PriorityReason.NONE);
+        event = QueueEvent.forTicket(QueueEvent.Type.TICKET_ISSUED, ticket);
+    }
+
+    @TearDown(Level.Iteration)
+    public void checkpoint() throws IOException {
+        journal.checkpoint(() -> new JournalSnapshot(Collections.emptyList(), 0L, 0), () -> true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        journal.close();
+        BenchmarkSupport.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public void append() {
+        journal.append(event);
+    }
+}
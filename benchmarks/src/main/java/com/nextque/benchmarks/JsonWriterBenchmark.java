@@ -0,0 +1,53 @@
+package com.nextque.benchmarks;
+
+import com.nextque.api.JsonWriter;
+import com.nextque.model.ServiceType;
+import com.nextque.model.Ticket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Serializing a queue listing the way the HTTP API does. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.QUIET_LOGGING)
+@State(Scope.Thread)
+public class JsonWriterBenchmark {
+
+    @Param({"10", "500"})
+    public int queueLength;
+
+    private List<Ticket> tickets;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ServiceType serviceType = new ServiceType("BENCHMARK", "Benchmark");
+        LocalDateTime start = LocalDateTime.now().minusHours(2);
+        tickets = new ArrayList<>(queueLength);
+        for (int i = 0; i < queueLength; i++) {
+            tickets.add(BenchmarkSupport.waitingTicket(BenchmarkSupport.historyNumber(serviceType, i + 1), serviceType,
+                    "Customer \"" + i + "\"", start.plusSeconds(i * 7L), Ticket.PriorityReason.NONE));
+        }
+    }
+
+    @Benchmark
+    public String queueListing() {
+        return new JsonWriter().tickets(tickets).toString();
+    }
+}
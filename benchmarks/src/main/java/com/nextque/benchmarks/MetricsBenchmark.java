@@ -0,0 +1,53 @@
+package com.nextque.benchmarks;
+
+import com.nextque.metrics.Counter;
+import com.nextque.metrics.LatencyHistogram;
+import com.nextque.metrics.MetricFamily;
+import com.nextque.metrics.MetricsRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of the instrumentation on the queue and database hot paths. Run with {@code -prof gc}
+ * to confirm that recording does not allocate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.QUIET_LOGGING)
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+    private final MetricFamily<LatencyHistogram> latency = new MetricsRegistry().histograms(
+            "benchmark_operation_seconds", "Benchmark operation latency.", "operation");
+    private final MetricFamily<Counter> counters = new MetricsRegistry().counters(
+            "benchmark_total", "Benchmark count.", "service");
+
+    @Benchmark
+    public void timeOperation() {
+        long started = System.nanoTime();
+        latency.labels("generateTicket").recordSince(started);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void timeOperationContended() {
+        long started = System.nanoTime();
+        latency.labels("generateTicket").recordSince(started);
+    }
+
+    @Benchmark
+    public void countTicket() {
+        counters.labels("CEDULA").increment();
+    }
+}
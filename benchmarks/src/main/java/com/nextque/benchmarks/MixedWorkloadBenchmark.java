@@ -0,0 +1,93 @@
+package com.nextque.benchmarks;
+
+import com.nextque.db.DatabaseManager;
+import com.nextque.model.Ticket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Readers loading the waiting list and history pages while a writer commits ticket batches, all
+ * on one database at once. {@code DELETE} is SQLite's default rollback journal, where readers and
+ * the writer block each other; {@code WAL} is what {@link com.nextque.db.StorageTuning} sets.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.QUIET_LOGGING)
+@State(Scope.Group)
+public class MixedWorkloadBenchmark {
+    private static final int HISTORY = 100_000;
+    private static final int WAITING_TICKETS = 200;
+    private static final int WRITE_BATCH_SIZE = 20;
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"WAL", "DELETE"})
+    public String journalMode;
+
+    private Path directory;
+    private DatabaseManager dbManager;
+    private List<Ticket> waiting;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        System.setProperty("nextque.db.journalMode", journalMode);
+        directory = BenchmarkSupport.createTempDirectory("mixed");
+        dbManager = BenchmarkSupport.openDatabase(directory);
+        BenchmarkSupport.seedHistory(dbManager, HISTORY, WAITING_TICKETS, 13L);
+        waiting = dbManager.getTicketsByStatus(Ticket.TicketStatus.WAITING);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dbManager.close();
+        BenchmarkSupport.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public List<Ticket> loadWaitingTickets() {
+        return dbManager.getTicketsByStatus(Ticket.TicketStatus.WAITING);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public List<Ticket> historyPage() {
+        return dbManager.getTicketsIssuedBefore(null, null, PAGE_SIZE);
+    }
+
+    /** One write-behind transaction of {@value #WRITE_BATCH_SIZE} ticket states. */
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public void persistTicketStates() throws SQLException {
+        List<Ticket> batch = new ArrayList<>(WRITE_BATCH_SIZE);
+        for (int i = 0; i < WRITE_BATCH_SIZE; i++) {
+            batch.add(waiting.get(cursor));
+            cursor = cursor + 1 == waiting.size() ? 0 : cursor + 1;
+        }
+        dbManager.persistTicketStates(batch);
+    }
+}
@@ -0,0 +1,124 @@
+package com.nextque.benchmarks;
+
+import com.nextque.db.DatabaseManager;
+import com.nextque.model.ServiceType;
+import com.nextque.model.Ticket;
+import com.nextque.model.User;
+import com.nextque.service.QueueManager;
+import com.nextque.service.WaitEstimate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link QueueManager} operations against one service queue held at a fixed depth. Ticket
+ * writes go through the journal and the SQLite write-behind exactly as in the application.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.QUIET_LOGGING)
+@State(Scope.Benchmark)
+public class QueueManagerBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int queueDepth;
+
+    private Path directory;
+    private DatabaseManager dbManager;
+    private QueueManager queueManager;
+    private ServiceType serviceType;
+    private User agent;
+    private List<String> waitingNumbers;
+    private int cursor;
+    private int round;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        directory = BenchmarkSupport.createTempDirectory("queue");
+        BenchmarkSupport.useJournalDirectory(directory);
+        dbManager = BenchmarkSupport.openDatabase(directory);
+        queueManager = new QueueManager(dbManager);
+        serviceType = dbManager.getAllServiceTypes().get(0);
+        agent = BenchmarkSupport.agent("bench-agent");
+        for (int i = 0; i < queueDepth; i++) {
+            queueManager.generateTicket(serviceType, "Customer " + i,
+                    i % 10 == 0 ? Ticket.PriorityReason.SENIOR_CITIZEN : Ticket.PriorityReason.NONE);
+        }
+        waitingNumbers = new ArrayList<>();
+        for (Ticket ticket : queueManager.getQueueSnapshot(serviceType)) {
+            waitingNumbers.add(ticket.getTicketNumber());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        queueManager.shutdown();
+        dbManager.close();
+        BenchmarkSupport.deleteRecursively(directory);
+    }
+
+    /** Issues, calls and completes one ticket, leaving the queue depth unchanged. */
+    @Benchmark
+    public Ticket issueCallComplete() {
+        queueManager.generateTicket(serviceType, "Walk-in", Ticket.PriorityReason.NONE);
+        Ticket called = queueManager.callNextTicket(serviceType, agent);
+        queueManager.completeService(agent.getUsername());
+        return called;
+    }
+
+    /** Moves waiting tickets in and out of the priority lane. */
+    @Benchmark
+    public boolean updateTicketPriority() {
+        String ticketNumber = nextWaitingNumber();
+        Ticket.PriorityReason reason = round % 2 == 0 ? Ticket.PriorityReason.PWD : Ticket.PriorityReason.NONE;
+        return queueManager.updateTicketPriority(ticketNumber, reason);
+    }
+
+    /** A priority change followed by a wait estimate, which has to reflect the new order. */
+    @Benchmark
+    public WaitEstimate reprioritizeThenEstimateWait() {
+        updateTicketPriority();
+        return queueManager.estimateWait(nextWaitingNumber());
+    }
+
+    @Benchmark
+    public Ticket findTicket() {
+        return queueManager.findTicket(nextWaitingNumber());
+    }
+
+    @Benchmark
+    public List<Ticket> queueSnapshot() {
+        return queueManager.getQueueSnapshot(serviceType);
+    }
+
+    @Benchmark
+    public int totalWaitingCount() {
+        return queueManager.getTotalWaitingCount();
+    }
+
+    private String nextWaitingNumber() {
+        String ticketNumber = waitingNumbers.get(cursor);
+        if (++cursor == waitingNumbers.size()) {
+            cursor = 0;
+            round++;
+        }
+        return ticketNumber;
+    }
+}
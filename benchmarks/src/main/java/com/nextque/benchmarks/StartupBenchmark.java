@@ -0,0 +1,73 @@
+package com.nextque.benchmarks;
+
+import com.nextque.db.DatabaseManager;
+import com.nextque.service.QueueManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to build a {@link QueueManager} over an existing ticket history, restoring from the
+ * journal snapshot or loading from the database alone.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.QUIET_LOGGING)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int history;
+
+    @Param({"true", "false"})
+    public boolean journal;
+
+    private Path directory;
+    private DatabaseManager dbManager;
+    private QueueManager queueManager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        directory = BenchmarkSupport.createTempDirectory("startup");
+        BenchmarkSupport.useJournalDirectory(directory);
+        System.setProperty("nextque.journal.enabled", Boolean.toString(journal));
+        dbManager = BenchmarkSupport.openDatabase(directory);
+        BenchmarkSupport.seedHistory(dbManager, history, 500, 13L);
+        new QueueManager(dbManager).shutdown();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dbManager.close();
+        BenchmarkSupport.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public QueueManager startQueueManager() {
+        queueManager = new QueueManager(dbManager);
+        return queueManager;
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopQueueManager() {
+        if (queueManager != null) {
+            queueManager.shutdown();
+            queueManager = null;
+        }
+    }
+}
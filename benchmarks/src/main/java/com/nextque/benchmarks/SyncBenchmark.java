@@ -0,0 +1,115 @@
+package com.nextque.benchmarks;
+
+import com.nextque.db.DatabaseManager;
+import com.nextque.model.ServiceType;
+import com.nextque.model.Ticket;
+import com.nextque.service.QueueManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link QueueManager#syncWithDatabase()} against ticket histories of increasing size, both
+ * when nothing changed and after another client sharing the database issued and completed
+ * tickets.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.QUIET_LOGGING)
+@State(Scope.Benchmark)
+public class SyncBenchmark {
+    private static final int WAITING_TICKETS = 500;
+    private static final int REMOTE_CHANGES = 100;
+
+    @Param({"10000", "100000", "1000000"})
+    public int history;
+
+    private Path directory;
+    private DatabaseManager dbManager;
+    private DatabaseManager remoteDbManager;
+    private QueueManager queueManager;
+    private ServiceType serviceType;
+    private final Deque<Ticket> remoteWaiting = new ArrayDeque<>();
+    private int sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        directory = BenchmarkSupport.createTempDirectory("sync");
+        BenchmarkSupport.useJournalDirectory(directory);
+        dbManager = BenchmarkSupport.openDatabase(directory);
+        BenchmarkSupport.seedHistory(dbManager, history, WAITING_TICKETS, 11L);
+        queueManager = new QueueManager(dbManager);
+        remoteDbManager = BenchmarkSupport.openDatabase(directory);
+        serviceType = remoteDbManager.getAllServiceTypes().get(0);
+        sequence = history + 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        queueManager.shutdown();
+        remoteDbManager.close();
+        dbManager.close();
+        BenchmarkSupport.deleteRecursively(directory);
+    }
+
+    /** Another client issues {@value #REMOTE_CHANGES}/2 tickets and completes as many older ones. */
+    @State(Scope.Thread)
+    public static class RemoteChanges {
+        @Setup(Level.Invocation)
+        public void write(SyncBenchmark benchmark) throws SQLException {
+            benchmark.writeRemoteChanges();
+        }
+    }
+
+    @Benchmark
+    public void syncIdle() {
+        queueManager.syncWithDatabase();
+    }
+
+    @Benchmark
+    public void syncRemoteChanges(RemoteChanges changes) {
+        queueManager.syncWithDatabase();
+    }
+
+    void writeRemoteChanges() throws SQLException {
+        List<Ticket> changed = new ArrayList<>(REMOTE_CHANGES);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < REMOTE_CHANGES / 2; i++) {
+            Ticket ticket = BenchmarkSupport.waitingTicket(BenchmarkSupport.historyNumber(serviceType, sequence++), serviceType,
+                    "Remote", now, Ticket.PriorityReason.NONE);
+            remoteWaiting.addLast(ticket);
+            changed.add(ticket);
+        }
+        while (remoteWaiting.size() > WAITING_TICKETS && changed.size() < REMOTE_CHANGES) {
+            Ticket ticket = remoteWaiting.removeFirst();
+            ticket.setStatus(Ticket.TicketStatus.COMPLETED);
+            ticket.setAgentUsername("remote-agent");
+            ticket.setCallTime(now);
+            ticket.setServiceStartTime(now);
+            ticket.setServiceEndTime(now);
+            changed.add(ticket);
+        }
+        remoteDbManager.persistTicketStates(changed);
+    }
+}
@@ -0,0 +1,58 @@
+package com.nextque.benchmarks;
+
+import com.nextque.db.DatabaseManager;
+import com.nextque.model.Ticket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full ticket load with service types resolved in the same query. Each step doubles the history,
+ * so a linear load shows the score doubling too; a per-row lookup would grow far faster.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {BenchmarkSupport.QUIET_LOGGING, "-Xmx2g"})
+@State(Scope.Benchmark)
+public class TicketLoadBenchmark {
+
+    @Param({"100000", "200000", "400000"})
+    public int history;
+
+    private Path directory;
+    private DatabaseManager dbManager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        directory = BenchmarkSupport.createTempDirectory("load");
+        dbManager = BenchmarkSupport.openDatabase(directory);
+        BenchmarkSupport.seedHistory(dbManager, history, 500, 5L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dbManager.close();
+        BenchmarkSupport.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public List<Ticket> allTicketsWithResolvedServiceTypes() {
+        return dbManager.getAllTicketsWithResolvedServiceTypes();
+    }
+}
@@ -0,0 +1,151 @@
+package com.nextque.benchmarks;
+
+import com.nextque.model.ServiceType;
+import com.nextque.model.Ticket;
+import com.nextque.service.TicketHeap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link Ticket#compareTo}, alone and as used by sorting and heap ordering, and of the
+ * queue operations {@link TicketHeap} indexes (remove by number, reprioritize) against a plain
+ * {@link PriorityQueue}, which has to scan for the ticket.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = BenchmarkSupport.QUIET_LOGGING)
+@State(Scope.Thread)
+public class TicketOrderingBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private Ticket[] tickets;
+    private Ticket[] work;
+    private int left;
+    private int right;
+    private PriorityQueue<Ticket> queue;
+    private TicketHeap ticketHeap;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ServiceType serviceType = new ServiceType("BENCHMARK", "Benchmark");
+        Ticket.PriorityReason[] reasons = Ticket.PriorityReason.values();
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        tickets = new Ticket[size];
+        for (int i = 0; i < size; i++) {
+            Ticket.PriorityReason reason = random.nextInt(10) == 0 ? reasons[random.nextInt(reasons.length)] : Ticket.PriorityReason.NONE;
+            tickets[i] = BenchmarkSupport.waitingTicket(BenchmarkSupport.historyNumber(serviceType, i + 1), serviceType, null,
+                    start.plusNanos(random.nextInt(86_400) * 1_000_000_000L + random.nextInt(1_000_000_000)), reason);
+        }
+        work = new Ticket[size];
+        right = size / 2;
+        queue = new PriorityQueue<>(size);
+        ticketHeap = new TicketHeap(size);
+        for (Ticket ticket : tickets) {
+            queue.add(ticket);
+            ticketHeap.add(ticket);
+        }
+    }
+
+    @Benchmark
+    public int compareTo() {
+        left = left + 1 == size ? 0 : left + 1;
+        right = right + 1 == size ? 0 : right + 1;
+        return tickets[left].compareTo(tickets[right]);
+    }
+
+    @Benchmark
+    public Ticket[] sort() {
+        System.arraycopy(tickets, 0, work, 0, size);
+        Arrays.sort(work);
+        return work;
+    }
+
+    /** Fills a binary heap and drains it in service order. */
+    @Benchmark
+    public void heapDrain(Blackhole blackhole) {
+        PriorityQueue<Ticket> heap = new PriorityQueue<>(size);
+        for (Ticket ticket : tickets) {
+            heap.add(ticket);
+        }
+        Ticket next;
+        while ((next = heap.poll()) != null) {
+            blackhole.consume(next);
+        }
+    }
+
+    @Benchmark
+    public void ticketHeapDrain(Blackhole blackhole) {
+        TicketHeap heap = new TicketHeap(size);
+        for (Ticket ticket : tickets) {
+            heap.add(ticket);
+        }
+        Ticket next;
+        while ((next = heap.poll()) != null) {
+            blackhole.consume(next);
+        }
+    }
+
+    /** Takes a waiting ticket out by number and puts it back, as a cancel followed by a reissue. */
+    @Benchmark
+    public boolean priorityQueueRemove() {
+        Ticket ticket = nextTicket();
+        queue.remove(ticket);
+        return queue.add(ticket);
+    }
+
+    @Benchmark
+    public boolean ticketHeapRemove() {
+        Ticket ticket = nextTicket();
+        ticketHeap.remove(ticket.getTicketNumber());
+        return ticketHeap.add(ticket);
+    }
+
+    /** Raises or lowers a waiting ticket's priority; a PriorityQueue must remove and re-add it. */
+    @Benchmark
+    public boolean priorityQueueReprioritize() {
+        Ticket ticket = nextTicket();
+        queue.remove(ticket);
+        togglePriority(ticket);
+        return queue.add(ticket);
+    }
+
+    @Benchmark
+    public boolean ticketHeapReprioritize() {
+        Ticket ticket = nextTicket();
+        togglePriority(ticket);
+        return ticketHeap.changed(ticket.getTicketNumber());
+    }
+
+    private Ticket nextTicket() {
+        cursor = cursor + 1 == size ? 0 : cursor + 1;
+        return tickets[cursor];
+    }
+
+    private static void togglePriority(Ticket ticket) {
+        ticket.setPriorityReason(ticket.getPriorityReason() == Ticket.PriorityReason.NONE
+                ? Ticket.PriorityReason.SENIOR_CITIZEN : Ticket.PriorityReason.NONE);
+    }
+}
@@ -0,0 +1,137 @@
+package com.nextque.benchmarks.load;
+
+import com.nextque.model.Ticket;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Drives a running NextQue server through its HTTP API. Agents must exist on the server with
+ * the AGENT or ADMIN role.
+ */
+final class HttpApiTarget implements QueueTarget {
+    private static final Pattern SERVICE = Pattern.compile(
+            "\\{\"name\":\"((?:[^\"\\\\]|\\\\.)*)\",\"displayName\":\"(?:[^\"\\\\]|\\\\.)*\",\"waiting\":(\\d+)\\}");
+    private static final Pattern TICKET_NUMBER = Pattern.compile("\"ticketNumber\":\"((?:[^\"\\\\]|\\\\.)*)\"");
+
+    private final URI baseUri;
+    private final String accessToken;
+    private final HttpClient client;
+
+    HttpApiTarget(String baseUrl, String accessToken) {
+        this.baseUri = URI.create(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/");
+        this.accessToken = accessToken;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @Override
+    public List<String> services() {
+        try {
+            return new ArrayList<>(waitingCounts().keySet());
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot list services from " + baseUri + ": " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while listing services", e);
+        }
+    }
+
+    @Override
+    public String issue(String service, Ticket.PriorityReason reason) throws IOException, InterruptedException {
+        HttpResponse<String> response = post("api/tickets",
+                "service=" + encode(service) + "&priority=" + reason.name() + "&customerName=Load+test");
+        expect(response, 201);
+        return ticketNumber(response.body());
+    }
+
+    @Override
+    public String call(String service, String agent) throws IOException, InterruptedException {
+        HttpResponse<String> response = post("api/agents/" + encode(agent) + "/call", "service=" + encode(service));
+        if (response.statusCode() == 204) {
+            return null;
+        }
+        expect(response, 200);
+        return ticketNumber(response.body());
+    }
+
+    @Override
+    public void start(String agent) throws IOException, InterruptedException {
+        expect(post("api/agents/" + encode(agent) + "/start", ""), 200);
+    }
+
+    @Override
+    public void complete(String agent) throws IOException, InterruptedException {
+        expect(post("api/agents/" + encode(agent) + "/complete", ""), 200);
+    }
+
+    @Override
+    public Map<String, Integer> waitingCounts() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(baseUri.resolve("api/services")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        expect(response, 200);
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        Matcher matcher = SERVICE.matcher(response.body());
+        while (matcher.find()) {
+            counts.put(matcher.group(1), Integer.parseInt(matcher.group(2)));
+        }
+        return counts;
+    }
+
+    @Override
+    public boolean sync() {
+        return false;
+    }
+
+    @Override
+    public String describe() {
+        return "HTTP API at " + baseUri;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private HttpResponse<String> post(String path, String form) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form));
+        if (accessToken != null) {
+            request.header("Authorization", "Bearer " + accessToken);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void expect(HttpResponse<String> response, int status) throws IOException {
+        if (response.statusCode() != status) {
+            throw new IOException(response.request().method() + " " + response.uri().getPath()
+                    + " returned " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    private static String ticketNumber(String body) throws IOException {
+        Matcher matcher = TICKET_NUMBER.matcher(body);
+        if (!matcher.find()) {
+            throw new IOException("No ticket number in response: " + body);
+        }
+        return matcher.group(1);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,117 @@
+package com.nextque.benchmarks.load;
+
+import com.nextque.db.DatabaseManager;
+import com.nextque.model.ServiceType;
+import com.nextque.model.Ticket;
+import com.nextque.model.User;
+import com.nextque.model.UserRole;
+import com.nextque.service.QueueManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Runs a {@link QueueManager} with its journal and SQLite write-behind on a throwaway database,
+ * so a load run never touches production data.
+ */
+final class InProcessTarget implements QueueTarget {
+    private final Path directory;
+    private final DatabaseManager dbManager;
+    private final QueueManager queueManager;
+    private final Map<String, ServiceType> servicesByName = new LinkedHashMap<>();
+    private final Map<String, User> agents = new HashMap<>();
+
+    /**
+     * Creates the services in {@code requiredServices} that the fresh database lacks, then adds
+     * numbered services until there are at least {@code minimumServices}.
+     */
+    InProcessTarget(List<ServiceType> requiredServices, int minimumServices) {
+        try {
+            directory = Files.createTempDirectory("nextque-load");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        System.setProperty("nextque.journal.dir", directory.resolve("journal").toString());
+        dbManager = new DatabaseManager("jdbc:sqlite:" + directory.resolve("nextque.db"), 4);
+        for (ServiceType type : requiredServices) {
+            if (!dbManager.findServiceTypeByName(type.getName()).isPresent()) {
+                dbManager.addServiceType(type.getName(), type.getDisplayName());
+            }
+        }
+        for (int i = dbManager.getAllServiceTypes().size() + 1; i <= minimumServices; i++) {
+            dbManager.addServiceType(String.format("SERVICE_%02d", i), "Service " + i);
+        }
+        queueManager = new QueueManager(dbManager);
+        for (ServiceType type : queueManager.getAvailableServiceTypes()) {
+            servicesByName.put(type.getName(), type);
+        }
+    }
+
+    @Override
+    public List<String> services() {
+        return new ArrayList<>(servicesByName.keySet());
+    }
+
+    @Override
+    public String issue(String service, Ticket.PriorityReason reason) {
+        Ticket ticket = queueManager.generateTicket(servicesByName.get(service), "Load test", reason);
+        return ticket != null ? ticket.getTicketNumber() : null;
+    }
+
+    @Override
+    public String call(String service, String agent) {
+        User user = agents.computeIfAbsent(agent, name -> new User(name, "load", UserRole.AGENT, name));
+        Ticket ticket = queueManager.callNextTicket(servicesByName.get(service), user);
+        return ticket != null ? ticket.getTicketNumber() : null;
+    }
+
+    @Override
+    public void start(String agent) {
+        queueManager.startService(agent);
+    }
+
+    @Override
+    public void complete(String agent) {
+        queueManager.completeService(agent);
+    }
+
+    @Override
+    public Map<String, Integer> waitingCounts() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (Map.Entry<String, ServiceType> entry : servicesByName.entrySet()) {
+            counts.put(entry.getKey(), queueManager.getWaitingCount(entry.getValue()));
+        }
+        return counts;
+    }
+
+    @Override
+    public boolean sync() {
+        queueManager.syncWithDatabase();
+        return true;
+    }
+
+    @Override
+    public String describe() {
+        return "in-process QueueManager on " + directory;
+    }
+
+    @Override
+    public void close() {
+        queueManager.shutdown();
+        dbManager.close();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            System.err.println("Could not delete " + directory + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.nextque.benchmarks.load;
+
+import java.util.Arrays;
+
+/** Keeps every sample of one measurement so exact percentiles can be reported after the run. */
+final class LatencyRecorder {
+    private final String name;
+    private long[] samples = new long[1024];
+    private int count;
+    private long errors;
+    private boolean sorted = true;
+
+    LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    void record(long value) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = value;
+        sorted = false;
+    }
+
+    void recordError() {
+        errors++;
+    }
+
+    int count() {
+        return count;
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    long percentile(double percentile) {
+        if (count == 0) {
+            return 0L;
+        }
+        if (!sorted) {
+            Arrays.sort(samples, 0, count);
+            sorted = true;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return samples[Math.max(0, Math.min(count - 1, index))];
+    }
+
+    long max() {
+        return percentile(100.0);
+    }
+
+    double mean() {
+        if (count == 0) {
+            return 0.0;
+        }
+        double total = 0.0;
+        for (int i = 0; i < count; i++) {
+            total += samples[i];
+        }
+        return total / count;
+    }
+}
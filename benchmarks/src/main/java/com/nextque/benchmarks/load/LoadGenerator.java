@@ -0,0 +1,73 @@
+package com.nextque.benchmarks.load;
+
+import com.nextque.model.ServiceType;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Synthetic and replayed load against the queue engine, for sizing hardware and spotting
+ * regressions under realistic traffic. Runs in-process on a throwaway database by default, or
+ * against a running server through the HTTP API. See {@link LoadOptions#USAGE} for the options.
+ */
+public final class LoadGenerator {
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("org.slf4j.simpleLogger.defaultLogLevel") == null) {
+            System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "warn");
+        }
+        LoadOptions options;
+        try {
+            if (args.length == 1 && (args[0].equals("--help") || args[0].equals("-h"))) {
+                System.out.println(LoadOptions.USAGE);
+                return;
+            }
+            options = LoadOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        ReplayWorkload replay = options.replay != null
+                ? ReplayWorkload.load(Paths.get(options.replay), options.from, options.to) : null;
+        List<ServiceType> requiredServices = replay != null ? replay.serviceTypes() : Collections.emptyList();
+        try (QueueTarget target = options.api != null
+                ? new HttpApiTarget(options.api, options.apiToken)
+                : new InProcessTarget(requiredServices, replay != null ? 0 : options.services)) {
+            Simulation simulation = new Simulation(target, options.speed, options.sampleMinutes * 60.0);
+            String scenario;
+            if (replay != null) {
+                replay.schedule(simulation, new HashSet<>(target.services()));
+                scenario = replay.describe();
+            } else {
+                List<String> services = new ArrayList<>(target.services());
+                if (services.size() < options.services) {
+                    System.err.printf("Target offers only %d services; running with those.%n", services.size());
+                }
+                SyntheticWorkload workload = new SyntheticWorkload(options,
+                        services.subList(0, Math.min(options.services, services.size())));
+                workload.schedule(simulation);
+                scenario = workload.describe();
+            }
+            System.err.printf("Running %s against %s at %s...%n", scenario, target.describe(),
+                    options.speed > 0 ? options.speed + "x" : "full speed");
+
+            simulation.run();
+
+            LoadReport report = new LoadReport(scenario, target.describe(), simulation);
+            report.print(System.out);
+            if (options.report != null) {
+                report.writeJson(Paths.get(options.report));
+                System.err.println("Report written to " + options.report);
+            }
+        }
+    }
+}
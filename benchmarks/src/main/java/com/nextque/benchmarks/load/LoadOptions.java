@@ -0,0 +1,107 @@
+package com.nextque.benchmarks.load;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/** Command-line settings for a load run, given as {@code --name=value}. */
+final class LoadOptions {
+    static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: java -cp benchmarks.jar com.nextque.benchmarks.load.LoadGenerator [--name=value ...]",
+            "",
+            "Synthetic day (default):",
+            "  --citizens=3000        arrivals per day, Poisson, spread evenly over the services",
+            "  --services=12          number of services (missing ones are created in-process)",
+            "  --hours=8              opening hours; agents keep serving until the queues drain",
+            "  --agents=5             agents per service",
+            "  --serviceMinutes=8     mean service time",
+            "  --serviceCv=0.6        coefficient of variation of the service time",
+            "  --distribution=lognormal   lognormal | exponential | fixed",
+            "  --walkUpSeconds=30     time between a call and the start of service",
+            "  --senior=0.12 --pwd=0.04 --pregnant=0.02   priority-reason mix",
+            "",
+            "Replay:",
+            "  --replay=nextque.db    replay the ticket history of a NextQue database (read from a copy)",
+            "  --from=2024-01-01 --to=2024-01-31   optional issue-date range",
+            "",
+            "Common:",
+            "  --speed=60             simulated seconds per real second; 0 runs as fast as possible",
+            "  --seed=1               random seed",
+            "  --sampleMinutes=15     queue-depth sampling interval in simulated minutes",
+            "  --report=load-report.json   machine-readable report",
+            "  --api=http://host:8080 drive a running server instead of an in-process engine",
+            "  --apiToken=...         bearer token for the API",
+            "  --apiAgents=a,b,...    agent accounts on the server, assigned round-robin to services");
+
+    final int citizens;
+    final int services;
+    final double hours;
+    final int agentsPerService;
+    final double serviceMinutes;
+    final double serviceCv;
+    final String distribution;
+    final double walkUpSeconds;
+    final double seniorShare;
+    final double pwdShare;
+    final double pregnantShare;
+    final String replay;
+    final LocalDate from;
+    final LocalDate to;
+    final double speed;
+    final long seed;
+    final double sampleMinutes;
+    final String report;
+    final String api;
+    final String apiToken;
+    final String[] apiAgents;
+
+    private LoadOptions(Map<String, String> values) {
+        citizens = Integer.parseInt(values.getOrDefault("citizens", "3000"));
+        services = Integer.parseInt(values.getOrDefault("services", "12"));
+        hours = Double.parseDouble(values.getOrDefault("hours", "8"));
+        agentsPerService = Integer.parseInt(values.getOrDefault("agents", "5"));
+        serviceMinutes = Double.parseDouble(values.getOrDefault("serviceMinutes", "8"));
+        serviceCv = Double.parseDouble(values.getOrDefault("serviceCv", "0.6"));
+        distribution = values.getOrDefault("distribution", "lognormal");
+        walkUpSeconds = Double.parseDouble(values.getOrDefault("walkUpSeconds", "30"));
+        seniorShare = Double.parseDouble(values.getOrDefault("senior", "0.12"));
+        pwdShare = Double.parseDouble(values.getOrDefault("pwd", "0.04"));
+        pregnantShare = Double.parseDouble(values.getOrDefault("pregnant", "0.02"));
+        replay = values.get("replay");
+        from = values.containsKey("from") ? LocalDate.parse(values.get("from")) : null;
+        to = values.containsKey("to") ? LocalDate.parse(values.get("to")) : null;
+        speed = Double.parseDouble(values.getOrDefault("speed", "60"));
+        seed = Long.parseLong(values.getOrDefault("seed", "1"));
+        sampleMinutes = Double.parseDouble(values.getOrDefault("sampleMinutes", "15"));
+        report = values.get("report");
+        api = values.get("api");
+        apiToken = values.get("apiToken");
+        apiAgents = values.containsKey("apiAgents") ? values.get("apiAgents").split(",") : new String[0];
+
+        if (citizens <= 0 || services <= 0 || hours <= 0 || agentsPerService <= 0 || serviceMinutes <= 0
+                || serviceCv < 0 || speed < 0 || sampleMinutes <= 0) {
+            throw new IllegalArgumentException("Counts, durations and rates must be positive");
+        }
+        if (seniorShare + pwdShare + pregnantShare > 1.0) {
+            throw new IllegalArgumentException("Priority shares add up to more than 1");
+        }
+        if (!distribution.equals("lognormal") && !distribution.equals("exponential") && !distribution.equals("fixed")) {
+            throw new IllegalArgumentException("Unknown distribution '" + distribution + "'");
+        }
+        if (api != null && replay == null && apiAgents.length == 0) {
+            throw new IllegalArgumentException("--api needs --apiAgents for a synthetic run");
+        }
+    }
+
+    static LoadOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got '" + arg + "'");
+            }
+            values.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        return new LoadOptions(values);
+    }
+}
@@ -0,0 +1,129 @@
+package com.nextque.benchmarks.load;
+
+import com.nextque.api.JsonWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/** Summary of a finished load run, printed as text and optionally written as JSON. */
+final class LoadReport {
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+    private final String scenario;
+    private final String target;
+    private final Simulation simulation;
+
+    LoadReport(String scenario, String target, Simulation simulation) {
+        this.scenario = scenario;
+        this.target = target;
+        this.simulation = simulation;
+    }
+
+    void print(PrintStream out) {
+        double simulatedHours = simulation.simulatedSeconds() / 3600.0;
+        double realSeconds = simulation.realSeconds();
+        out.println();
+        out.println("Scenario: " + scenario);
+        out.println("Target:   " + target);
+        out.printf("Simulated %s in %.1f s real: %d issued, %d called, %d completed, %d still waiting, %d empty calls%n",
+                Simulation.formatClock(simulation.simulatedSeconds()), realSeconds, simulation.issued(),
+                simulation.called(), simulation.completed(), simulation.stillWaiting(), simulation.emptyCalls());
+        out.printf("Throughput: %.1f tickets per simulated hour, %.1f engine operations per real second%n",
+                simulatedHours > 0 ? simulation.completed() / simulatedHours : 0.0,
+                realSeconds > 0 ? totalOperations() / realSeconds : 0.0);
+
+        out.println();
+        out.printf("%-18s %8s %7s %10s %10s %10s %10s %10s%n", "Operation (ms)", "count", "errors", "mean", "p50", "p90", "p99", "max");
+        for (LatencyRecorder recorder : simulation.operations().values()) {
+            if (recorder.count() == 0 && recorder.errors() == 0) {
+                continue;
+            }
+            out.printf("%-18s %8d %7d %10.3f %10.3f %10.3f %10.3f %10.3f%n", recorder.name(), recorder.count(), recorder.errors(),
+                    recorder.mean() / 1e6, recorder.percentile(50) / 1e6, recorder.percentile(90) / 1e6,
+                    recorder.percentile(99) / 1e6, recorder.max() / 1e6);
+        }
+
+        LatencyRecorder wait = simulation.customerWait();
+        if (wait.count() > 0) {
+            out.printf("%nCustomer wait (min): mean %.1f, p50 %.1f, p90 %.1f, p99 %.1f, max %.1f%n",
+                    wait.mean() / 60_000.0, wait.percentile(50) / 60_000.0, wait.percentile(90) / 60_000.0,
+                    wait.percentile(99) / 60_000.0, wait.max() / 60_000.0);
+        }
+
+        out.printf("%nQueue depth%n%-10s %8s %8s  %s%n", "time", "waiting", "longest", "service");
+        double origin = simulation.depth().isEmpty() ? 0.0 : simulation.depth().get(0).time;
+        for (Simulation.DepthSample sample : simulation.depth()) {
+            String longestService = "-";
+            int longest = 0;
+            for (Map.Entry<String, Integer> entry : sample.waiting.entrySet()) {
+                if (entry.getValue() > longest) {
+                    longest = entry.getValue();
+                    longestService = entry.getKey();
+                }
+            }
+            out.printf("%-10s %8d %8d  %s%n", Simulation.formatClock(sample.time - origin), sample.total(), longest, longestService);
+        }
+    }
+
+    void writeJson(Path file) throws IOException {
+        JsonWriter json = new JsonWriter().beginObject()
+                .field("scenario", scenario)
+                .field("target", target)
+                .name("simulatedSeconds").value(simulation.simulatedSeconds())
+                .name("realSeconds").value(simulation.realSeconds())
+                .field("issued", simulation.issued())
+                .field("called", simulation.called())
+                .field("completed", simulation.completed())
+                .field("stillWaiting", simulation.stillWaiting())
+                .field("emptyCalls", simulation.emptyCalls());
+
+        json.name("operations").beginObject();
+        for (LatencyRecorder recorder : simulation.operations().values()) {
+            json.name(recorder.name());
+            writeDistribution(json, recorder, 1e6);
+        }
+        json.endObject();
+
+        json.name("customerWaitMinutes");
+        writeDistribution(json, simulation.customerWait(), 60_000.0);
+
+        json.name("queueDepth").beginArray();
+        double origin = simulation.depth().isEmpty() ? 0.0 : simulation.depth().get(0).time;
+        for (Simulation.DepthSample sample : simulation.depth()) {
+            json.beginObject()
+                    .name("seconds").value(sample.time - origin)
+                    .field("waiting", sample.total())
+                    .name("services").beginObject();
+            for (Map.Entry<String, Integer> entry : sample.waiting.entrySet()) {
+                json.field(entry.getKey(), entry.getValue());
+            }
+            json.endObject().endObject();
+        }
+        json.endArray().endObject();
+        Files.write(file, json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeDistribution(JsonWriter json, LatencyRecorder recorder, double divisor) {
+        json.beginObject()
+                .field("count", recorder.count())
+                .field("errors", recorder.errors())
+                .name("mean").value(recorder.mean() / divisor);
+        for (double percentile : PERCENTILES) {
+            json.name("p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile)))
+                    .value(recorder.percentile(percentile) / divisor);
+        }
+        json.name("max").value(recorder.max() / divisor).endObject();
+    }
+
+    private long totalOperations() {
+        long total = 0;
+        for (LatencyRecorder recorder : simulation.operations().values()) {
+            total += recorder.count();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,34 @@
+package com.nextque.benchmarks.load;
+
+import com.nextque.model.Ticket;
+
+import java.util.List;
+import java.util.Map;
+
+/** The queue engine a load run drives, either in-process or through the HTTP API. */
+interface QueueTarget extends AutoCloseable {
+
+    /** Internal names of the services the target accepts tickets for. */
+    List<String> services();
+
+    /** Issues a ticket and returns its number. */
+    String issue(String service, Ticket.PriorityReason reason) throws Exception;
+
+    /** Calls the next ticket for the agent and returns its number, or null if the queue is empty. */
+    String call(String service, String agent) throws Exception;
+
+    void start(String agent) throws Exception;
+
+    void complete(String agent) throws Exception;
+
+    /** Waiting tickets per service. */
+    Map<String, Integer> waitingCounts() throws Exception;
+
+    /** Runs one database sync pass if the target exposes it; returns false otherwise. */
+    boolean sync();
+
+    String describe();
+
+    @Override
+    void close();
+}
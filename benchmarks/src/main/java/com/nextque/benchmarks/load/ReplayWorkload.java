@@ -0,0 +1,146 @@
+package com.nextque.benchmarks.load;
+
+import com.nextque.db.DatabaseManager;
+import com.nextque.db.TicketQuery;
+import com.nextque.model.ServiceType;
+import com.nextque.model.Ticket;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Replays a recorded ticket history: each ticket is issued at its recorded time, and its agent
+ * calls, starts and completes at the recorded times. The engine decides which ticket a call
+ * returns, so the replay reproduces the arrival and agent activity pattern rather than the
+ * exact pairing of agents and tickets.
+ */
+final class ReplayWorkload {
+    private static final int PAGE_SIZE = 5_000;
+
+    private final Path source;
+    private final List<Ticket> tickets;
+    private final Map<String, ServiceType> serviceTypes = new LinkedHashMap<>();
+    private int skipped;
+
+    private ReplayWorkload(Path source, List<Ticket> tickets) {
+        this.source = source;
+        this.tickets = tickets;
+        for (Ticket ticket : tickets) {
+            ServiceType type = ticket.getServiceType();
+            String displayName = type.getDisplayName() != null ? type.getDisplayName() : type.getName();
+            serviceTypes.putIfAbsent(type.getName(), new ServiceType(type.getName(), displayName));
+        }
+    }
+
+    /**
+     * Reads the tickets issued between {@code from} and {@code to} (both optional) from a copy of
+     * the database, so the recorded file is never opened for writing.
+     */
+    static ReplayWorkload load(Path database, LocalDate from, LocalDate to) {
+        if (!Files.isRegularFile(database)) {
+            throw new IllegalArgumentException("No database at " + database);
+        }
+        Path copyDirectory = null;
+        try {
+            copyDirectory = Files.createTempDirectory("nextque-replay");
+            Path copy = copyDirectory.resolve("replay.db");
+            Files.copy(database, copy, StandardCopyOption.REPLACE_EXISTING);
+            for (String suffix : new String[] {"-wal", "-shm"}) {
+                Path sidecar = database.resolveSibling(database.getFileName() + suffix);
+                if (Files.exists(sidecar)) {
+                    Files.copy(sidecar, copyDirectory.resolve("replay.db" + suffix), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            DatabaseManager dbManager = new DatabaseManager("jdbc:sqlite:" + copy, 1);
+            try {
+                TicketQuery query = new TicketQuery(null, null, null, null, from, to);
+                List<Ticket> tickets = new ArrayList<>();
+                List<Ticket> page = dbManager.searchTickets(query, null, null, PAGE_SIZE);
+                while (!page.isEmpty()) {
+                    tickets.addAll(page);
+                    Ticket last = page.get(page.size() - 1);
+                    page = page.size() < PAGE_SIZE ? Collections.emptyList()
+                            : dbManager.searchTickets(query, last.getIssueTime(), last.getTicketNumber(), PAGE_SIZE);
+                }
+                Collections.reverse(tickets);
+                return new ReplayWorkload(database, tickets);
+            } finally {
+                dbManager.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deleteQuietly(copyDirectory);
+        }
+    }
+
+    List<ServiceType> serviceTypes() {
+        return new ArrayList<>(serviceTypes.values());
+    }
+
+    String describe() {
+        if (tickets.isEmpty()) {
+            return "replay of " + source + ": no tickets in range";
+        }
+        return String.format("replay of %s: %d tickets issued %s to %s%s", source, tickets.size(),
+                tickets.get(0).getIssueTime().toLocalDate(), tickets.get(tickets.size() - 1).getIssueTime().toLocalDate(),
+                skipped > 0 ? " (" + skipped + " skipped for unknown services)" : "");
+    }
+
+    void schedule(Simulation simulation, Set<String> availableServices) {
+        if (tickets.isEmpty()) {
+            return;
+        }
+        LocalDateTime origin = tickets.get(0).getIssueTime();
+        for (Ticket ticket : tickets) {
+            String service = ticket.getServiceType().getName();
+            if (!availableServices.contains(service)) {
+                skipped++;
+                continue;
+            }
+            Ticket.PriorityReason reason = ticket.getPriorityReason();
+            simulation.at(offset(origin, ticket.getIssueTime()), () -> simulation.issue(service, reason));
+
+            String agent = ticket.getAgentUsername();
+            if (agent == null || ticket.getCallTime() == null) {
+                continue;
+            }
+            simulation.at(offset(origin, ticket.getCallTime()), () -> simulation.call(service, agent));
+            if (ticket.getServiceStartTime() != null) {
+                simulation.at(offset(origin, ticket.getServiceStartTime()), () -> simulation.start(agent));
+            }
+            if (ticket.getServiceEndTime() != null) {
+                simulation.at(offset(origin, ticket.getServiceEndTime()), () -> simulation.complete(agent));
+            }
+        }
+    }
+
+    private static double offset(LocalDateTime origin, LocalDateTime time) {
+        return Duration.between(origin, time).toMillis() / 1000.0;
+    }
+
+    private static void deleteQuietly(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            System.err.println("Could not delete " + directory + ": " + e.getMessage());
+        }
+    }
+}
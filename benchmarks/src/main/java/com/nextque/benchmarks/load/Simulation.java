@@ -0,0 +1,302 @@
+package com.nextque.benchmarks.load;
+
+import com.nextque.model.Ticket;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Discrete-event driver for a load run. Events are ordered by simulated time and executed on
+ * the calling thread, paced so that {@code speed} simulated seconds pass per real second. Every
+ * call into the target is timed per operation. Idle stretches longer than
+ * {@link #MAX_IDLE_GAP_SECONDS}, such as nights in a replayed history, are skipped in real time.
+ */
+final class Simulation {
+    static final String GENERATE = "generateTicket";
+    static final String CALL = "callNextTicket";
+    static final String START = "startService";
+    static final String COMPLETE = "completeService";
+    static final String SYNC = "syncWithDatabase";
+    static final String WAITING = "waitingCounts";
+
+    private static final double MAX_IDLE_GAP_SECONDS = 30 * 60;
+    private static final long SYNC_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final int MAX_REPORTED_ERRORS = 10;
+
+    private final QueueTarget target;
+    private final double speed;
+    private final double sampleIntervalSeconds;
+    private final PriorityQueue<Event> events = new PriorityQueue<>();
+    private final Map<String, LatencyRecorder> operations = new LinkedHashMap<>();
+    private final LatencyRecorder customerWait = new LatencyRecorder("customerWait");
+    private final Map<String, Double> issuedAt = new HashMap<>();
+    private final Map<String, String> servingByAgent = new HashMap<>();
+    private final List<DepthSample> depth = new ArrayList<>();
+    private long sequence;
+    private double now;
+    private int issued;
+    private int called;
+    private int emptyCalls;
+    private int completed;
+    private int reportedErrors;
+    private long realNanos;
+
+    Simulation(QueueTarget target, double speed, double sampleIntervalSeconds) {
+        this.target = target;
+        this.speed = speed;
+        this.sampleIntervalSeconds = sampleIntervalSeconds;
+        for (String operation : new String[] {GENERATE, CALL, START, COMPLETE, SYNC, WAITING}) {
+            operations.put(operation, new LatencyRecorder(operation));
+        }
+    }
+
+    void at(double time, Runnable action) {
+        events.add(new Event(Math.max(time, now), sequence++, action));
+    }
+
+    double now() {
+        return now;
+    }
+
+    String issue(String service, Ticket.PriorityReason reason) {
+        LatencyRecorder recorder = operations.get(GENERATE);
+        long started = System.nanoTime();
+        try {
+            String ticketNumber = target.issue(service, reason);
+            recorder.record(System.nanoTime() - started);
+            if (ticketNumber != null) {
+                issuedAt.put(ticketNumber, now);
+                issued++;
+            }
+            return ticketNumber;
+        } catch (Exception e) {
+            failed(recorder, e);
+            return null;
+        }
+    }
+
+    /** Calls the next ticket, first completing whatever the agent is still serving. */
+    String call(String service, String agent) {
+        if (servingByAgent.containsKey(agent)) {
+            complete(agent);
+        }
+        LatencyRecorder recorder = operations.get(CALL);
+        long started = System.nanoTime();
+        try {
+            String ticketNumber = target.call(service, agent);
+            recorder.record(System.nanoTime() - started);
+            if (ticketNumber == null) {
+                emptyCalls++;
+                return null;
+            }
+            called++;
+            servingByAgent.put(agent, ticketNumber);
+            Double issueTime = issuedAt.remove(ticketNumber);
+            if (issueTime != null) {
+                customerWait.record(Math.round((now - issueTime) * 1000.0));
+            }
+            return ticketNumber;
+        } catch (Exception e) {
+            failed(recorder, e);
+            return null;
+        }
+    }
+
+    void start(String agent) {
+        if (!servingByAgent.containsKey(agent)) {
+            return;
+        }
+        LatencyRecorder recorder = operations.get(START);
+        long started = System.nanoTime();
+        try {
+            target.start(agent);
+            recorder.record(System.nanoTime() - started);
+        } catch (Exception e) {
+            failed(recorder, e);
+        }
+    }
+
+    void complete(String agent) {
+        if (servingByAgent.remove(agent) == null) {
+            return;
+        }
+        LatencyRecorder recorder = operations.get(COMPLETE);
+        long started = System.nanoTime();
+        try {
+            target.complete(agent);
+            recorder.record(System.nanoTime() - started);
+            completed++;
+        } catch (Exception e) {
+            failed(recorder, e);
+        }
+    }
+
+    void run() {
+        long realStart = System.nanoTime();
+        long realBase = realStart;
+        double simBase = events.isEmpty() ? 0.0 : events.peek().time;
+        double lastTime = simBase;
+        double nextSample = simBase;
+        long nextSync = realStart + SYNC_INTERVAL_NANOS;
+        long nextProgress = realStart + PROGRESS_INTERVAL_NANOS;
+        now = simBase;
+
+        while (!events.isEmpty()) {
+            Event event = events.poll();
+            while (nextSample <= event.time) {
+                sample(nextSample);
+                nextSample += sampleIntervalSeconds;
+            }
+            if (event.time - lastTime > MAX_IDLE_GAP_SECONDS) {
+                simBase = event.time;
+                realBase = System.nanoTime();
+            } else if (speed > 0) {
+                long due = realBase + (long) ((event.time - simBase) / speed * 1e9);
+                long wait;
+                while ((wait = due - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            now = event.time;
+            lastTime = event.time;
+            event.action.run();
+
+            long realNow = System.nanoTime();
+            if (realNow >= nextSync) {
+                timedSync();
+                nextSync = realNow + SYNC_INTERVAL_NANOS;
+            }
+            if (realNow >= nextProgress) {
+                System.err.printf("  simulated %s | issued %d | completed %d | waiting %d%n",
+                        formatClock(now - depthOrigin()), issued, completed, issuedAt.size());
+                nextProgress = realNow + PROGRESS_INTERVAL_NANOS;
+            }
+        }
+        sample(now);
+        realNanos = System.nanoTime() - realStart;
+    }
+
+    private void timedSync() {
+        LatencyRecorder recorder = operations.get(SYNC);
+        long started = System.nanoTime();
+        try {
+            if (target.sync()) {
+                recorder.record(System.nanoTime() - started);
+            }
+        } catch (RuntimeException e) {
+            failed(recorder, e);
+        }
+    }
+
+    private void sample(double time) {
+        LatencyRecorder recorder = operations.get(WAITING);
+        long started = System.nanoTime();
+        try {
+            Map<String, Integer> counts = target.waitingCounts();
+            recorder.record(System.nanoTime() - started);
+            depth.add(new DepthSample(time, counts));
+        } catch (Exception e) {
+            failed(recorder, e);
+        }
+    }
+
+    private void failed(LatencyRecorder recorder, Exception e) {
+        recorder.recordError();
+        if (reportedErrors++ < MAX_REPORTED_ERRORS) {
+            System.err.println("  " + recorder.name() + " failed: " + e.getMessage());
+        }
+    }
+
+    private double depthOrigin() {
+        return depth.isEmpty() ? 0.0 : depth.get(0).time;
+    }
+
+    static String formatClock(double seconds) {
+        long total = Math.round(seconds);
+        return String.format("%d:%02d:%02d", total / 3600, (total / 60) % 60, total % 60);
+    }
+
+    Map<String, LatencyRecorder> operations() {
+        return Collections.unmodifiableMap(operations);
+    }
+
+    LatencyRecorder customerWait() {
+        return customerWait;
+    }
+
+    List<DepthSample> depth() {
+        return Collections.unmodifiableList(depth);
+    }
+
+    double simulatedSeconds() {
+        return depth.isEmpty() ? 0.0 : depth.get(depth.size() - 1).time - depthOrigin();
+    }
+
+    double realSeconds() {
+        return realNanos / 1e9;
+    }
+
+    int issued() {
+        return issued;
+    }
+
+    int called() {
+        return called;
+    }
+
+    int emptyCalls() {
+        return emptyCalls;
+    }
+
+    int completed() {
+        return completed;
+    }
+
+    int stillWaiting() {
+        return issuedAt.size();
+    }
+
+    static final class DepthSample {
+        final double time;
+        final Map<String, Integer> waiting;
+
+        DepthSample(double time, Map<String, Integer> waiting) {
+            this.time = time;
+            this.waiting = waiting;
+        }
+
+        int total() {
+            int total = 0;
+            for (int count : waiting.values()) {
+                total += count;
+            }
+            return total;
+        }
+    }
+
+    private static final class Event implements Comparable<Event> {
+        final double time;
+        final long sequence;
+        final Runnable action;
+
+        Event(double time, long sequence, Runnable action) {
+            this.time = time;
+            this.sequence = sequence;
+            this.action = action;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            int byTime = Double.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.nextque.benchmarks.load;
+
+import com.nextque.model.Ticket;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * One synthetic office day: Poisson arrivals per service with a priority-reason mix, and a fixed
+ * team of agents per service whose service times follow the configured distribution. Agents
+ * poll an empty queue every {@value #IDLE_POLL_SECONDS} seconds and go home once the office has
+ * closed and their queue is empty.
+ */
+final class SyntheticWorkload {
+    private static final double IDLE_POLL_SECONDS = 15.0;
+
+    private final LoadOptions options;
+    private final List<String> services;
+    private final Random random;
+    private final double closeTime;
+    private final double arrivalRatePerService;
+
+    SyntheticWorkload(LoadOptions options, List<String> services) {
+        this.options = options;
+        this.services = services;
+        this.random = new Random(options.seed);
+        this.closeTime = options.hours * 3600.0;
+        this.arrivalRatePerService = options.citizens / closeTime / services.size();
+    }
+
+    String describe() {
+        return String.format("synthetic day: %d citizens over %.1f h, %d services, %d agents, %s service time %.1f min (cv %.2f)",
+                options.citizens, options.hours, services.size(), agentCount(), options.distribution,
+                options.serviceMinutes, options.serviceCv);
+    }
+
+    void schedule(Simulation simulation) {
+        for (String service : services) {
+            simulation.at(nextArrival(0.0), () -> arrive(simulation, service));
+        }
+        int agents = agentCount();
+        for (int i = 0; i < agents; i++) {
+            String service = services.get(i % services.size());
+            String agent = options.apiAgents.length > 0 ? options.apiAgents[i] : service.toLowerCase() + "-agent-" + (i / services.size() + 1);
+            simulation.at(random.nextDouble() * IDLE_POLL_SECONDS, () -> work(simulation, service, agent));
+        }
+    }
+
+    private int agentCount() {
+        int wanted = options.agentsPerService * services.size();
+        return options.apiAgents.length > 0 ? Math.min(wanted, options.apiAgents.length) : wanted;
+    }
+
+    private void arrive(Simulation simulation, String service) {
+        simulation.issue(service, priorityReason());
+        double next = nextArrival(simulation.now());
+        if (next < closeTime) {
+            simulation.at(next, () -> arrive(simulation, service));
+        }
+    }
+
+    private void work(Simulation simulation, String service, String agent) {
+        String ticketNumber = simulation.call(service, agent);
+        if (ticketNumber != null) {
+            double start = simulation.now() + options.walkUpSeconds;
+            double end = start + serviceTimeSeconds();
+            simulation.at(start, () -> simulation.start(agent));
+            simulation.at(end, () -> {
+                simulation.complete(agent);
+                work(simulation, service, agent);
+            });
+        } else if (simulation.now() < closeTime) {
+            simulation.at(simulation.now() + IDLE_POLL_SECONDS, () -> work(simulation, service, agent));
+        }
+    }
+
+    private double nextArrival(double after) {
+        return after - Math.log(1.0 - random.nextDouble()) / arrivalRatePerService;
+    }
+
+    private Ticket.PriorityReason priorityReason() {
+        double u = random.nextDouble();
+        if (u < options.seniorShare) {
+            return Ticket.PriorityReason.SENIOR_CITIZEN;
+        }
+        if (u < options.seniorShare + options.pwdShare) {
+            return Ticket.PriorityReason.PWD;
+        }
+        if (u < options.seniorShare + options.pwdShare + options.pregnantShare) {
+            return Ticket.PriorityReason.PREGNANT;
+        }
+        return Ticket.PriorityReason.NONE;
+    }
+
+    private double serviceTimeSeconds() {
+        double mean = options.serviceMinutes * 60.0;
+        switch (options.distribution) {
+            case "fixed":
+                return mean;
+            case "exponential":
+                return -mean * Math.log(1.0 - random.nextDouble());
+            default:
+                double sigmaSquared = Math.log(1.0 + options.serviceCv * options.serviceCv);
+                double mu = Math.log(mean) - sigmaSquared / 2.0;
+                return Math.exp(mu + Math.sqrt(sigmaSquared) * random.nextGaussian());
+        }
+    }
+}
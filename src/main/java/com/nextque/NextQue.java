@@ -1,14 +1,19 @@
 package com.nextque;
 
 import com.formdev.flatlaf.FlatIntelliJLaf;
+import com.nextque.api.ApiServer;
 import com.nextque.auth.AuthService;
 import com.nextque.db.DatabaseManager;
+import com.nextque.engine.NextQueEngine;
 import com.nextque.service.QueueManager;
 import com.nextque.ui.LoginDialog;
 import com.nextque.ui.MainWindow;
 import com.nextque.ui.UITheme;
+import com.nextque.utils.AppConfig;
 
 import javax.swing.*;
+import java.io.IOException;
+import java.util.Arrays;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -16,19 +21,69 @@ public class NextQue {
     private static final Logger LOGGER = LoggerFactory.getLogger(NextQue.class);
 
     public static void main(String[] args) {
+        if (Arrays.asList(args).contains("--headless")) {
+            runHeadless();
+        } else {
+            runDesktop();
+        }
+    }
+
+    private static void runHeadless() {
+        System.setProperty("java.awt.headless", "true");
+        LOGGER.info("Starting NextQue in headless mode...");
+
+        NextQueEngine engine = new NextQueEngine();
+        startEngine(engine, AppConfig.getBoolean("nextque.api.enabled", true));
+        try {
+            engine.awaitTermination();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            engine.stop();
+        }
+    }
+
+    private static void startEngine(NextQueEngine engine, boolean withApi) {
+        ApiServer apiServer = null;
+        if (withApi) {
+            try {
+                apiServer = ApiServer.fromConfig(engine.getQueueManager(), engine.getDatabaseManager());
+            } catch (IOException e) {
+                LOGGER.error("Failed to start API server: {}", e.getMessage(), e);
+            }
+        }
+        ApiServer api = apiServer;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (api != null) {
+                api.stop();
+            }
+            engine.stop();
+        }, "nextque-shutdown"));
+        engine.start();
+        if (api != null) {
+            api.start();
+        }
+    }
+
+    private static void runDesktop() {
         LOGGER.info("Starting NextQue Application...");
 
         try {
             UIManager.setLookAndFeel(new FlatIntelliJLaf());
             UITheme.applyGlobalStyles();
+            if (AppConfig.getBoolean("nextque.ui.preloadIcons", true)) {
+                UITheme.preloadIconsAsync();
+            }
         } catch (UnsupportedLookAndFeelException e) {
             LOGGER.error("Failed to initialize FlatLaf theme: {}", e.getMessage(), e);
         }
 
+        NextQueEngine engine = new NextQueEngine();
+        startEngine(engine, AppConfig.getBoolean("nextque.api.enabled", false));
+
         SwingUtilities.invokeLater(() -> {
-            DatabaseManager dbManager = new DatabaseManager();
+            DatabaseManager dbManager = engine.getDatabaseManager();
+            QueueManager queueManager = engine.getQueueManager();
             AuthService authService = new AuthService(dbManager);
-            QueueManager queueManager = new QueueManager(dbManager);
 
             LoginDialog loginDialog = new LoginDialog(null, authService);
             loginDialog.setVisible(true);
@@ -0,0 +1,166 @@
+package com.nextque.api;
+
+import com.nextque.db.DatabaseManager;
+import com.nextque.metrics.Counter;
+import com.nextque.metrics.MetricFamily;
+import com.nextque.metrics.MetricsRegistry;
+import com.nextque.service.QueueManager;
+import com.nextque.utils.AppConfig;
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embedded HTTP server exposing the queue engine as a JSON API for remote kiosks, displays and
+ * agent stations. Requests are handled on a fixed-size pool with a bounded backlog; when the
+ * backlog is full the request is answered with 503 from a separate overflow thread, so the
+ * accepting thread never runs handlers itself and overload is visible to clients.
+ * <p>
+ * The server listens on the loopback interface unless {@code nextque.api.host} says otherwise.
+ * On any other address, requests that change the queue are refused unless an access token is
+ * configured.
+ */
+public class ApiServer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ApiServer.class);
+    private static final MetricFamily<Counter> REJECTED = MetricsRegistry.global().counters(
+            "nextque_api_rejected_total", "Requests answered with 503 because the request backlog was full.", "context");
+    private static final int OVERFLOW_BACKLOG = 1024;
+    private static final byte[] BUSY_BODY = "{\"error\":\"Server busy, try again shortly\"}".getBytes(StandardCharsets.UTF_8);
+    private static final ThreadLocal<Boolean> SHEDDING = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    static {
+        // The JDK server writes headers and body separately; without TCP_NODELAY small responses
+        // stall on delayed ACKs for ~40 ms each.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor overflow;
+    private final DisplayEventStream displayStream;
+
+    public ApiServer(QueueManager queueManager, DatabaseManager dbManager, String host, int port,
+                     int threads, int backlog, String accessToken) throws IOException {
+        int poolSize = Math.max(1, threads);
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = r -> {
+            Thread t = new Thread(r, "nextque-api-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        // Only reads the request and writes a 503, so one thread keeps up; if even its queue fills,
+        // the accepting thread answers the 503 itself rather than dropping the connection.
+        this.overflow = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(OVERFLOW_BACKLOG), threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, backlog)), threadFactory,
+                (task, pool) -> overflow.execute(() -> shed(task)));
+        this.server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        boolean tokenRequired = accessToken != null && !accessToken.isEmpty();
+        boolean loopbackOnly = server.getAddress().getAddress().isLoopbackAddress();
+        if (!tokenRequired && !loopbackOnly) {
+            LOGGER.warn("API is reachable on {} without an access token; changes to the queue will be refused. " +
+                    "Set nextque.api.token to allow them.", server.getAddress());
+        }
+        DisplayBoard displayBoard = new DisplayBoard(queueManager);
+        DisplayPageHandler displayPage = new DisplayPageHandler(displayBoard);
+        this.displayStream = new DisplayEventStream(queueManager, displayBoard);
+        Filter busyFilter = new BusyFilter();
+        HttpContext[] contexts = {
+                server.createContext("/api/", new QueueApiHandler(queueManager, dbManager,
+                        tokenRequired ? accessToken : null, tokenRequired || loopbackOnly)),
+                server.createContext("/api/display/events", displayStream),
+                server.createContext("/api/display/state", displayPage),
+                server.createContext("/display", displayPage),
+                server.createContext("/metrics", new MetricsHandler(MetricsRegistry.global()))
+        };
+        for (HttpContext context : contexts) {
+            context.getFilters().add(busyFilter);
+        }
+        this.server.setExecutor(executor);
+    }
+
+    public static ApiServer fromConfig(QueueManager queueManager, DatabaseManager dbManager) throws IOException {
+        return new ApiServer(queueManager, dbManager,
+                AppConfig.getString("nextque.api.host", "127.0.0.1"),
+                AppConfig.getInt("nextque.api.port", 8080),
+                AppConfig.getInt("nextque.api.threads", 8),
+                AppConfig.getInt("nextque.api.backlog", 256),
+                AppConfig.getString("nextque.api.token", null));
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public void start() {
+        server.start();
+        LOGGER.info("API server listening on {}.", server.getAddress());
+    }
+
+    public void stop() {
+        displayStream.close();
+        server.stop(1);
+        executor.shutdown();
+        overflow.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+            overflow.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+        LOGGER.info("API server stopped after {} requests ({} turned away as busy).",
+                executor.getCompletedTaskCount(), overflow.getCompletedTaskCount());
+    }
+
+    /** Runs a request the pool had no room for; {@link BusyFilter} answers it with 503. */
+    private static void shed(Runnable exchange) {
+        SHEDDING.set(Boolean.TRUE);
+        try {
+            exchange.run();
+        } finally {
+            SHEDDING.set(Boolean.FALSE);
+        }
+    }
+
+    private static final class BusyFilter extends Filter {
+        @Override
+        public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+            if (!SHEDDING.get()) {
+                chain.doFilter(exchange);
+                return;
+            }
+            REJECTED.labels(exchange.getHttpContext().getPath()).increment();
+            try {
+                exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                exchange.sendResponseHeaders(503, BUSY_BODY.length);
+                exchange.getResponseBody().write(BUSY_BODY);
+            } finally {
+                exchange.close();
+            }
+        }
+
+        @Override
+        public String description() {
+            return "Answers requests with 503 when the request backlog is full";
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.nextque.api;
+
+import com.nextque.model.ServiceType;
+import com.nextque.model.Ticket;
+import com.nextque.service.QueueManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * The public display board state as JSON: every service with its now-serving ticket numbers,
+ * waiting count and the expected wait for a ticket issued now. The full board is serialized once and reused until the next queue event
+ * invalidates it, so page loads and new stream subscribers cost a single buffer write.
+ */
+class DisplayBoard {
+    private final QueueManager queueManager;
+    private byte[] cachedBoard;
+
+    DisplayBoard(QueueManager queueManager) {
+        this.queueManager = queueManager;
+    }
+
+    synchronized byte[] snapshot() {
+        if (cachedBoard == null) {
+            cachedBoard = json(queueManager.getAvailableServiceTypes()).getBytes(StandardCharsets.UTF_8);
+        }
+        return cachedBoard;
+    }
+
+    synchronized void invalidate() {
+        cachedBoard = null;
+    }
+
+    String json(Collection<ServiceType> types) {
+        JsonWriter json = new JsonWriter().beginObject()
+                .field("totalWaiting", queueManager.getTotalWaitingCount())
+                .name("services").beginArray();
+        for (ServiceType type : types) {
+            json.beginObject()
+                    .field("name", type.getName())
+                    .field("displayName", type.getDisplayName())
+                    .field("waiting", queueManager.getWaitingCount(type))
+                    .field("estimatedWaitSeconds", queueManager.estimateWaitForNewTicket(type, Ticket.PriorityReason.NONE).getSeconds())
+                    .name("serving").beginArray();
+            for (Ticket ticket : queueManager.getServingTickets(type)) {
+                json.value(ticket.getTicketNumber());
+            }
+            json.endArray().endObject();
+        }
+        return json.endArray().endObject().toString();
+    }
+}
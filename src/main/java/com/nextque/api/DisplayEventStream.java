@@ -0,0 +1,237 @@
+package com.nextque.api;
+
+import com.nextque.model.QueueEvent;
+import com.nextque.model.ServiceType;
+import com.nextque.service.QueueManager;
+import com.nextque.utils.AppConfig;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-Sent Events stream of the public display board. A new subscriber first receives a
+ * {@code snapshot} event with every service, then {@code update} events carrying the current
+ * now-serving tickets and waiting count of each service that changed. Every message is
+ * serialized once and shared by all subscribers. Each subscriber has a bounded buffer drained by
+ * its own writer thread, so a stalled socket only ever blocks that subscriber; a subscriber
+ * whose buffer overflows is disconnected.
+ */
+class DisplayEventStream implements HttpHandler, QueueManager.QueueEventListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DisplayEventStream.class);
+    private static final byte[] HEARTBEAT = ":\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final QueueManager queueManager;
+    private final DisplayBoard displayBoard;
+    private final int maxClients;
+    private final int clientBuffer;
+    private final List<Client> clients = new CopyOnWriteArrayList<>();
+    private final Object broadcastLock = new Object();
+    private final ScheduledExecutorService heartbeats;
+    private final AtomicInteger writerCount = new AtomicInteger();
+    private final AtomicLong evicted = new AtomicLong();
+    private byte[] snapshotSource;
+    private byte[] snapshotMessage;
+
+    DisplayEventStream(QueueManager queueManager, DisplayBoard displayBoard) {
+        this(queueManager, displayBoard,
+                AppConfig.getInt("nextque.display.maxClients", 1_000),
+                AppConfig.getInt("nextque.display.clientBuffer", 64),
+                AppConfig.getLong("nextque.display.heartbeatMs", 15_000L));
+    }
+
+    DisplayEventStream(QueueManager queueManager, DisplayBoard displayBoard, int maxClients, int clientBuffer, long heartbeatMillis) {
+        this.queueManager = queueManager;
+        this.displayBoard = displayBoard;
+        this.maxClients = Math.max(1, maxClients);
+        this.clientBuffer = Math.max(2, clientBuffer);
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "nextque-display-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        long heartbeat = Math.max(1_000L, heartbeatMillis);
+        heartbeats.scheduleWithFixedDelay(() -> broadcast(HEARTBEAT), heartbeat, heartbeat, TimeUnit.MILLISECONDS);
+        queueManager.addQueueEventListener(this);
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(405, -1);
+            exchange.close();
+            return;
+        }
+        if (clients.size() >= maxClients) {
+            exchange.getResponseHeaders().set("Retry-After", "10");
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.getResponseHeaders().set("X-Accel-Buffering", "no");
+        exchange.sendResponseHeaders(200, 0);
+
+        Client client = new Client(exchange);
+        synchronized (broadcastLock) {
+            client.offer(snapshotMessage());
+            clients.add(client);
+        }
+        client.start();
+        LOGGER.debug("Display subscriber {} connected; {} connected.", exchange.getRemoteAddress(), clients.size());
+    }
+
+    @Override
+    public void onQueueEvent(QueueEvent event) {
+        onQueueEvents(List.of(event));
+    }
+
+    @Override
+    public void onQueueEvents(List<QueueEvent> events) {
+        displayBoard.invalidate();
+        if (clients.isEmpty()) {
+            return;
+        }
+        boolean reconfigured = false;
+        Set<ServiceType> changed = new LinkedHashSet<>();
+        for (QueueEvent event : events) {
+            if (event.getType() == QueueEvent.Type.SERVICES_RECONFIGURED) {
+                reconfigured = true;
+            } else if (event.getServiceType() != null) {
+                changed.add(event.getServiceType());
+            }
+        }
+        // Serialized under the lock so no subscriber sees an older state after a newer snapshot.
+        synchronized (broadcastLock) {
+            if (reconfigured) {
+                broadcast(snapshotMessage());
+            } else if (!changed.isEmpty()) {
+                broadcast(message("update", displayBoard.json(changed)));
+            }
+        }
+    }
+
+    int getClientCount() {
+        return clients.size();
+    }
+
+    long getEvictedCount() {
+        return evicted.get();
+    }
+
+    void close() {
+        queueManager.removeQueueEventListener(this);
+        heartbeats.shutdownNow();
+        for (Client client : clients) {
+            client.disconnect();
+        }
+        clients.clear();
+        LOGGER.info("Display event stream closed; {} slow subscribers were evicted.", evicted.get());
+    }
+
+    private void broadcast(byte[] message) {
+        synchronized (broadcastLock) {
+            for (Client client : clients) {
+                if (!client.offer(message)) {
+                    evicted.incrementAndGet();
+                    LOGGER.warn("Disconnecting slow display subscriber {}.", client.exchange.getRemoteAddress());
+                    remove(client);
+                }
+            }
+        }
+    }
+
+    private void remove(Client client) {
+        if (clients.remove(client)) {
+            client.disconnect();
+        }
+    }
+
+    private byte[] snapshotMessage() {
+        byte[] board = displayBoard.snapshot();
+        if (board != snapshotSource) {
+            byte[] prefix = "retry: 3000\nevent: snapshot\ndata: ".getBytes(StandardCharsets.UTF_8);
+            byte[] message = Arrays.copyOf(prefix, prefix.length + board.length + 2);
+            System.arraycopy(board, 0, message, prefix.length, board.length);
+            message[message.length - 2] = '\n';
+            message[message.length - 1] = '\n';
+            snapshotSource = board;
+            snapshotMessage = message;
+        }
+        return snapshotMessage;
+    }
+
+    private static byte[] message(String event, String data) {
+        return ("event: " + event + "\ndata: " + data + "\n\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private final class Client implements Runnable {
+        private final HttpExchange exchange;
+        private final OutputStream out;
+        private final BlockingQueue<byte[]> buffer = new ArrayBlockingQueue<>(clientBuffer);
+        private final Thread writer;
+        private volatile boolean closed;
+
+        Client(HttpExchange exchange) {
+            this.exchange = exchange;
+            this.out = exchange.getResponseBody();
+            this.writer = new Thread(this, "nextque-display-writer-" + writerCount.incrementAndGet());
+            this.writer.setDaemon(true);
+        }
+
+        void start() {
+            writer.start();
+        }
+
+        boolean offer(byte[] message) {
+            return !closed && buffer.offer(message);
+        }
+
+        @Override
+        public void run() {
+            List<byte[]> pending = new ArrayList<>();
+            try {
+                while (!closed) {
+                    pending.add(buffer.take());
+                    buffer.drainTo(pending);
+                    for (byte[] message : pending) {
+                        out.write(message);
+                    }
+                    pending.clear();
+                    out.flush();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                LOGGER.debug("Display subscriber {} disconnected: {}", exchange.getRemoteAddress(), e.getMessage());
+            } finally {
+                remove(this);
+                exchange.close();
+            }
+        }
+
+        void disconnect() {
+            closed = true;
+            buffer.clear();
+            writer.interrupt();
+        }
+    }
+}
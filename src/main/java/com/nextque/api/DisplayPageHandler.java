@@ -0,0 +1,66 @@
+package com.nextque.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Serves the browser display board ({@code /display}) and the current board state as JSON
+ * ({@code /api/display/state}). Both responses are prepared byte arrays written in one call.
+ */
+class DisplayPageHandler implements HttpHandler {
+    private static final String PAGE_RESOURCE = "/com/nextque/web/display.html";
+
+    private final DisplayBoard displayBoard;
+    private final byte[] page;
+    private final String pageTag;
+
+    DisplayPageHandler(DisplayBoard displayBoard) throws IOException {
+        this.displayBoard = displayBoard;
+        try (InputStream in = DisplayPageHandler.class.getResourceAsStream(PAGE_RESOURCE)) {
+            if (in == null) {
+                throw new IOException("Display page resource " + PAGE_RESOURCE + " not found");
+            }
+            this.page = in.readAllBytes();
+        }
+        this.pageTag = "\"" + Integer.toHexString(Arrays.hashCode(page)) + "\"";
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/display") || path.equals("/display/")) {
+                if (pageTag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    exchange.sendResponseHeaders(304, -1);
+                    return;
+                }
+                exchange.getResponseHeaders().set("ETag", pageTag);
+                send(exchange, "text/html; charset=utf-8", page);
+            } else if (path.equals("/api/display/state")) {
+                send(exchange, "application/json; charset=utf-8", displayBoard.snapshot());
+            } else {
+                exchange.sendResponseHeaders(404, -1);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void send(HttpExchange exchange, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
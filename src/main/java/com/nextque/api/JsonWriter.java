@@ -0,0 +1,186 @@
+package com.nextque.api;
+
+import com.nextque.model.ServiceType;
+import com.nextque.model.Ticket;
+import com.nextque.service.WaitEstimate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Minimal streaming JSON writer for the API responses. Commas between members and elements are
+ * inserted automatically; callers only open and close objects and arrays in the right order.
+ */
+public final class JsonWriter {
+    private final StringBuilder out;
+    private boolean needsComma;
+
+    public JsonWriter() {
+        this(new StringBuilder(256));
+    }
+
+    public JsonWriter(StringBuilder out) {
+        this.out = out;
+    }
+
+    public JsonWriter beginObject() {
+        separator();
+        out.append('{');
+        needsComma = false;
+        return this;
+    }
+
+    public JsonWriter endObject() {
+        out.append('}');
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter beginArray() {
+        separator();
+        out.append('[');
+        needsComma = false;
+        return this;
+    }
+
+    public JsonWriter endArray() {
+        out.append(']');
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter name(String name) {
+        separator();
+        quote(name);
+        out.append(':');
+        needsComma = false;
+        return this;
+    }
+
+    public JsonWriter value(String value) {
+        separator();
+        if (value == null) {
+            out.append("null");
+        } else {
+            quote(value);
+        }
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter value(long value) {
+        separator();
+        out.append(value);
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter value(double value) {
+        separator();
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            out.append("null");
+        } else {
+            out.append(value);
+        }
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter value(boolean value) {
+        separator();
+        out.append(value);
+        needsComma = true;
+        return this;
+    }
+
+    public JsonWriter value(LocalDateTime value) {
+        return value(value != null ? value.toString() : null);
+    }
+
+    public JsonWriter field(String name, String value) {
+        return name(name).value(value);
+    }
+
+    public JsonWriter field(String name, long value) {
+        return name(name).value(value);
+    }
+
+    public JsonWriter field(String name, LocalDateTime value) {
+        return name(name).value(value);
+    }
+
+    public JsonWriter ticket(Ticket ticket) {
+        return ticket(ticket, null);
+    }
+
+    /** Writes the ticket with its expected wait, when it has one. */
+    public JsonWriter ticket(Ticket ticket, WaitEstimate estimate) {
+        if (ticket == null) {
+            return value((String) null);
+        }
+        beginObject()
+                .field("ticketNumber", ticket.getTicketNumber())
+                .field("service", ticket.getServiceType().getName())
+                .field("serviceName", ticket.getServiceType().getDisplayName())
+                .field("customerName", ticket.getCustomerName())
+                .field("priority", ticket.getPriorityReason().name())
+                .field("status", ticket.getStatus().name())
+                .field("agent", ticket.getAgentUsername())
+                .field("issueTime", ticket.getIssueTime())
+                .field("callTime", ticket.getCallTime())
+                .field("serviceStartTime", ticket.getServiceStartTime())
+                .field("serviceEndTime", ticket.getServiceEndTime());
+        if (estimate != null) {
+            field("ticketsAhead", estimate.getTicketsAhead());
+            field("estimatedWaitSeconds", estimate.getSeconds());
+        }
+        return endObject();
+    }
+
+    public JsonWriter tickets(List<Ticket> tickets) {
+        beginArray();
+        for (Ticket ticket : tickets) {
+            ticket(ticket);
+        }
+        return endArray();
+    }
+
+    public JsonWriter service(ServiceType type) {
+        return beginObject()
+                .field("name", type.getName())
+                .field("displayName", type.getDisplayName())
+                .endObject();
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+
+    private void separator() {
+        if (needsComma) {
+            out.append(',');
+        }
+    }
+
+    private void quote(String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20 || c == 0x2028 || c == 0x2029) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
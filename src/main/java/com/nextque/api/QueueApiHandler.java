@@ -0,0 +1,302 @@
+package com.nextque.api;
+
+import com.nextque.db.DatabaseManager;
+import com.nextque.metrics.LatencyHistogram;
+import com.nextque.metrics.MetricFamily;
+import com.nextque.metrics.MetricsRegistry;
+import com.nextque.model.ServiceType;
+import com.nextque.model.Ticket;
+import com.nextque.model.User;
+import com.nextque.model.UserRole;
+import com.nextque.service.QueueManager;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Routes the {@code /api/} endpoints onto {@link QueueManager}:
+ * <pre>
+ * GET  /api/services                       services with waiting counts and the wait for a new ticket
+ * GET  /api/counts                         total and per-service waiting counts
+ * GET  /api/queues/{service}               waiting and serving tickets of one service
+ * GET  /api/tickets/{number}               a single ticket, with its expected wait while waiting
+ * POST /api/tickets                        issue a ticket (service, customerName, priority)
+ * POST /api/agents/{username}/call         call the next ticket (service)
+ * POST /api/agents/{username}/start        start serving the called ticket
+ * POST /api/agents/{username}/complete     complete the ticket being served
+ * </pre>
+ * Parameters are read from the query string and from form-encoded request bodies.
+ */
+class QueueApiHandler implements HttpHandler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueueApiHandler.class);
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+    private static final MetricFamily<LatencyHistogram> REQUEST_LATENCY = MetricsRegistry.global().histograms(
+            "nextque_api_request_seconds", "Latency of API requests, by route.", "route");
+
+    private final QueueManager queueManager;
+    private final DatabaseManager dbManager;
+    private final byte[] accessToken;
+    private final boolean changesAllowed;
+
+    /**
+     * {@code changesAllowed} is false when the server is reachable from other hosts without a
+     * token; POST requests are then refused instead of being accepted from anyone.
+     */
+    QueueApiHandler(QueueManager queueManager, DatabaseManager dbManager, String accessToken, boolean changesAllowed) {
+        this.queueManager = queueManager;
+        this.dbManager = dbManager;
+        this.accessToken = accessToken != null ? accessToken.getBytes(StandardCharsets.UTF_8) : null;
+        this.changesAllowed = changesAllowed;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        long started = System.nanoTime();
+        String[] path = exchange.getRequestURI().getPath().substring("/api/".length()).split("/");
+        String method = exchange.getRequestMethod();
+        try {
+            if ("GET".equals(method)) {
+                handleGet(exchange, path);
+            } else if ("POST".equals(method)) {
+                checkAccessToken(exchange);
+                handlePost(exchange, path, readParameters(exchange));
+            } else {
+                throw new ApiException(405, "Method not allowed");
+            }
+        } catch (ApiException e) {
+            sendError(exchange, e.status, e.getMessage());
+        } catch (RuntimeException e) {
+            LOGGER.error("API request {} {} failed: {}", exchange.getRequestMethod(), exchange.getRequestURI(), e.getMessage(), e);
+            sendError(exchange, 500, "Internal server error");
+        } finally {
+            exchange.close();
+            REQUEST_LATENCY.labels(route(method, path)).recordSince(started);
+        }
+    }
+
+    /** The route template of a request, so that ticket numbers and usernames do not become labels. */
+    private static String route(String method, String[] path) {
+        String template;
+        if (path.length == 1 && ("services".equals(path[0]) || "counts".equals(path[0]) || "tickets".equals(path[0]))) {
+            template = path[0];
+        } else if (path.length == 2 && "queues".equals(path[0])) {
+            template = "queues/{service}";
+        } else if (path.length == 2 && "tickets".equals(path[0])) {
+            template = "tickets/{number}";
+        } else if (path.length == 3 && "agents".equals(path[0])
+                && ("call".equals(path[2]) || "start".equals(path[2]) || "complete".equals(path[2]))) {
+            template = "agents/{username}/" + path[2];
+        } else {
+            template = "other";
+        }
+        return ("GET".equals(method) || "POST".equals(method) ? method : "OTHER") + " /api/" + template;
+    }
+
+    private void handleGet(HttpExchange exchange, String[] path) throws IOException {
+        if (path.length == 1 && "services".equals(path[0])) {
+            JsonWriter json = new JsonWriter().beginArray();
+            for (ServiceType type : queueManager.getAvailableServiceTypes()) {
+                json.beginObject()
+                        .field("name", type.getName())
+                        .field("displayName", type.getDisplayName())
+                        .field("waiting", queueManager.getWaitingCount(type))
+                        .field("estimatedWaitSeconds", queueManager.estimateWaitForNewTicket(type, Ticket.PriorityReason.NONE).getSeconds())
+                        .endObject();
+            }
+            sendJson(exchange, 200, json.endArray());
+        } else if (path.length == 1 && "counts".equals(path[0])) {
+            JsonWriter json = new JsonWriter().beginObject()
+                    .field("totalWaiting", queueManager.getTotalWaitingCount())
+                    .name("services").beginObject();
+            for (ServiceType type : queueManager.getAvailableServiceTypes()) {
+                json.field(type.getName(), queueManager.getWaitingCount(type));
+            }
+            sendJson(exchange, 200, json.endObject().endObject());
+        } else if (path.length == 2 && "queues".equals(path[0])) {
+            ServiceType type = requireService(path[1]);
+            JsonWriter json = new JsonWriter().beginObject().name("service").service(type);
+            json.name("waiting").tickets(queueManager.getQueueSnapshot(type));
+            json.name("serving").tickets(queueManager.getServingTickets(type));
+            sendJson(exchange, 200, json.endObject());
+        } else if (path.length == 2 && "tickets".equals(path[0])) {
+            Ticket ticket = queueManager.findTicket(path[1]);
+            if (ticket == null) {
+                throw new ApiException(404, "Ticket " + path[1] + " not found");
+            }
+            sendJson(exchange, 200, new JsonWriter().ticket(ticket, queueManager.estimateWait(ticket.getTicketNumber())));
+        } else {
+            throw new ApiException(404, "Not found");
+        }
+    }
+
+    private void handlePost(HttpExchange exchange, String[] path, Map<String, String> params) throws IOException {
+        if (path.length == 1 && "tickets".equals(path[0])) {
+            ServiceType type = requireService(params.get("service"));
+            Ticket.PriorityReason reason = parsePriority(params.get("priority"));
+            Ticket ticket = queueManager.generateTicket(type, params.getOrDefault("customerName", ""), reason);
+            if (ticket == null) {
+                throw new ApiException(500, "Ticket could not be issued");
+            }
+            sendJson(exchange, 201, new JsonWriter().ticket(ticket, queueManager.estimateWait(ticket.getTicketNumber())));
+            return;
+        }
+        if (path.length != 3 || !"agents".equals(path[0])) {
+            throw new ApiException(404, "Not found");
+        }
+        User agent = requireAgent(path[1]);
+        String username = agent.getUsername();
+        switch (path[2]) {
+            case "call": {
+                if (queueManager.getTicketBeingServedByAgent(username) != null) {
+                    throw new ApiException(409, "Agent " + username + " is already serving a ticket");
+                }
+                Ticket ticket = queueManager.callNextTicket(requireService(params.get("service")), agent);
+                if (ticket == null) {
+                    sendEmpty(exchange, 204);
+                } else {
+                    sendJson(exchange, 200, new JsonWriter().ticket(ticket));
+                }
+                break;
+            }
+            case "start": {
+                requireServing(username);
+                queueManager.startService(username);
+                sendJson(exchange, 200, new JsonWriter().ticket(queueManager.getTicketBeingServedByAgent(username)));
+                break;
+            }
+            case "complete": {
+                Ticket ticket = requireServing(username);
+                queueManager.completeService(username);
+                sendJson(exchange, 200, new JsonWriter().ticket(ticket));
+                break;
+            }
+            default:
+                throw new ApiException(404, "Not found");
+        }
+    }
+
+    private ServiceType requireService(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new ApiException(400, "Missing parameter 'service'");
+        }
+        for (ServiceType type : queueManager.getAvailableServiceTypes()) {
+            if (type.getName().equalsIgnoreCase(name.trim())) {
+                return type;
+            }
+        }
+        throw new ApiException(404, "Service " + name + " not found");
+    }
+
+    private User requireAgent(String username) {
+        Optional<User> user = dbManager.getUser(username);
+        if (!user.isPresent() || (user.get().getRole() != UserRole.AGENT && user.get().getRole() != UserRole.ADMIN)) {
+            throw new ApiException(404, "Agent " + username + " not found");
+        }
+        return user.get();
+    }
+
+    private Ticket requireServing(String username) {
+        Ticket ticket = queueManager.getTicketBeingServedByAgent(username);
+        if (ticket == null) {
+            throw new ApiException(409, "Agent " + username + " is not serving a ticket");
+        }
+        return ticket;
+    }
+
+    private static Ticket.PriorityReason parsePriority(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return Ticket.PriorityReason.NONE;
+        }
+        try {
+            return Ticket.PriorityReason.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, "Unknown priority '" + value + "'");
+        }
+    }
+
+    private void checkAccessToken(HttpExchange exchange) {
+        if (!changesAllowed) {
+            throw new ApiException(403, "Changes over the network require an access token (nextque.api.token)");
+        }
+        if (accessToken == null) {
+            return;
+        }
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        byte[] presented = header != null && header.startsWith("Bearer ")
+                ? header.substring("Bearer ".length()).trim().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        if (!MessageDigest.isEqual(accessToken, presented)) {
+            throw new ApiException(401, "Missing or invalid access token");
+        }
+    }
+
+    private static Map<String, String> readParameters(HttpExchange exchange) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        parseForm(exchange.getRequestURI().getRawQuery(), params);
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (contentType != null && contentType.startsWith("application/x-www-form-urlencoded")) {
+            try (InputStream in = exchange.getRequestBody()) {
+                byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+                if (body.length > MAX_BODY_BYTES) {
+                    throw new ApiException(413, "Request body too large");
+                }
+                parseForm(new String(body, StandardCharsets.UTF_8), params);
+            }
+        }
+        return params;
+    }
+
+    private static void parseForm(String encoded, Map<String, String> params) {
+        if (encoded == null || encoded.isEmpty()) {
+            return;
+        }
+        for (String pair : encoded.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq >= 0 ? pair.substring(0, eq) : pair;
+            String value = eq >= 0 ? pair.substring(eq + 1) : "";
+            try {
+                params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+            } catch (IllegalArgumentException e) {
+                throw new ApiException(400, "Malformed parameter '" + key + "'");
+            }
+        }
+    }
+
+    static void sendJson(HttpExchange exchange, int status, JsonWriter json) throws IOException {
+        byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void sendEmpty(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        sendJson(exchange, status, new JsonWriter().beginObject().field("error", message).endObject());
+    }
+
+    static final class ApiException extends RuntimeException {
+        final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
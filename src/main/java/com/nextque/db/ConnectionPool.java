@@ -0,0 +1,331 @@
+package com.nextque.db;
+
+import com.nextque.metrics.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sqlite.SQLiteConfig;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps SQLite connections open for the lifetime of the application.
+ * SQLite allows a single writer at a time, so writes share one connection
+ * while reads are spread over a small set of read-only connections. Closing the pool waits, up to
+ * the acquire timeout, for leased connections to come back before closing them.
+ */
+public class ConnectionPool implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConnectionPool.class);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final int maxReaders;
+    private final long acquireTimeoutMillis;
+    private final long validationIdleMillis;
+    private final int busyTimeoutMillis;
+    private final StorageTuning tuning;
+
+    private final Semaphore writerPermit = new Semaphore(1, true);
+    private final BlockingQueue<PooledConnection> idleReaders = new LinkedBlockingQueue<>();
+    private final List<PooledConnection> allReaders = new ArrayList<>();
+    private PooledConnection writer;
+    private int leasedReaders;
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, int maxReaders, long acquireTimeoutMillis, long validationIdleMillis,
+                          int busyTimeoutMillis, StorageTuning tuning) {
+        if (url == null || url.trim().isEmpty()) {
+            throw new IllegalArgumentException("Database URL cannot be empty");
+        }
+        this.url = url;
+        this.maxReaders = Math.max(1, maxReaders);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.validationIdleMillis = validationIdleMillis;
+        this.busyTimeoutMillis = busyTimeoutMillis;
+        this.tuning = tuning;
+    }
+
+    public Connection acquireWriter() throws SQLException {
+        return acquireWriter(null);
+    }
+
+    /**
+     * Leases the writer connection. When {@code timer} is given it records how long the lease was
+     * held, counting the time spent waiting for the connection.
+     */
+    public Connection acquireWriter(LatencyHistogram timer) throws SQLException {
+        long started = System.nanoTime();
+        ensureOpen();
+        try {
+            if (!writerPermit.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out waiting for the database writer connection.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the database writer connection.", e);
+        }
+        try {
+            synchronized (this) {
+                ensureOpen();
+                if (writer == null) {
+                    writer = new PooledConnection(openPhysical(false), false);
+                }
+                writer = validate(writer);
+                return writer.lease(timer, started);
+            }
+        } catch (SQLException | RuntimeException e) {
+            writerPermit.release();
+            throw e;
+        }
+    }
+
+    public Connection acquireReader() throws SQLException {
+        return acquireReader(null);
+    }
+
+    /** Leases a reader connection, timed like {@link #acquireWriter(LatencyHistogram)}. */
+    public Connection acquireReader(LatencyHistogram timer) throws SQLException {
+        long started = System.nanoTime();
+        ensureOpen();
+        PooledConnection pooled = idleReaders.poll();
+        if (pooled == null) {
+            pooled = createReaderIfBelowLimit();
+        }
+        if (pooled == null) {
+            try {
+                pooled = idleReaders.poll(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database reader connection.", e);
+            }
+            if (pooled == null) {
+                throw new SQLException("Timed out waiting for a database reader connection (pool size " + maxReaders + ").");
+            }
+        }
+        try {
+            readerLeased();
+        } catch (SQLException e) {
+            discardReader(pooled);
+            throw e;
+        }
+        try {
+            return validate(pooled).lease(timer, started);
+        } catch (SQLException | RuntimeException e) {
+            discardReader(pooled);
+            readerReturned();
+            throw e;
+        }
+    }
+
+    private synchronized void readerLeased() throws SQLException {
+        ensureOpen();
+        leasedReaders++;
+    }
+
+    private synchronized void readerReturned() {
+        leasedReaders--;
+        notifyAll();
+    }
+
+    private synchronized PooledConnection createReaderIfBelowLimit() throws SQLException {
+        if (allReaders.size() >= maxReaders) {
+            return null;
+        }
+        PooledConnection pooled = new PooledConnection(openPhysical(true), true);
+        allReaders.add(pooled);
+        LOGGER.debug("Opened database reader connection {}/{}.", allReaders.size(), maxReaders);
+        return pooled;
+    }
+
+    private PooledConnection validate(PooledConnection pooled) throws SQLException {
+        if (System.currentTimeMillis() - pooled.lastReleased < validationIdleMillis) {
+            return pooled;
+        }
+        boolean valid;
+        try {
+            valid = !pooled.physical.isClosed() && pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            valid = false;
+        }
+        if (valid) {
+            return pooled;
+        }
+        LOGGER.warn("Replacing stale {} database connection.", pooled.readOnly ? "reader" : "writer");
+        closeQuietly(pooled.physical);
+        pooled.physical = openPhysical(pooled.readOnly);
+        return pooled;
+    }
+
+    private synchronized void discardReader(PooledConnection pooled) {
+        allReaders.remove(pooled);
+        closeQuietly(pooled.physical);
+    }
+
+    private Connection openPhysical(boolean readOnly) throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setBusyTimeout(busyTimeoutMillis);
+        if (tuning != null) {
+            tuning.applyTo(config, readOnly);
+        }
+        if (readOnly) {
+            config.setReadOnly(true);
+        }
+        return DriverManager.getConnection(url, config.toProperties());
+    }
+
+    private void release(PooledConnection pooled) {
+        try {
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            LOGGER.warn("Could not reset pooled connection, it will be reopened: {}", e.getMessage());
+            closeQuietly(pooled.physical);
+            pooled.lastReleased = 0L;
+        }
+        if (pooled.readOnly) {
+            if (closed) {
+                closeQuietly(pooled.physical);
+            } else {
+                idleReaders.offer(pooled);
+            }
+            readerReturned();
+        } else {
+            writerPermit.release();
+        }
+    }
+
+    private void ensureOpen() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool has been shut down.");
+        }
+    }
+
+    public int getMaxReaders() {
+        return maxReaders;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMillis);
+        try {
+            if (!writerPermit.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                LOGGER.warn("Writer connection still in use at shutdown; closing it anyway.");
+            }
+            awaitReaders(deadline);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (writer != null) {
+                closeQuietly(writer.physical);
+                writer = null;
+            }
+            for (PooledConnection reader : allReaders) {
+                closeQuietly(reader.physical);
+            }
+            allReaders.clear();
+            idleReaders.clear();
+        }
+        LOGGER.info("Database connection pool shut down.");
+    }
+
+    private synchronized void awaitReaders(long deadline) throws InterruptedException {
+        while (leasedReaders > 0) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                LOGGER.warn("{} reader connections still in use at shutdown; closing them anyway.", leasedReaders);
+                return;
+            }
+            wait(remaining);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            if (connection != null && !connection.isClosed()) {
+                connection.close();
+            }
+        } catch (SQLException e) {
+            LOGGER.debug("Error closing database connection: {}", e.getMessage());
+        }
+    }
+
+    private final class PooledConnection {
+        private final boolean readOnly;
+        private volatile Connection physical;
+        private volatile long lastReleased = System.currentTimeMillis();
+
+        PooledConnection(Connection physical, boolean readOnly) {
+            this.physical = physical;
+            this.readOnly = readOnly;
+        }
+
+        Connection lease(LatencyHistogram timer, long started) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new LeaseHandler(this, timer, started));
+        }
+    }
+
+    private final class LeaseHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final LatencyHistogram timer;
+        private final long started;
+        private boolean released;
+
+        LeaseHandler(PooledConnection pooled, LatencyHistogram timer, long started) {
+            this.pooled = pooled;
+            this.timer = timer;
+            this.started = started;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("close".equals(name)) {
+                if (!released) {
+                    released = true;
+                    pooled.lastReleased = System.currentTimeMillis();
+                    release(pooled);
+                    if (timer != null) {
+                        timer.recordSince(started);
+                    }
+                }
+                return null;
+            }
+            if ("isClosed".equals(name)) {
+                return released || pooled.physical.isClosed();
+            }
+            if ("equals".equals(name)) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(name)) {
+                return System.identityHashCode(proxy);
+            }
+            if (released) {
+                throw new SQLException("Connection has already been returned to the pool.");
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
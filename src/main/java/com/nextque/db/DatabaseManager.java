@@ -5,27 +5,67 @@ import com.nextque.model.Ticket;
 import com.nextque.model.User;
 import com.nextque.model.UserRole;
 import com.nextque.model.Feedback;
+import com.nextque.metrics.LatencyHistogram;
+import com.nextque.metrics.MetricFamily;
+import com.nextque.metrics.MetricsRegistry;
+import com.nextque.utils.AppConfig;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class DatabaseManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(DatabaseManager.class);
-    private static final String DB_URL = "jdbc:sqlite:nextque.db";
+    private static final MetricFamily<LatencyHistogram> STATEMENT_LATENCY = MetricsRegistry.global().histograms(
+            "nextque_db_statement_seconds", "Latency of DatabaseManager statements, including waiting for a connection.", "statement");
+    private static final String DEFAULT_DB_URL = "jdbc:sqlite:nextque.db";
+    private static final int RECENT_TICKETS_FOR_COUNTER = 1_000;
     private static final DateTimeFormatter ISO_LOCAL_DATE_TIME_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final int SCHEMA_VERSION = 4;
+    private static final String SYNC_KEY_SERVICE_TYPES = "service_types";
+    private static final String NEXT_TICKET_VERSION = "(SELECT COALESCE(MAX(changeVersion), 0) + 1 FROM tickets)";
+    private static final String TICKET_WRITE_COLUMNS = "ticketNumber, serviceTypeName, customerName, issueTime, status, priority, " +
+            "priorityReason, agentUsername, callTime, serviceStartTime, serviceEndTime, changeVersion";
+    private static final String TICKET_COLUMNS = "t.ticketNumber, t.serviceTypeName, t.customerName, t.issueTime, t.callTime, " +
+            "t.serviceStartTime, t.serviceEndTime, t.status, t.priority, t.priorityReason, t.agentUsername, " +
+            "s.displayName AS serviceDisplayName";
+
+    private final ConnectionPool connectionPool;
 
     public DatabaseManager() {
+        this(AppConfig.getString("nextque.db.url", DEFAULT_DB_URL),
+             AppConfig.getInt("nextque.db.pool.readers", 4));
+    }
+
+    public DatabaseManager(String dbUrl, int readerPoolSize) {
+        this.connectionPool = new ConnectionPool(dbUrl, readerPoolSize,
+                AppConfig.getLong("nextque.db.pool.acquireTimeoutMs", 10_000L),
+                AppConfig.getLong("nextque.db.pool.validationIdleMs", 30_000L),
+                AppConfig.getInt("nextque.db.busyTimeoutMs", 5_000),
+                StorageTuning.fromConfig());
         initializeDatabase();
     }
 
-    private Connection connect() throws SQLException {
-        return DriverManager.getConnection(DB_URL);
+    private Connection writeConnection(String statement) throws SQLException {
+        return connectionPool.acquireWriter(STATEMENT_LATENCY.labels(statement));
+    }
+
+    private Connection readConnection(String statement) throws SQLException {
+        return connectionPool.acquireReader(STATEMENT_LATENCY.labels(statement));
+    }
+
+    public void close() {
+        connectionPool.close();
     }
 
     public void initializeDatabase() {
@@ -52,6 +92,7 @@ public class DatabaseManager {
                 "priority INTEGER DEFAULT 0," +
                 "priorityReason TEXT DEFAULT 'NONE'," +
                 "agentUsername TEXT," +
+                "changeVersion INTEGER NOT NULL DEFAULT 0," +
                 "FOREIGN KEY (serviceTypeName) REFERENCES service_types(name) ON DELETE RESTRICT ON UPDATE CASCADE" +
                 ");";
         String createFeedbackTable = "CREATE TABLE IF NOT EXISTS feedback (" +
@@ -62,15 +103,21 @@ public class DatabaseManager {
                 "submissionTime TEXT NOT NULL," +
                 "FOREIGN KEY (ticketNumber) REFERENCES tickets(ticketNumber) ON DELETE SET NULL ON UPDATE CASCADE" +
                 ");";
+        String createSyncStateTable = "CREATE TABLE IF NOT EXISTS sync_state (" +
+                "key TEXT PRIMARY KEY," +
+                "version INTEGER NOT NULL" +
+                ");";
 
-        try (Connection conn = connect()) {
+        try (Connection conn = writeConnection("initializeDatabase")) {
             conn.setAutoCommit(false);
             try (Statement stmt = conn.createStatement()) {
                 stmt.execute(createUserTable);
                 stmt.execute(createServiceTypeTable);
                 stmt.execute(createTicketTable);
                 stmt.execute(createFeedbackTable);
+                stmt.execute(createSyncStateTable);
             }
+            migrateSchema(conn);
 
             addDefaultUserIfNotExists(conn, "admin", "admin123", UserRole.ADMIN, "System Administrator");
             addDefaultUserIfNotExists(conn, "agent1", "agent123", UserRole.AGENT, "Default Agent");
@@ -82,22 +129,144 @@ public class DatabaseManager {
         }
     }
 
-    public int getHighestTicketNumberSuffix() {
-        String sql = "SELECT CAST(SUBSTR(ticketNumber, INSTR(ticketNumber, '-') + 1) AS INTEGER) as num FROM tickets WHERE ticketNumber LIKE '%-%'";
-        int maxNum = 0;
-        try (Connection conn = connect();
+    private void migrateSchema(Connection conn) throws SQLException {
+        int version;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            version = rs.next() ? rs.getInt(1) : 0;
+        }
+        if (version >= SCHEMA_VERSION) {
+            return;
+        }
+        LOGGER.info("Migrating database schema from version {} to {}.", version, SCHEMA_VERSION);
+        try (Statement stmt = conn.createStatement()) {
+            if (version < 1) {
+                if (!hasColumn(conn, "tickets", "changeVersion")) {
+                    stmt.execute("ALTER TABLE tickets ADD COLUMN changeVersion INTEGER NOT NULL DEFAULT 0");
+                }
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_tickets_change_version ON tickets(changeVersion)");
+            }
+            if (version < 2) {
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_tickets_status_service ON tickets(status, serviceTypeName)");
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_tickets_issue_time ON tickets(issueTime)");
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_feedback_ticket ON feedback(ticketNumber)");
+                stmt.execute("ANALYZE");
+            }
+            if (version < 3) {
+                stmt.execute("DROP INDEX IF EXISTS idx_tickets_issue_time");
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_tickets_issue_time_number ON tickets(issueTime, ticketNumber)");
+            }
+            if (version < 4) {
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_tickets_customer_name ON tickets(customerName COLLATE NOCASE)");
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_tickets_agent ON tickets(agentUsername)");
+                stmt.execute("CREATE INDEX IF NOT EXISTS idx_feedback_submission_time ON feedback(submissionTime, id)");
+                stmt.execute("ANALYZE");
+            }
+            stmt.execute("PRAGMA user_version = " + SCHEMA_VERSION);
+        }
+    }
+
+    private boolean hasColumn(Connection conn, String table, String column) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void bumpSyncVersion(Connection conn, String key) throws SQLException {
+        String sql = "INSERT INTO sync_state(key, version) VALUES(?, 1) " +
+                     "ON CONFLICT(key) DO UPDATE SET version = version + 1";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, key);
+            pstmt.executeUpdate();
+        }
+    }
+
+    public long getServiceTypesVersion() {
+        String sql = "SELECT version FROM sync_state WHERE key = ?";
+        try (Connection conn = readConnection("getServiceTypesVersion"); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, SYNC_KEY_SERVICE_TYPES);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getLong("version");
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.error("DB Error fetching service types version: {}", e.getMessage(), e);
+        }
+        return 0L;
+    }
+
+    public long getLatestTicketChangeVersion() {
+        String sql = "SELECT COALESCE(MAX(changeVersion), 0) AS version FROM tickets";
+        try (Connection conn = readConnection("getLatestTicketChangeVersion");
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                int currentNum = rs.getInt("num");
-                if (currentNum > maxNum) {
-                    maxNum = currentNum;
+            if (rs.next()) {
+                return rs.getLong("version");
+            }
+        } catch (SQLException e) {
+            LOGGER.error("Error fetching latest ticket change version: {}", e.getMessage(), e);
+        }
+        return 0L;
+    }
+
+    public TicketChangeSet getTicketsChangedSince(long sinceVersion, int limit) {
+        String sql = "SELECT " + TICKET_COLUMNS + ", t.changeVersion FROM tickets t " +
+                     "LEFT JOIN service_types s ON s.name = t.serviceTypeName " +
+                     "WHERE t.changeVersion > ? ORDER BY t.changeVersion LIMIT ?";
+        List<Ticket> tickets = new ArrayList<>();
+        long latestVersion = sinceVersion;
+        int rows = 0;
+        Map<String, ServiceType> resolvedServiceTypes = new HashMap<>();
+        try (Connection conn = readConnection("getTicketsChangedSince"); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setLong(1, sinceVersion);
+            pstmt.setInt(2, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows++;
+                    latestVersion = rs.getLong("changeVersion");
+                    Ticket ticket = mapTicket(rs, resolvedServiceTypes);
+                    if (ticket != null) {
+                        tickets.add(ticket);
+                    }
                 }
             }
+        } catch (SQLException e) {
+            LOGGER.error("Error fetching ticket changes since version {}: {}", sinceVersion, e.getMessage(), e);
+        }
+        return new TicketChangeSet(tickets, latestVersion, rows >= limit);
+    }
+
+    public List<Ticket> getTicketsByStatus(Ticket.TicketStatus status) {
+        String sql = "SELECT " + TICKET_COLUMNS + " FROM tickets t " +
+                     "LEFT JOIN service_types s ON s.name = t.serviceTypeName " +
+                     "WHERE t.status = ? ORDER BY t.issueTime";
+        return queryTickets("getTicketsByStatus", sql, status.name());
+    }
+
+    /**
+     * The highest numeric suffix among the {@value #RECENT_TICKETS_FOR_COUNTER} most recently issued
+     * tickets. Numbers only grow with issue time, so the newest tickets carry the highest one; the
+     * issue-time index keeps this a bounded read however long the history is.
+     */
+    public int getHighestTicketNumberSuffix() {
+        String sql = "SELECT MAX(CAST(SUBSTR(ticketNumber, INSTR(ticketNumber, '-') + 1) AS INTEGER)) AS num " +
+                     "FROM (SELECT ticketNumber FROM tickets ORDER BY issueTime DESC LIMIT " + RECENT_TICKETS_FOR_COUNTER + ") " +
+                     "WHERE ticketNumber LIKE '%-%'";
+        try (Connection conn = readConnection("getHighestTicketNumberSuffix");
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getInt("num") : 0;
         } catch (SQLException e) {
             LOGGER.error("Error fetching highest ticket number suffix from DB. Counter will start at 0. Error: {}", e.getMessage(), e);
+            return 0;
         }
-        return maxNum;
     }
 
     private void addDefaultUserIfNotExists(Connection conn, String username, String password, UserRole role, String fullName) throws SQLException {
@@ -164,7 +333,7 @@ public class DatabaseManager {
 
     public void addUser(User user) {
         String sql = "INSERT INTO users(username, password, role, fullName) VALUES(?,?,?,?)";
-        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = writeConnection("addUser"); PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, user.getUsername());
             pstmt.setString(2, user.getHashedPassword());
             pstmt.setString(3, user.getRole().name());
@@ -177,7 +346,7 @@ public class DatabaseManager {
 
     public Optional<User> getUser(String username) {
         String sql = "SELECT password, role, fullName FROM users WHERE username = ?";
-        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = readConnection("getUser"); PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, username);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
@@ -198,10 +367,15 @@ public class DatabaseManager {
         String internalName = name.trim().toUpperCase();
         String display = displayName.trim();
         String sql = "INSERT INTO service_types(name, displayName) VALUES(?,?)";
-        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, internalName);
-            pstmt.setString(2, display);
-            pstmt.executeUpdate();
+        try (Connection conn = writeConnection("addServiceType")) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, internalName);
+                pstmt.setString(2, display);
+                pstmt.executeUpdate();
+            }
+            bumpSyncVersion(conn, SYNC_KEY_SERVICE_TYPES);
+            conn.commit();
         } catch (SQLException e) {
             LOGGER.error("DB Error adding service type '{}': {}", internalName, e.getMessage(), e);
         }
@@ -210,7 +384,7 @@ public class DatabaseManager {
     public List<ServiceType> getAllServiceTypes() {
         List<ServiceType> serviceTypes = new ArrayList<>();
         String sql = "SELECT name, displayName FROM service_types ORDER BY displayName";
-        try (Connection conn = connect(); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+        try (Connection conn = readConnection("getAllServiceTypes"); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
                 serviceTypes.add(new ServiceType(rs.getString("name"), rs.getString("displayName")));
             }
@@ -222,7 +396,7 @@ public class DatabaseManager {
     
     public Optional<ServiceType> findServiceTypeByName(String name) {
         String sql = "SELECT name, displayName FROM service_types WHERE name = ?";
-        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = readConnection("findServiceTypeByName"); PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, name);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
@@ -240,10 +414,19 @@ public class DatabaseManager {
             return false;
         }
         String sql = "UPDATE service_types SET displayName = ? WHERE name = ?";
-        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, newDisplayName.trim());
-            pstmt.setString(2, internalName.trim().toUpperCase());
-            return pstmt.executeUpdate() > 0;
+        try (Connection conn = writeConnection("updateServiceTypeDisplayName")) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, newDisplayName.trim());
+                pstmt.setString(2, internalName.trim().toUpperCase());
+                if (pstmt.executeUpdate() == 0) {
+                    conn.rollback();
+                    return false;
+                }
+            }
+            bumpSyncVersion(conn, SYNC_KEY_SERVICE_TYPES);
+            conn.commit();
+            return true;
         } catch (SQLException e) {
             LOGGER.error("DB Error updating display name for service '{}': {}", internalName.trim().toUpperCase(), e.getMessage(), e);
             return false;
@@ -257,7 +440,7 @@ public class DatabaseManager {
         String internalNameToDelete = internalName.trim().toUpperCase();
         String sqlCheckTickets = "SELECT COUNT(*) AS count FROM tickets WHERE serviceTypeName = ?";
         String sqlDeleteService = "DELETE FROM service_types WHERE name = ?";
-        try (Connection conn = connect()) {
+        try (Connection conn = writeConnection("removeServiceType")) {
             conn.setAutoCommit(false);
             try (PreparedStatement pstmtCheck = conn.prepareStatement(sqlCheckTickets)) {
                 pstmtCheck.setString(1, internalNameToDelete);
@@ -272,6 +455,7 @@ public class DatabaseManager {
                 pstmtDelete.setString(1, internalNameToDelete);
                 int affectedRows = pstmtDelete.executeUpdate();
                 if (affectedRows > 0) {
+                    bumpSyncVersion(conn, SYNC_KEY_SERVICE_TYPES);
                     conn.commit();
                     return true;
                 } else {
@@ -289,32 +473,69 @@ public class DatabaseManager {
         if (ticket == null) {
             return;
         }
-        String sql = "INSERT INTO tickets(ticketNumber, serviceTypeName, customerName, issueTime, status, priority, priorityReason, agentUsername, callTime, serviceStartTime, serviceEndTime) " +
-                     "VALUES(?,?,?,?,?,?,?,?,?,?,?)";
-        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, ticket.getTicketNumber());
-            pstmt.setString(2, ticket.getServiceType().getName());
-            pstmt.setString(3, ticket.getCustomerName());
-            pstmt.setString(4, ticket.getIssueTime().format(ISO_LOCAL_DATE_TIME_FORMATTER));
-            pstmt.setString(5, ticket.getStatus().name());
-            pstmt.setInt(6, ticket.getPriority());
-            pstmt.setString(7, ticket.getPriorityReason().name());
-            pstmt.setString(8, ticket.getAgentUsername());
-            pstmt.setString(9, ticket.getCallTime() != null ? ticket.getCallTime().format(ISO_LOCAL_DATE_TIME_FORMATTER) : null);
-            pstmt.setString(10, ticket.getServiceStartTime() != null ? ticket.getServiceStartTime().format(ISO_LOCAL_DATE_TIME_FORMATTER) : null);
-            pstmt.setString(11, ticket.getServiceEndTime() != null ? ticket.getServiceEndTime().format(ISO_LOCAL_DATE_TIME_FORMATTER) : null);
+        String sql = "INSERT INTO tickets(" + TICKET_WRITE_COLUMNS + ") VALUES(?,?,?,?,?,?,?,?,?,?,?," + NEXT_TICKET_VERSION + ")";
+        try (Connection conn = writeConnection("saveTicket"); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            bindTicket(pstmt, ticket);
             pstmt.executeUpdate();
         } catch (SQLException e) {
             LOGGER.error("Error saving ticket {}: {}", ticket.getTicketNumber(), e.getMessage(), e);
         }
     }
 
+    /**
+     * Writes the latest state of each ticket in one transaction. Returns the numbers of tickets
+     * that were not written because another ticket, issued at a different time or for another
+     * service, already has that number in the database.
+     */
+    public Set<String> persistTicketStates(Collection<Ticket> tickets) throws SQLException {
+        Set<String> rejected = new LinkedHashSet<>();
+        if (tickets == null || tickets.isEmpty()) {
+            return rejected;
+        }
+        String sql = "INSERT INTO tickets(" + TICKET_WRITE_COLUMNS + ") VALUES(?,?,?,?,?,?,?,?,?,?,?," + NEXT_TICKET_VERSION + ") " +
+                     "ON CONFLICT(ticketNumber) DO UPDATE SET " +
+                     "customerName = excluded.customerName, status = excluded.status, priority = excluded.priority, " +
+                     "priorityReason = excluded.priorityReason, agentUsername = excluded.agentUsername, " +
+                     "callTime = excluded.callTime, serviceStartTime = excluded.serviceStartTime, " +
+                     "serviceEndTime = excluded.serviceEndTime, changeVersion = excluded.changeVersion " +
+                     "WHERE tickets.issueTime = excluded.issueTime AND tickets.serviceTypeName = excluded.serviceTypeName";
+        try (Connection conn = writeConnection("persistTicketStates")) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (Ticket ticket : tickets) {
+                    bindTicket(pstmt, ticket);
+                    if (pstmt.executeUpdate() == 0) {
+                        LOGGER.error("Ticket number {} is already taken by another ticket in the database; " +
+                                "not overwriting it with the ticket issued at {}.", ticket.getTicketNumber(), ticket.getIssueTime());
+                        rejected.add(ticket.getTicketNumber());
+                    }
+                }
+            }
+            conn.commit();
+        }
+        return rejected;
+    }
+
+    private void bindTicket(PreparedStatement pstmt, Ticket ticket) throws SQLException {
+        pstmt.setString(1, ticket.getTicketNumber());
+        pstmt.setString(2, ticket.getServiceType().getName());
+        pstmt.setString(3, ticket.getCustomerName());
+        pstmt.setString(4, ticket.getIssueTime().format(ISO_LOCAL_DATE_TIME_FORMATTER));
+        pstmt.setString(5, ticket.getStatus().name());
+        pstmt.setInt(6, ticket.getPriority());
+        pstmt.setString(7, ticket.getPriorityReason().name());
+        pstmt.setString(8, ticket.getAgentUsername());
+        pstmt.setString(9, ticket.getCallTime() != null ? ticket.getCallTime().format(ISO_LOCAL_DATE_TIME_FORMATTER) : null);
+        pstmt.setString(10, ticket.getServiceStartTime() != null ? ticket.getServiceStartTime().format(ISO_LOCAL_DATE_TIME_FORMATTER) : null);
+        pstmt.setString(11, ticket.getServiceEndTime() != null ? ticket.getServiceEndTime().format(ISO_LOCAL_DATE_TIME_FORMATTER) : null);
+    }
+
     public void updateTicketStatus(String ticketNumber, Ticket.TicketStatus status, String agentUsername) {
          if (ticketNumber == null || status == null) {
             return;
         }
-        String sql = "UPDATE tickets SET status = ?, agentUsername = ? WHERE ticketNumber = ?";
-        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        String sql = "UPDATE tickets SET status = ?, agentUsername = ?, changeVersion = " + NEXT_TICKET_VERSION + " WHERE ticketNumber = ?";
+        try (Connection conn = writeConnection("updateTicketStatus"); PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, status.name());
             pstmt.setString(2, agentUsername);
             pstmt.setString(3, ticketNumber);
@@ -349,11 +570,12 @@ public class DatabaseManager {
             return;
         }
 
+        params.add("changeVersion = " + NEXT_TICKET_VERSION);
         sqlBuilder.append(String.join(", ", params));
         sqlBuilder.append(" WHERE ticketNumber = ?");
         values.add(ticketNumber);
 
-        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(sqlBuilder.toString())) {
+        try (Connection conn = writeConnection("updateTicketTimes"); PreparedStatement pstmt = conn.prepareStatement(sqlBuilder.toString())) {
             for (int i = 0; i < values.size(); i++) {
                 pstmt.setObject(i + 1, values.get(i));
             }
@@ -370,8 +592,8 @@ public class DatabaseManager {
         Ticket tempTicket = new Ticket(new ServiceType("TEMP", "Temp"), null, reason);
         int numericalPriority = tempTicket.getPriority();
 
-        String sql = "UPDATE tickets SET priority = ?, priorityReason = ? WHERE ticketNumber = ?";
-        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        String sql = "UPDATE tickets SET priority = ?, priorityReason = ?, changeVersion = " + NEXT_TICKET_VERSION + " WHERE ticketNumber = ?";
+        try (Connection conn = writeConnection("updateTicketPriority"); PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, numericalPriority);
             pstmt.setString(2, reason.name());
             pstmt.setString(3, ticketNumber);
@@ -383,57 +605,129 @@ public class DatabaseManager {
     }
 
     public List<Ticket> getAllTicketsWithResolvedServiceTypes() {
-        List<Ticket> tickets = new ArrayList<>();
-        String sql = "SELECT * FROM tickets ORDER BY issueTime DESC";
-        try (Connection conn = connect();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        String sql = "SELECT " + TICKET_COLUMNS + " FROM tickets t " +
+                     "LEFT JOIN service_types s ON s.name = t.serviceTypeName " +
+                     "ORDER BY t.issueTime DESC";
+        return queryTickets("getAllTicketsWithResolvedServiceTypes", sql);
+    }
 
-            while (rs.next()) {
-                String serviceTypeName = rs.getString("serviceTypeName");
-                Optional<ServiceType> stOpt = findServiceTypeByName(serviceTypeName);
+    public List<Ticket> getTicketsIssuedBefore(LocalDateTime issueTime, String ticketNumber, int limit) {
+        return searchTickets(TicketQuery.ALL, issueTime, ticketNumber, limit);
+    }
 
-                if (stOpt.isEmpty()) {
-                    LOGGER.error("Could not resolve ServiceType for name '{}' in ticket {}. Skipping.", serviceTypeName, rs.getString("ticketNumber"));
-                    continue;
-                }
-                ServiceType st = stOpt.get();
-
-                Ticket.PriorityReason reason = Ticket.PriorityReason.NONE;
-                String reasonStr = rs.getString("priorityReason");
-                if (reasonStr != null) {
-                    try {
-                        reason = Ticket.PriorityReason.valueOf(reasonStr);
-                    } catch (IllegalArgumentException e) {
-                        LOGGER.warn("Invalid priorityReason '{}' in database for ticket {}. Defaulting to NONE.", reasonStr, rs.getString("ticketNumber"));
+    public List<Ticket> searchTickets(TicketQuery query, LocalDateTime beforeIssueTime, String beforeTicketNumber, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT " + TICKET_COLUMNS + " FROM tickets t " +
+                "LEFT JOIN service_types s ON s.name = t.serviceTypeName WHERE 1=1");
+        List<Object> params = new ArrayList<>();
+        if (query.getText() != null) {
+            String ticketPrefix = TicketQuery.normalizedTicketPrefix(query.getText());
+            String ticketUpperBound = TicketQuery.upperBoundForPrefix(ticketPrefix);
+            String namePrefix = TicketQuery.nocasePrefix(query.getText());
+            String nameUpperBound = TicketQuery.upperBoundForPrefix(namePrefix);
+            sql.append(" AND ((t.ticketNumber >= ?");
+            params.add(ticketPrefix);
+            if (ticketUpperBound != null) {
+                sql.append(" AND t.ticketNumber < ?");
+                params.add(ticketUpperBound);
+            }
+            sql.append(") OR (t.customerName >= ? COLLATE NOCASE");
+            params.add(namePrefix);
+            if (nameUpperBound != null) {
+                sql.append(" AND t.customerName < ? COLLATE NOCASE");
+                params.add(nameUpperBound);
+            }
+            sql.append("))");
+        }
+        if (query.getStatus() != null) {
+            sql.append(" AND t.status = ?");
+            params.add(query.getStatus().name());
+        }
+        if (query.getServiceTypeName() != null) {
+            sql.append(" AND t.serviceTypeName = ?");
+            params.add(query.getServiceTypeName());
+        }
+        if (query.getAgentUsername() != null) {
+            sql.append(" AND t.agentUsername = ?");
+            params.add(query.getAgentUsername());
+        }
+        if (query.getIssuedFrom() != null) {
+            sql.append(" AND t.issueTime >= ?");
+            params.add(query.getIssuedFrom().atStartOfDay().format(ISO_LOCAL_DATE_TIME_FORMATTER));
+        }
+        if (query.getIssuedTo() != null) {
+            sql.append(" AND t.issueTime < ?");
+            params.add(query.getIssuedTo().plusDays(1).atStartOfDay().format(ISO_LOCAL_DATE_TIME_FORMATTER));
+        }
+        if (beforeIssueTime != null) {
+            sql.append(" AND (t.issueTime, t.ticketNumber) < (?, ?)");
+            params.add(beforeIssueTime.format(ISO_LOCAL_DATE_TIME_FORMATTER));
+            params.add(beforeTicketNumber);
+        }
+        sql.append(" ORDER BY t.issueTime DESC, t.ticketNumber DESC LIMIT ?");
+        params.add(limit);
+        return queryTickets("searchTickets", sql.toString(), params.toArray());
+    }
+
+    private List<Ticket> queryTickets(String statement, String sql, Object... params) {
+        List<Ticket> tickets = new ArrayList<>();
+        Map<String, ServiceType> resolvedServiceTypes = new HashMap<>();
+        try (Connection conn = readConnection(statement); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Ticket ticket = mapTicket(rs, resolvedServiceTypes);
+                    if (ticket != null) {
+                        tickets.add(ticket);
                     }
                 }
+            }
+        } catch (SQLException e) {
+            LOGGER.error("Error fetching tickets: {}", e.getMessage(), e);
+        }
+        return tickets;
+    }
 
-                Ticket ticket = new Ticket(
-                        rs.getString("ticketNumber"),
-                        st,
-                        rs.getString("customerName"),
-                        LocalDateTime.parse(rs.getString("issueTime"), ISO_LOCAL_DATE_TIME_FORMATTER),
-                        reason
-                );
-                ticket.setStatus(Ticket.TicketStatus.valueOf(rs.getString("status")));
-                ticket.setAgentUsername(rs.getString("agentUsername"));
+    private Ticket mapTicket(ResultSet rs, Map<String, ServiceType> resolvedServiceTypes) throws SQLException {
+        String serviceTypeName = rs.getString("serviceTypeName");
+        String serviceDisplayName = rs.getString("serviceDisplayName");
+        if (serviceDisplayName == null) {
+            LOGGER.error("Could not resolve ServiceType for name '{}' in ticket {}. Skipping.", serviceTypeName, rs.getString("ticketNumber"));
+            return null;
+        }
+        ServiceType st = resolvedServiceTypes.computeIfAbsent(serviceTypeName, name -> new ServiceType(name, serviceDisplayName));
+
+        Ticket.PriorityReason reason = Ticket.PriorityReason.NONE;
+        String reasonStr = rs.getString("priorityReason");
+        if (reasonStr != null) {
+            try {
+                reason = Ticket.PriorityReason.valueOf(reasonStr);
+            } catch (IllegalArgumentException e) {
+                LOGGER.warn("Invalid priorityReason '{}' in database for ticket {}. Defaulting to NONE.", reasonStr, rs.getString("ticketNumber"));
+            }
+        }
 
-                String callTimeStr = rs.getString("callTime");
-                if (callTimeStr != null) ticket.setCallTime(LocalDateTime.parse(callTimeStr, ISO_LOCAL_DATE_TIME_FORMATTER));
+        Ticket ticket = new Ticket(
+                rs.getString("ticketNumber"),
+                st,
+                rs.getString("customerName"),
+                LocalDateTime.parse(rs.getString("issueTime"), ISO_LOCAL_DATE_TIME_FORMATTER),
+                reason
+        );
+        ticket.setStatus(Ticket.TicketStatus.valueOf(rs.getString("status")));
+        ticket.setAgentUsername(rs.getString("agentUsername"));
 
-                String serviceStartTimeStr = rs.getString("serviceStartTime");
-                if (serviceStartTimeStr != null) ticket.setServiceStartTime(LocalDateTime.parse(serviceStartTimeStr, ISO_LOCAL_DATE_TIME_FORMATTER));
+        String callTimeStr = rs.getString("callTime");
+        if (callTimeStr != null) ticket.setCallTime(LocalDateTime.parse(callTimeStr, ISO_LOCAL_DATE_TIME_FORMATTER));
 
-                String serviceEndTimeStr = rs.getString("serviceEndTime");
-                if (serviceEndTimeStr != null) ticket.setServiceEndTime(LocalDateTime.parse(serviceEndTimeStr, ISO_LOCAL_DATE_TIME_FORMATTER));
+        String serviceStartTimeStr = rs.getString("serviceStartTime");
+        if (serviceStartTimeStr != null) ticket.setServiceStartTime(LocalDateTime.parse(serviceStartTimeStr, ISO_LOCAL_DATE_TIME_FORMATTER));
 
-                tickets.add(ticket);
-            }
-        } catch (SQLException e) {
-            LOGGER.error("Error fetching all tickets: {}", e.getMessage(), e);
-        }
-        return tickets;
+        String serviceEndTimeStr = rs.getString("serviceEndTime");
+        if (serviceEndTimeStr != null) ticket.setServiceEndTime(LocalDateTime.parse(serviceEndTimeStr, ISO_LOCAL_DATE_TIME_FORMATTER));
+
+        return ticket;
     }
 
     public void saveFeedback(Feedback feedback) {
@@ -441,7 +735,7 @@ public class DatabaseManager {
             return;
         }
         String sql = "INSERT INTO feedback(ticketNumber, rating, comments, submissionTime) VALUES(?,?,?,?)";
-        try (Connection conn = connect(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = writeConnection("saveFeedback"); PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, feedback.getTicketNumber());
             pstmt.setInt(2, feedback.getRating());
             pstmt.setString(3, feedback.getComments());
@@ -452,10 +746,53 @@ public class DatabaseManager {
         }
     }
 
+    public List<Feedback> searchFeedback(String ticketPrefix, LocalDateTime beforeSubmissionTime, int beforeId, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT id, ticketNumber, rating, comments, submissionTime FROM feedback WHERE 1=1");
+        List<Object> params = new ArrayList<>();
+        if (ticketPrefix != null && !ticketPrefix.trim().isEmpty()) {
+            String prefix = TicketQuery.normalizedTicketPrefix(ticketPrefix.trim());
+            String upperBound = TicketQuery.upperBoundForPrefix(prefix);
+            sql.append(" AND ticketNumber >= ?");
+            params.add(prefix);
+            if (upperBound != null) {
+                sql.append(" AND ticketNumber < ?");
+                params.add(upperBound);
+            }
+        }
+        if (beforeSubmissionTime != null) {
+            sql.append(" AND (submissionTime, id) < (?, ?)");
+            params.add(beforeSubmissionTime.format(ISO_LOCAL_DATE_TIME_FORMATTER));
+            params.add(beforeId);
+        }
+        sql.append(" ORDER BY submissionTime DESC, id DESC LIMIT ?");
+        params.add(limit);
+
+        List<Feedback> feedbackList = new ArrayList<>();
+        try (Connection conn = readConnection("searchFeedback"); PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    feedbackList.add(new Feedback(
+                            rs.getInt("id"),
+                            rs.getString("ticketNumber"),
+                            rs.getInt("rating"),
+                            rs.getString("comments"),
+                            LocalDateTime.parse(rs.getString("submissionTime"), ISO_LOCAL_DATE_TIME_FORMATTER)
+                    ));
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.error("Error searching feedback: {}", e.getMessage(), e);
+        }
+        return feedbackList;
+    }
+
     public List<Feedback> getAllFeedback() {
         List<Feedback> feedbackList = new ArrayList<>();
         String sql = "SELECT id, ticketNumber, rating, comments, submissionTime FROM feedback ORDER BY submissionTime DESC";
-        try (Connection conn = connect();
+        try (Connection conn = readConnection("getAllFeedback");
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
@@ -0,0 +1,78 @@
+package com.nextque.db;
+
+import com.nextque.utils.AppConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sqlite.SQLiteConfig;
+
+import java.util.Locale;
+
+public class StorageTuning {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StorageTuning.class);
+
+    private final String journalMode;
+    private final String synchronous;
+    private final int cacheSizeKb;
+    private final long mmapSizeBytes;
+
+    public StorageTuning(String journalMode, String synchronous, int cacheSizeKb, long mmapSizeBytes) {
+        this.journalMode = parse(SQLiteConfig.JournalMode.class, journalMode,
+                "nextque.db.journalMode", SQLiteConfig.JournalMode.WAL).name();
+        this.synchronous = parse(SQLiteConfig.SynchronousMode.class, synchronous,
+                "nextque.db.synchronous", SQLiteConfig.SynchronousMode.NORMAL).name();
+        this.cacheSizeKb = cacheSizeKb;
+        this.mmapSizeBytes = mmapSizeBytes;
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String value, String property, E fallback) {
+        if (value == null || value.trim().isEmpty()) {
+            return fallback;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Ignoring unknown {} '{}'; using {}.", property, value, fallback);
+            return fallback;
+        }
+    }
+
+    public static StorageTuning fromConfig() {
+        return new StorageTuning(
+                AppConfig.getString("nextque.db.journalMode", "WAL"),
+                AppConfig.getString("nextque.db.synchronous", "NORMAL"),
+                AppConfig.getInt("nextque.db.cacheSizeKb", 16 * 1024),
+                AppConfig.getLong("nextque.db.mmapSizeBytes", 128L * 1024 * 1024));
+    }
+
+    void applyTo(SQLiteConfig config, boolean readOnly) {
+        if (!readOnly) {
+            config.setJournalMode(SQLiteConfig.JournalMode.valueOf(journalMode));
+            config.setSynchronous(SQLiteConfig.SynchronousMode.valueOf(synchronous));
+        }
+        config.setCacheSize(-cacheSizeKb);
+        config.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, Long.toString(mmapSizeBytes));
+        config.setTempStore(SQLiteConfig.TempStore.MEMORY);
+    }
+
+    public String getJournalMode() {
+        return journalMode;
+    }
+
+    public String getSynchronous() {
+        return synchronous;
+    }
+
+    public int getCacheSizeKb() {
+        return cacheSizeKb;
+    }
+
+    public long getMmapSizeBytes() {
+        return mmapSizeBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "journal_mode=" + journalMode + ", synchronous=" + synchronous +
+               ", cache_size=" + cacheSizeKb + "KiB, mmap_size=" + mmapSizeBytes;
+    }
+}
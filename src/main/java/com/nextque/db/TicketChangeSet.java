@@ -0,0 +1,30 @@
+package com.nextque.db;
+
+import com.nextque.model.Ticket;
+
+import java.util.Collections;
+import java.util.List;
+
+public class TicketChangeSet {
+    private final List<Ticket> tickets;
+    private final long latestVersion;
+    private final boolean truncated;
+
+    public TicketChangeSet(List<Ticket> tickets, long latestVersion, boolean truncated) {
+        this.tickets = Collections.unmodifiableList(tickets);
+        this.latestVersion = latestVersion;
+        this.truncated = truncated;
+    }
+
+    public List<Ticket> getTickets() {
+        return tickets;
+    }
+
+    public long getLatestVersion() {
+        return latestVersion;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+}
@@ -0,0 +1,118 @@
+package com.nextque.db;
+
+import com.nextque.model.Ticket;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Search criteria for the admin ticket list. Every criterion is optional; {@code text} matches
+ * a prefix of the ticket number or of the customer name (case-insensitive).
+ */
+public final class TicketQuery {
+    public static final TicketQuery ALL = new TicketQuery(null, null, null, null, null, null);
+
+    private final String text;
+    private final Ticket.TicketStatus status;
+    private final String serviceTypeName;
+    private final String agentUsername;
+    private final LocalDate issuedFrom;
+    private final LocalDate issuedTo;
+
+    public TicketQuery(String text, Ticket.TicketStatus status, String serviceTypeName,
+                       String agentUsername, LocalDate issuedFrom, LocalDate issuedTo) {
+        this.text = blankToNull(text);
+        this.status = status;
+        this.serviceTypeName = blankToNull(serviceTypeName);
+        this.agentUsername = blankToNull(agentUsername);
+        this.issuedFrom = issuedFrom;
+        this.issuedTo = issuedTo;
+    }
+
+    public String getText() { return text; }
+    public Ticket.TicketStatus getStatus() { return status; }
+    public String getServiceTypeName() { return serviceTypeName; }
+    public String getAgentUsername() { return agentUsername; }
+    public LocalDate getIssuedFrom() { return issuedFrom; }
+    public LocalDate getIssuedTo() { return issuedTo; }
+
+    public boolean matches(Ticket ticket) {
+        if (text != null && !startsWithIgnoreCase(ticket.getTicketNumber(), text)
+                && !startsWithIgnoreCase(ticket.getCustomerName(), text)) {
+            return false;
+        }
+        if (status != null && ticket.getStatus() != status) {
+            return false;
+        }
+        if (serviceTypeName != null && !serviceTypeName.equals(ticket.getServiceType().getName())) {
+            return false;
+        }
+        if (agentUsername != null && !agentUsername.equals(ticket.getAgentUsername())) {
+            return false;
+        }
+        LocalDate issued = ticket.getIssueTime().toLocalDate();
+        if (issuedFrom != null && issued.isBefore(issuedFrom)) {
+            return false;
+        }
+        return issuedTo == null || !issued.isAfter(issuedTo);
+    }
+
+    private static boolean startsWithIgnoreCase(String value, String prefix) {
+        return value != null && value.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+
+    /**
+     * Smallest string greater than every string starting with {@code prefix}, or null when there is
+     * none (the prefix is all {@code \uffff}).
+     */
+    static String upperBoundForPrefix(String prefix) {
+        int end = prefix.length();
+        while (end > 0 && prefix.charAt(end - 1) == Character.MAX_VALUE) {
+            end--;
+        }
+        if (end == 0) {
+            return null;
+        }
+        return prefix.substring(0, end - 1) + (char) (prefix.charAt(end - 1) + 1);
+    }
+
+    /**
+     * Folds the prefix the way SQLite's NOCASE collation does (ASCII letters only), so the range
+     * bounds are ordered the way the collation compares them.
+     */
+    static String nocasePrefix(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            if (chars[i] >= 'A' && chars[i] <= 'Z') {
+                chars[i] = (char) (chars[i] + ('a' - 'A'));
+            }
+        }
+        return new String(chars);
+    }
+
+    static String normalizedTicketPrefix(String text) {
+        return text.toUpperCase(Locale.ROOT);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TicketQuery)) return false;
+        TicketQuery other = (TicketQuery) o;
+        return Objects.equals(text, other.text) && status == other.status
+                && Objects.equals(serviceTypeName, other.serviceTypeName)
+                && Objects.equals(agentUsername, other.agentUsername)
+                && Objects.equals(issuedFrom, other.issuedFrom)
+                && Objects.equals(issuedTo, other.issuedTo);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(text, status, serviceTypeName, agentUsername, issuedFrom, issuedTo);
+    }
+}
@@ -0,0 +1,351 @@
+package com.nextque.db;
+
+import com.nextque.model.QueueEvent;
+import com.nextque.model.Ticket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persists ticket lifecycle events on a dedicated writer thread so callers never wait on SQLite.
+ * Events are drained in batches; each batch is written as one transaction holding the latest
+ * state of every ticket it touches. Tickets whose batch still fails after a few attempts stay
+ * pending and are retried with the next batch, or on their own once the retry interval passes.
+ * So do tickets the database refuses because their number is already taken: they are counted as
+ * rejected and the ticket counter is moved past the numbers already in the database.
+ */
+public class TicketWriteBehind implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TicketWriteBehind.class);
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final long RETRY_INTERVAL_MILLIS = 1_000L;
+
+    private final DatabaseManager dbManager;
+    private final BlockingQueue<QueueEvent> pending;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final ConcurrentMap<String, Integer> pendingByTicket = new ConcurrentHashMap<>();
+    private final Object progressLock = new Object();
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong backPressureWaits = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final Map<String, Ticket> unwritten = new LinkedHashMap<>();
+    private final Map<String, Integer> unwrittenEvents = new HashMap<>();
+    private long nextRetryNanos;
+    private volatile boolean lastWriteSucceeded = true;
+    private long written;
+    private long batches;
+    private final Thread writerThread;
+    private volatile boolean closed;
+
+    public TicketWriteBehind(DatabaseManager dbManager, int capacity, int batchSize, long flushIntervalMillis) {
+        if (dbManager == null) {
+            throw new IllegalArgumentException("DatabaseManager cannot be null");
+        }
+        this.dbManager = dbManager;
+        this.pending = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMillis = Math.max(0L, flushIntervalMillis);
+        this.writerThread = new Thread(this::runWriter, "nextque-ticket-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    public void submit(QueueEvent event) {
+        if (event == null || event.getTicket() == null) {
+            return;
+        }
+        if (closed) {
+            LOGGER.warn("Write-behind already closed; persisting {} synchronously.", event);
+            Set<String> refused = writeWithRetry(collapse(List.of(event)));
+            if (refused == null || !refused.isEmpty()) {
+                LOGGER.error("Could not persist {} after shutdown; the change is lost.", event);
+            }
+            return;
+        }
+        pendingByTicket.merge(event.getTicket().getTicketNumber(), 1, Integer::sum);
+        submitted.incrementAndGet();
+        if (pending.offer(event)) {
+            return;
+        }
+        backPressureWaits.incrementAndGet();
+        LOGGER.warn("Ticket write queue is full ({} events). Waiting for the writer to catch up.", pending.size());
+        try {
+            pending.put(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while queueing {}; persisting synchronously.", event);
+            Map<String, Integer> events = Map.of(event.getTicket().getTicketNumber(), 1);
+            Map<String, Ticket> tickets = collapse(List.of(event));
+            if (!write(tickets, events)) {
+                keepForRetry(tickets, events);
+            }
+        }
+    }
+
+    public boolean hasPendingWrites(String ticketNumber) {
+        return ticketNumber != null && pendingByTicket.containsKey(ticketNumber);
+    }
+
+    /** Waits until every event submitted so far is written; returns false on timeout. */
+    public boolean flush(long timeout, TimeUnit unit) throws InterruptedException {
+        long target = submitted.get();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (progressLock) {
+            while (written < target) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    LOGGER.warn("Timed out flushing ticket writes ({} of {} written).", written, target);
+                    return false;
+                }
+                progressLock.wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    public int getQueuedCount() {
+        return pending.size();
+    }
+
+    public long getBackPressureWaits() {
+        return backPressureWaits.get();
+    }
+
+    /** Times the database refused a ticket because another ticket already has its number. */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /** Number of tickets whose latest state failed to write and is waiting to be retried. */
+    public int getUnwrittenCount() {
+        synchronized (unwritten) {
+            return unwritten.size();
+        }
+    }
+
+    private void runWriter() {
+        List<QueueEvent> batch = new ArrayList<>(batchSize);
+        while (!closed || !pending.isEmpty()) {
+            try {
+                QueueEvent first = pending.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (retryDue()) {
+                        retryUnwritten();
+                    }
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < batchSize && !closed) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    QueueEvent next = pending.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                LOGGER.warn("Ticket writer interrupted; flushing {} buffered events.", batch.size());
+            }
+            pending.drainTo(batch, batchSize - batch.size());
+            writeBatch(batch);
+        }
+        LOGGER.info("Ticket writer stopped after {} batches.", batches);
+    }
+
+    private boolean retryDue() {
+        synchronized (unwritten) {
+            return !unwritten.isEmpty() && System.nanoTime() - nextRetryNanos >= 0;
+        }
+    }
+
+    private void writeBatch(List<QueueEvent> batch) {
+        if (!batch.isEmpty()) {
+            Map<String, Ticket> tickets = collapse(batch);
+            Map<String, Integer> events = new HashMap<>();
+            for (QueueEvent event : batch) {
+                events.merge(event.getTicket().getTicketNumber(), 1, Integer::sum);
+            }
+            batch.clear();
+            if (write(tickets, events)) {
+                markWritten(supersede(tickets));
+            } else {
+                keepForRetry(tickets, events);
+            }
+        }
+        if (retryDue()) {
+            retryUnwritten();
+        }
+    }
+
+    /**
+     * Drops retained states older than ones just written, returning their event counts. A ticket
+     * the database refused is retained again under its newest state, so it is left alone.
+     */
+    private Map<String, Integer> supersede(Map<String, Ticket> written) {
+        Map<String, Integer> superseded = new HashMap<>();
+        synchronized (unwritten) {
+            for (Map.Entry<String, Ticket> entry : written.entrySet()) {
+                String ticketNumber = entry.getKey();
+                if (unwritten.get(ticketNumber) != entry.getValue() && unwritten.remove(ticketNumber) != null) {
+                    superseded.put(ticketNumber, unwrittenEvents.remove(ticketNumber));
+                }
+            }
+        }
+        return superseded;
+    }
+
+    private void retryUnwritten() {
+        Map<String, Ticket> tickets;
+        Map<String, Integer> events;
+        synchronized (unwritten) {
+            tickets = new LinkedHashMap<>(unwritten);
+            events = new HashMap<>(unwrittenEvents);
+            unwritten.clear();
+            unwrittenEvents.clear();
+        }
+        boolean databaseWritable = lastWriteSucceeded;
+        if (write(tickets, events)) {
+            LOGGER.info("Retried {} tickets that had failed to write earlier.", tickets.size());
+            return;
+        }
+        if (tickets.size() == 1 || !databaseWritable) {
+            keepForRetry(tickets, events);
+            return;
+        }
+        // The database is taking other writes, so a bad row is failing the whole transaction.
+        for (Map.Entry<String, Ticket> entry : tickets.entrySet()) {
+            Map<String, Ticket> single = Map.of(entry.getKey(), entry.getValue());
+            Map<String, Integer> singleEvents = Map.of(entry.getKey(), events.get(entry.getKey()));
+            if (!write(single, singleEvents)) {
+                keepForRetry(single, singleEvents);
+            }
+        }
+    }
+
+    private void keepForRetry(Map<String, Ticket> tickets, Map<String, Integer> events) {
+        synchronized (unwritten) {
+            unwritten.putAll(tickets);
+            events.forEach((ticketNumber, count) -> unwrittenEvents.merge(ticketNumber, count, Integer::sum));
+            nextRetryNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(RETRY_INTERVAL_MILLIS);
+        }
+        LOGGER.error("Could not persist tickets {}; keeping them pending and retrying.", tickets.keySet());
+    }
+
+    private Map<String, Ticket> collapse(List<QueueEvent> events) {
+        Map<String, Ticket> latest = new LinkedHashMap<>();
+        for (QueueEvent event : events) {
+            latest.put(event.getTicket().getTicketNumber(), event.getTicket());
+        }
+        return latest;
+    }
+
+    /**
+     * Writes the tickets and marks them written, except those the database refused, which are
+     * kept for retry. Returns false, having changed nothing, if the write itself failed.
+     */
+    private boolean write(Map<String, Ticket> tickets, Map<String, Integer> events) {
+        Set<String> refused = writeWithRetry(tickets);
+        if (refused == null) {
+            return false;
+        }
+        if (refused.isEmpty()) {
+            markWritten(events);
+            return true;
+        }
+        Map<String, Ticket> keptTickets = new LinkedHashMap<>();
+        Map<String, Integer> keptEvents = new HashMap<>();
+        Map<String, Integer> writtenEvents = new HashMap<>(events);
+        for (String ticketNumber : refused) {
+            keptTickets.put(ticketNumber, tickets.get(ticketNumber));
+            keptEvents.put(ticketNumber, writtenEvents.remove(ticketNumber));
+        }
+        markWritten(writtenEvents);
+        rejected.addAndGet(refused.size());
+        // Another client issued these numbers since our counter was last seeded or synced.
+        Ticket.advanceCounter(dbManager.getHighestTicketNumberSuffix());
+        keepForRetry(keptTickets, keptEvents);
+        return true;
+    }
+
+    /** The numbers the database refused, or null if the write failed every attempt. */
+    private Set<String> writeWithRetry(Map<String, Ticket> tickets) {
+        for (int attempt = 1; attempt <= MAX_WRITE_ATTEMPTS; attempt++) {
+            try {
+                Set<String> refused = dbManager.persistTicketStates(tickets.values());
+                lastWriteSucceeded = true;
+                return refused;
+            } catch (SQLException e) {
+                LOGGER.warn("Ticket batch write failed (attempt {}/{}): {}", attempt, MAX_WRITE_ATTEMPTS, e.getMessage());
+                try {
+                    Thread.sleep(50L * attempt);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        lastWriteSucceeded = false;
+        return null;
+    }
+
+    private void markWritten(Map<String, Integer> eventsByTicket) {
+        if (eventsByTicket.isEmpty()) {
+            return;
+        }
+        int count = 0;
+        for (Map.Entry<String, Integer> entry : eventsByTicket.entrySet()) {
+            int events = entry.getValue();
+            pendingByTicket.computeIfPresent(entry.getKey(), (k, v) -> v > events ? v - events : null);
+            count += events;
+        }
+        synchronized (progressLock) {
+            written += count;
+            batches++;
+            progressLock.notifyAll();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            LOGGER.error("Ticket writer did not finish draining within 30 seconds; {} events may be lost.", pending.size());
+            return;
+        }
+        List<QueueEvent> stragglers = new ArrayList<>();
+        pending.drainTo(stragglers);
+        writeBatch(stragglers);
+        if (getUnwrittenCount() > 0) {
+            retryUnwritten();
+        }
+        int unwrittenCount = getUnwrittenCount();
+        if (unwrittenCount > 0) {
+            LOGGER.error("Shutting down with {} tickets that could not be written to the database.", unwrittenCount);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.nextque.engine;
+
+import com.nextque.db.DatabaseManager;
+import com.nextque.metrics.LatencyHistogram;
+import com.nextque.metrics.MetricFamily;
+import com.nextque.metrics.MetricsMBean;
+import com.nextque.metrics.MetricsRegistry;
+import com.nextque.service.QueueManager;
+import com.nextque.utils.AppConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The queue engine without any UI: owns the database and the {@link QueueManager} and keeps
+ * the in-memory queues in sync with the database on a scheduler thread. The Swing client and
+ * the headless server both run on top of it.
+ */
+public class NextQueEngine {
+    private static final Logger LOGGER = LoggerFactory.getLogger(NextQueEngine.class);
+    private static final MetricFamily<LatencyHistogram> TASK_LATENCY = MetricsRegistry.global().histograms(
+            "nextque_engine_task_seconds", "Duration of the engine's scheduled tasks.", "task");
+
+    public enum State { NEW, RUNNING, STOPPED }
+
+    private final DatabaseManager dbManager;
+    private final QueueManager queueManager;
+    private final long syncIntervalMillis;
+    private final long checkpointIntervalMillis;
+    private final ScheduledExecutorService scheduler;
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private State state = State.NEW;
+
+    public NextQueEngine() {
+        this(new DatabaseManager(), AppConfig.getLong("nextque.sync.intervalMs", 5_000L));
+    }
+
+    public NextQueEngine(DatabaseManager dbManager, long syncIntervalMillis) {
+        if (dbManager == null) {
+            throw new IllegalArgumentException("DatabaseManager cannot be null");
+        }
+        this.dbManager = dbManager;
+        this.syncIntervalMillis = Math.max(100L, syncIntervalMillis);
+        this.checkpointIntervalMillis = Math.max(1_000L, AppConfig.getLong("nextque.journal.snapshotIntervalMs", 300_000L));
+        this.queueManager = new QueueManager(dbManager);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "nextque-engine-sync");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public DatabaseManager getDatabaseManager() {
+        return dbManager;
+    }
+
+    public QueueManager getQueueManager() {
+        return queueManager;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized void start() {
+        if (state != State.NEW) {
+            throw new IllegalStateException("Engine cannot be started from state " + state);
+        }
+        scheduler.scheduleWithFixedDelay(this::syncQuietly, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::checkpointQuietly, checkpointIntervalMillis, checkpointIntervalMillis, TimeUnit.MILLISECONDS);
+        if (AppConfig.getBoolean("nextque.metrics.jmx", true)) {
+            try {
+                MetricsMBean.register(MetricsRegistry.global());
+            } catch (JMException e) {
+                LOGGER.warn("Could not register the metrics MBean: {}", e.getMessage());
+            }
+        }
+        state = State.RUNNING;
+        LOGGER.info("Queue engine started. Syncing with the database every {} ms.", syncIntervalMillis);
+    }
+
+    public void stop() {
+        synchronized (this) {
+            if (state == State.STOPPED) {
+                return;
+            }
+            state = State.STOPPED;
+        }
+        try {
+            scheduler.shutdown();
+            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
+                LOGGER.warn("Database sync did not finish within 5 seconds; interrupting it.");
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            scheduler.shutdownNow();
+        } finally {
+            unregisterMetricsQuietly();
+            queueManager.shutdown();
+            dbManager.close();
+            stopped.countDown();
+            LOGGER.info("Queue engine stopped.");
+        }
+    }
+
+    public void awaitTermination() throws InterruptedException {
+        stopped.await();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return stopped.await(timeout, unit);
+    }
+
+    private void unregisterMetricsQuietly() {
+        try {
+            MetricsMBean.unregister();
+        } catch (JMException e) {
+            LOGGER.warn("Could not unregister the metrics MBean: {}", e.getMessage());
+        }
+    }
+
+    private void syncQuietly() {
+        long started = System.nanoTime();
+        try {
+            queueManager.syncWithDatabase();
+        } catch (RuntimeException e) {
+            LOGGER.error("Database sync failed: {}", e.getMessage(), e);
+        } finally {
+            TASK_LATENCY.labels("syncWithDatabase").recordSince(started);
+        }
+    }
+
+    private void checkpointQuietly() {
+        long started = System.nanoTime();
+        try {
+            queueManager.checkpoint();
+        } catch (RuntimeException e) {
+            LOGGER.error("Journal checkpoint failed: {}", e.getMessage(), e);
+        } finally {
+            TASK_LATENCY.labels("checkpoint").recordSince(started);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.nextque.journal;
+
+import com.nextque.model.ServiceType;
+import com.nextque.model.Ticket;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/** Binary encoding of ticket state shared by journal records and snapshots. */
+final class JournalCodec {
+    private static final Ticket.TicketStatus[] STATUSES = Ticket.TicketStatus.values();
+    private static final Ticket.PriorityReason[] REASONS = Ticket.PriorityReason.values();
+
+    private JournalCodec() {
+    }
+
+    static void writeTicket(DataOutput out, Ticket ticket) throws IOException {
+        out.writeUTF(ticket.getTicketNumber());
+        out.writeUTF(ticket.getServiceType().getName());
+        out.writeUTF(ticket.getServiceType().getDisplayName());
+        writeString(out, ticket.getCustomerName());
+        out.writeByte(ticket.getStatus().ordinal());
+        out.writeByte(ticket.getPriorityReason().ordinal());
+        out.writeInt(ticket.getPriority());
+        writeString(out, ticket.getAgentUsername());
+        writeTime(out, ticket.getIssueTime());
+        writeTime(out, ticket.getCallTime());
+        writeTime(out, ticket.getServiceStartTime());
+        writeTime(out, ticket.getServiceEndTime());
+    }
+
+    static Ticket readTicket(DataInput in) throws IOException {
+        String ticketNumber = in.readUTF();
+        ServiceType serviceType = new ServiceType(in.readUTF(), in.readUTF());
+        String customerName = readString(in);
+        Ticket.TicketStatus status = STATUSES[in.readUnsignedByte()];
+        Ticket.PriorityReason reason = REASONS[in.readUnsignedByte()];
+        int priority = in.readInt();
+        String agentUsername = readString(in);
+        Ticket ticket = new Ticket(ticketNumber, serviceType, customerName, readTime(in), reason);
+        ticket.setPriority(priority);
+        ticket.setStatus(status);
+        ticket.setAgentUsername(agentUsername);
+        ticket.setCallTime(readTime(in));
+        ticket.setServiceStartTime(readTime(in));
+        ticket.setServiceEndTime(readTime(in));
+        return ticket;
+    }
+
+    static int ticketNumberSuffix(String ticketNumber) {
+        int dash = ticketNumber.indexOf('-');
+        try {
+            return dash >= 0 ? Integer.parseInt(ticketNumber.substring(dash + 1)) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeTime(DataOutput out, LocalDateTime time) throws IOException {
+        out.writeBoolean(time != null);
+        if (time != null) {
+            out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(time.getNano());
+        }
+    }
+
+    private static LocalDateTime readTime(DataInput in) throws IOException {
+        return in.readBoolean() ? LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC) : null;
+    }
+}
@@ -0,0 +1,37 @@
+package com.nextque.journal;
+
+import com.nextque.model.QueueEvent;
+import com.nextque.model.Ticket;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/** Queue state rebuilt from the latest snapshot plus the journal records written after it. */
+public final class JournalRecovery {
+    private final boolean empty;
+    private final long snapshotSequence;
+    private final Map<String, Ticket> openTickets;
+    private final List<QueueEvent> replayedEvents;
+    private final long lastSeenTicketVersion;
+    private final int highestTicketNumber;
+
+    JournalRecovery(boolean empty, long snapshotSequence, Map<String, Ticket> openTickets,
+                    List<QueueEvent> replayedEvents, long lastSeenTicketVersion, int highestTicketNumber) {
+        this.empty = empty;
+        this.snapshotSequence = snapshotSequence;
+        this.openTickets = openTickets;
+        this.replayedEvents = replayedEvents;
+        this.lastSeenTicketVersion = lastSeenTicketVersion;
+        this.highestTicketNumber = highestTicketNumber;
+    }
+
+    /** True when the journal directory held neither a snapshot nor any records. */
+    public boolean isEmpty() { return empty; }
+    public long getSnapshotSequence() { return snapshotSequence; }
+    public Collection<Ticket> getOpenTickets() { return Collections.unmodifiableCollection(openTickets.values()); }
+    public List<QueueEvent> getReplayedEvents() { return Collections.unmodifiableList(replayedEvents); }
+    public long getLastSeenTicketVersion() { return lastSeenTicketVersion; }
+    public int getHighestTicketNumber() { return highestTicketNumber; }
+}
@@ -0,0 +1,22 @@
+package com.nextque.journal;
+
+import com.nextque.model.Ticket;
+
+import java.util.Collection;
+
+/** The in-memory queue state captured for a journal checkpoint. */
+public final class JournalSnapshot {
+    private final Collection<Ticket> openTickets;
+    private final long lastSeenTicketVersion;
+    private final int ticketCounter;
+
+    public JournalSnapshot(Collection<Ticket> openTickets, long lastSeenTicketVersion, int ticketCounter) {
+        this.openTickets = openTickets;
+        this.lastSeenTicketVersion = lastSeenTicketVersion;
+        this.ticketCounter = ticketCounter;
+    }
+
+    public Collection<Ticket> getOpenTickets() { return openTickets; }
+    public long getLastSeenTicketVersion() { return lastSeenTicketVersion; }
+    public int getTicketCounter() { return ticketCounter; }
+}
@@ -0,0 +1,470 @@
+package com.nextque.journal;
+
+import com.nextque.model.QueueEvent;
+import com.nextque.model.Ticket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary journal of ticket lifecycle events. Every record carries the full ticket
+ * state after the event, framed as {@code [length][crc32][payload]}, and is forwarded to a
+ * downstream consumer (the SQLite write-behind) once it is in the log.
+ * <p>
+ * A checkpoint rotates to a new segment and writes a snapshot of the open tickets; recovery
+ * loads the newest valid snapshot and replays only the segments written after it, so startup
+ * cost depends on the number of open tickets and the checkpoint interval rather than on the
+ * whole ticket history. Segments are deleted once a snapshot covers them and the downstream
+ * consumer has caught up; a segment that is still there may hold records the consumer never
+ * stored, so recovery hands every record in it downstream again. A torn record at the end of the
+ * log is truncated during recovery.
+ */
+public class TicketJournal implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TicketJournal.class);
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final int SNAPSHOT_MAGIC = 0x4E51534E;
+    private static final int FORMAT_VERSION = 1;
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+    private static final QueueEvent.Type[] EVENT_TYPES = QueueEvent.Type.values();
+
+    private final Path directory;
+    private final long fsyncIntervalMillis;
+    private final Consumer<QueueEvent> downstream;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final ScheduledExecutorService syncer;
+    private final Object appendLock = new Object();
+    private final ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream(256);
+    private final DataOutputStream recordOut = new DataOutputStream(recordBuffer);
+    private final CRC32 crc = new CRC32();
+    private final AtomicLong appended = new AtomicLong();
+    private FileChannel segment;
+    private long lastSequence;
+    private long lastCheckpointSequence = -1L;
+    private boolean dirty;
+    private boolean recovered;
+    private volatile boolean failed;
+
+    private TicketJournal(Path directory, long fsyncIntervalMillis, Consumer<QueueEvent> downstream,
+                          FileChannel lockChannel, FileLock lock) {
+        this.directory = directory;
+        this.fsyncIntervalMillis = Math.max(0L, fsyncIntervalMillis);
+        this.downstream = downstream;
+        this.lockChannel = lockChannel;
+        this.lock = lock;
+        if (this.fsyncIntervalMillis > 0) {
+            this.syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "nextque-journal-sync");
+                t.setDaemon(true);
+                return t;
+            });
+            this.syncer.scheduleWithFixedDelay(this::syncQuietly, this.fsyncIntervalMillis, this.fsyncIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.syncer = null;
+        }
+    }
+
+    /**
+     * Opens the journal in {@code directory}, taking an exclusive lock so that only one process
+     * appends to it. {@code fsyncIntervalMillis} of 0 forces every record to disk before
+     * {@link #append} returns; otherwise records are forced in the background at that interval.
+     */
+    public static TicketJournal open(Path directory, long fsyncIntervalMillis, Consumer<QueueEvent> downstream) throws IOException {
+        Files.createDirectories(directory);
+        FileChannel lockChannel = FileChannel.open(directory.resolve("journal.lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("Journal " + directory.toAbsolutePath() + " is in use by another process");
+        }
+        return new TicketJournal(directory, fsyncIntervalMillis, downstream, lockChannel, lock);
+    }
+
+    /**
+     * Rebuilds the open tickets from the newest valid snapshot and the records after it, hands
+     * every record still in the log to the downstream consumer again, including those the
+     * snapshot already covers, and opens a fresh segment for new records. Must be called once,
+     * before the first {@link #append}.
+     */
+    public JournalRecovery recover() throws IOException {
+        synchronized (appendLock) {
+            if (recovered) {
+                throw new IllegalStateException("Journal already recovered");
+            }
+            long started = System.nanoTime();
+            ReplayState state = new ReplayState();
+            boolean empty = !loadLatestSnapshot(state);
+            List<Path> segments = list(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+            for (Path segmentFile : segments) {
+                empty &= Files.size(segmentFile) == 0;
+                replaySegment(segmentFile, state);
+            }
+            lastSequence = Math.max(state.snapshotSequence, state.lastSequence);
+            boolean upToDate = state.replayed.isEmpty() && state.undelivered.isEmpty();
+            lastCheckpointSequence = empty ? -1L : (upToDate ? state.snapshotSequence : -1L);
+            segment = openSegment(lastSequence + 1);
+            recovered = true;
+
+            LOGGER.info("Recovered {} open tickets from journal snapshot {} and {} replayed records in {} ms.",
+                    state.open.size(), state.snapshotSequence, state.replayed.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            if (!state.undelivered.isEmpty()) {
+                LOGGER.warn("Passing {} records from before snapshot {} to the database again; it had not caught up when the snapshot was taken.",
+                        state.undelivered.size(), state.snapshotSequence);
+            }
+            for (QueueEvent event : state.undelivered) {
+                downstream.accept(event);
+            }
+            for (QueueEvent event : state.replayed) {
+                downstream.accept(event);
+            }
+            return new JournalRecovery(empty, state.snapshotSequence, state.open, state.replayed,
+                    state.lastSeenTicketVersion, state.highestTicketNumber);
+        }
+    }
+
+    /** Writes the event to the journal, then passes it downstream. */
+    public void append(QueueEvent event) {
+        if (event == null || event.getTicket() == null) {
+            return;
+        }
+        if (!failed) {
+            synchronized (appendLock) {
+                if (!recovered) {
+                    throw new IllegalStateException("Journal must be recovered before appending");
+                }
+                try {
+                    long sequence = lastSequence + 1;
+                    recordBuffer.reset();
+                    recordOut.writeLong(0L);
+                    recordOut.writeLong(sequence);
+                    recordOut.writeByte(event.getType().ordinal());
+                    JournalCodec.writeTicket(recordOut, event.getTicket());
+                    byte[] record = recordBuffer.toByteArray();
+                    int payloadLength = record.length - RECORD_HEADER_BYTES;
+                    crc.reset();
+                    crc.update(record, RECORD_HEADER_BYTES, payloadLength);
+                    ByteBuffer buffer = ByteBuffer.wrap(record);
+                    buffer.putInt(0, payloadLength);
+                    buffer.putInt(4, (int) crc.getValue());
+                    while (buffer.hasRemaining()) {
+                        segment.write(buffer);
+                    }
+                    lastSequence = sequence;
+                    if (fsyncIntervalMillis == 0) {
+                        segment.force(false);
+                    } else {
+                        dirty = true;
+                    }
+                    appended.incrementAndGet();
+                } catch (IOException e) {
+                    failed = true;
+                    LOGGER.error("Ticket journal write failed; journaling is disabled until restart: {}", e.getMessage(), e);
+                }
+            }
+        }
+        downstream.accept(event);
+    }
+
+    /**
+     * Rotates to a new segment, snapshots the state returned by {@code capture}, and deletes the
+     * segments and snapshots the new snapshot supersedes once {@code downstreamDrained} confirms
+     * that everything appended so far has reached the downstream store. Otherwise the segments
+     * stay, and {@link #recover} passes their records downstream again.
+     * <p>
+     * The capture runs after the rotation without blocking appends. Any change it picks up
+     * beyond the rotation point is also in the new segment and is replayed on top of the
+     * snapshot, which is harmless because each record carries the full ticket state.
+     */
+    public synchronized void checkpoint(Supplier<JournalSnapshot> capture, BooleanSupplier downstreamDrained) throws IOException {
+        long sequence;
+        synchronized (appendLock) {
+            if (failed || !recovered || lastSequence == lastCheckpointSequence) {
+                return;
+            }
+            sequence = lastSequence;
+            segment.force(false);
+            segment.close();
+            segment = openSegment(sequence + 1);
+            dirty = false;
+        }
+        JournalSnapshot snapshot = capture.get();
+        writeSnapshot(sequence, snapshot);
+        synchronized (appendLock) {
+            lastCheckpointSequence = sequence;
+        }
+        if (downstreamDrained.getAsBoolean()) {
+            deleteSupersededFiles(sequence);
+        } else {
+            LOGGER.warn("Keeping journal segments up to {} until the database catches up.", sequence);
+        }
+        LOGGER.info("Journal checkpoint at record {} with {} open tickets.", sequence, snapshot.getOpenTickets().size());
+    }
+
+    public long getLastSequence() {
+        synchronized (appendLock) {
+            return lastSequence;
+        }
+    }
+
+    public long getAppendedCount() {
+        return appended.get();
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    @Override
+    public void close() {
+        if (syncer != null) {
+            syncer.shutdownNow();
+        }
+        synchronized (appendLock) {
+            try {
+                if (segment != null && segment.isOpen()) {
+                    segment.force(false);
+                    segment.close();
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Error closing journal segment: {}", e.getMessage());
+            }
+        }
+        try {
+            lock.release();
+            lockChannel.close();
+        } catch (IOException e) {
+            LOGGER.warn("Error releasing journal lock: {}", e.getMessage());
+        }
+        LOGGER.info("Ticket journal closed at record {} ({} records appended this run).", lastSequence, appended.get());
+    }
+
+    private void syncQuietly() {
+        FileChannel channel;
+        synchronized (appendLock) {
+            if (!dirty || segment == null) {
+                return;
+            }
+            dirty = false;
+            channel = segment;
+        }
+        try {
+            channel.force(false);
+        } catch (ClosedChannelException e) {
+            // Rotated or closed in the meantime; both force the segment first.
+        } catch (IOException e) {
+            LOGGER.warn("Failed to force ticket journal to disk: {}", e.getMessage());
+        }
+    }
+
+    private FileChannel openSegment(long firstSequence) throws IOException {
+        return FileChannel.open(directory.resolve(fileName(SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX)),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void replaySegment(Path segmentFile, ReplayState state) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long validEnd = 0;
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024));
+            CRC32 checksum = new CRC32();
+            while (validEnd < size) {
+                try {
+                    int length = in.readInt();
+                    int expectedCrc = in.readInt();
+                    if (length <= 0 || length > MAX_RECORD_BYTES || validEnd + RECORD_HEADER_BYTES + length > size) {
+                        break;
+                    }
+                    byte[] payload = new byte[length];
+                    in.readFully(payload);
+                    checksum.reset();
+                    checksum.update(payload, 0, length);
+                    if ((int) checksum.getValue() != expectedCrc) {
+                        break;
+                    }
+                    DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+                    long sequence = record.readLong();
+                    QueueEvent.Type type = EVENT_TYPES[record.readUnsignedByte()];
+                    Ticket ticket = JournalCodec.readTicket(record);
+                    validEnd += RECORD_HEADER_BYTES + length;
+                    state.apply(sequence, type, ticket);
+                } catch (EOFException | ArrayIndexOutOfBoundsException e) {
+                    break;
+                }
+            }
+            if (validEnd < size) {
+                LOGGER.warn("Truncating {} bytes of incomplete or corrupt records from {}.", size - validEnd, segmentFile.getFileName());
+                channel.truncate(validEnd);
+            }
+        }
+    }
+
+    private boolean loadLatestSnapshot(ReplayState state) throws IOException {
+        List<Path> snapshots = list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        Collections.reverse(snapshots);
+        for (Path snapshotFile : snapshots) {
+            byte[] bytes = Files.readAllBytes(snapshotFile);
+            if (bytes.length < 4) {
+                continue;
+            }
+            CRC32 checksum = new CRC32();
+            checksum.update(bytes, 0, bytes.length - 4);
+            if ((int) checksum.getValue() != ByteBuffer.wrap(bytes, bytes.length - 4, 4).getInt()) {
+                LOGGER.warn("Ignoring journal snapshot {} with a bad checksum.", snapshotFile.getFileName());
+                continue;
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - 4));
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != FORMAT_VERSION) {
+                LOGGER.warn("Ignoring journal snapshot {} with an unknown format.", snapshotFile.getFileName());
+                continue;
+            }
+            state.snapshotSequence = in.readLong();
+            state.lastSeenTicketVersion = in.readLong();
+            state.highestTicketNumber = in.readInt();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                Ticket ticket = JournalCodec.readTicket(in);
+                state.open.put(ticket.getTicketNumber(), ticket);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void writeSnapshot(long sequence, JournalSnapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(sequence);
+        out.writeLong(snapshot.getLastSeenTicketVersion());
+        out.writeInt(snapshot.getTicketCounter());
+        out.writeInt(snapshot.getOpenTickets().size());
+        for (Ticket ticket : snapshot.getOpenTickets()) {
+            JournalCodec.writeTicket(out, ticket);
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(bytes.toByteArray());
+        out.writeInt((int) checksum.getValue());
+
+        Path target = directory.resolve(fileName(SNAPSHOT_PREFIX, sequence, SNAPSHOT_SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void deleteSupersededFiles(long sequence) throws IOException {
+        for (Path segmentFile : list(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (sequenceOf(segmentFile, SEGMENT_PREFIX, SEGMENT_SUFFIX) <= sequence) {
+                Files.deleteIfExists(segmentFile);
+            }
+        }
+        for (Path snapshotFile : list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (sequenceOf(snapshotFile, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX) < sequence) {
+                Files.deleteIfExists(snapshotFile);
+            }
+        }
+    }
+
+    private List<Path> list(String prefix, String suffix) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> entries = Files.list(directory)) {
+            entries.filter(p -> {
+                String name = p.getFileName().toString();
+                return name.startsWith(prefix) && name.endsWith(suffix);
+            }).forEach(files::add);
+        }
+        files.sort((a, b) -> Long.compare(sequenceOf(a, prefix, suffix), sequenceOf(b, prefix, suffix)));
+        return files;
+    }
+
+    private static long sequenceOf(Path file, String prefix, String suffix) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    private static String fileName(String prefix, long sequence, String suffix) {
+        return String.format("%s%020d%s", prefix, sequence, suffix);
+    }
+
+    private static final class ReplayState {
+        final Map<String, Ticket> open = new LinkedHashMap<>();
+        final List<QueueEvent> replayed = new ArrayList<>();
+        final List<QueueEvent> undelivered = new ArrayList<>();
+        long snapshotSequence;
+        long lastSequence;
+        long lastSeenTicketVersion;
+        int highestTicketNumber;
+
+        void apply(long sequence, QueueEvent.Type type, Ticket ticket) {
+            if (sequence <= lastSequence) {
+                return;
+            }
+            lastSequence = sequence;
+            if (sequence <= snapshotSequence) {
+                // Kept because the database was behind at the checkpoint; the snapshot has the state.
+                undelivered.add(QueueEvent.forTicket(type, ticket));
+                return;
+            }
+            highestTicketNumber = Math.max(highestTicketNumber, JournalCodec.ticketNumberSuffix(ticket.getTicketNumber()));
+            if (ticket.getStatus() == Ticket.TicketStatus.WAITING || ticket.getStatus() == Ticket.TicketStatus.SERVING) {
+                open.put(ticket.getTicketNumber(), ticket);
+            } else {
+                open.remove(ticket.getTicketNumber());
+            }
+            replayed.add(QueueEvent.forTicket(type, ticket));
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.nextque.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** A monotonically increasing count. */
+public final class Counter {
+    private final LongAdder value = new LongAdder();
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long amount) {
+        value.add(amount);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+}
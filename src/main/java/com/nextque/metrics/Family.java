@@ -0,0 +1,34 @@
+package com.nextque.metrics;
+
+import java.util.Map;
+
+/** What the exporters see of a registered metric: its name, help text, type and current samples. */
+abstract class Family {
+    enum Type {
+        COUNTER("counter"), GAUGE("gauge"), SUMMARY("summary");
+
+        final String prometheusName;
+
+        Type(String prometheusName) {
+            this.prometheusName = prometheusName;
+        }
+    }
+
+    final String name;
+    final String help;
+    final Type type;
+    final String labelName;
+
+    Family(String name, String help, Type type, String labelName) {
+        this.name = name;
+        this.help = help;
+        this.type = type;
+        this.labelName = labelName;
+    }
+
+    /**
+     * The samples keyed by label value, sorted by it. Values are {@link Counter}s,
+     * {@link LatencyHistogram}s or {@link Number}s depending on the type.
+     */
+    abstract Map<String, ?> samples();
+}
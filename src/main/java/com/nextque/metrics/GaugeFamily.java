@@ -0,0 +1,20 @@
+package com.nextque.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/** Gauges read from their owner when the metrics are exported. */
+final class GaugeFamily extends Family {
+    private final Supplier<? extends Map<String, ? extends Number>> values;
+
+    GaugeFamily(String name, String help, String labelName, Supplier<? extends Map<String, ? extends Number>> values) {
+        super(name, help, Type.GAUGE, labelName);
+        this.values = values;
+    }
+
+    @Override
+    Map<String, ?> samples() {
+        return new TreeMap<>(values.get());
+    }
+}
@@ -0,0 +1,34 @@
+package com.nextque.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Counters or histograms sharing a name and differing by one label, such as the service a
+ * ticket was issued for. Looking up an existing label value does not allocate.
+ */
+public final class MetricFamily<T> extends Family {
+    private final ConcurrentMap<String, T> metrics = new ConcurrentHashMap<>();
+    private final Supplier<T> factory;
+
+    MetricFamily(String name, String help, Type type, String labelName, Supplier<T> factory) {
+        super(name, help, type, labelName);
+        this.factory = factory;
+    }
+
+    public T labels(String labelValue) {
+        T metric = metrics.get(labelValue);
+        if (metric == null) {
+            metric = metrics.computeIfAbsent(labelValue, key -> factory.get());
+        }
+        return metric;
+    }
+
+    @Override
+    Map<String, ?> samples() {
+        return new TreeMap<>(metrics);
+    }
+}
@@ -0,0 +1,124 @@
+package com.nextque.metrics;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exposes a {@link MetricsRegistry} over JMX as read-only attributes named like the Prometheus
+ * series, e.g. {@code nextque_tickets_issued_total{service=CEDULA}}. Each histogram becomes a
+ * set of attributes with the count, mean, percentiles and maximum in milliseconds.
+ */
+public final class MetricsMBean implements DynamicMBean {
+    public static final String OBJECT_NAME = "com.nextque:type=Metrics";
+    private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p999"};
+
+    private final MetricsRegistry registry;
+
+    public MetricsMBean(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    /** Registers the bean with the platform MBean server, replacing an earlier registration. */
+    public static void register(MetricsRegistry registry) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+        server.registerMBean(new MetricsMBean(registry), name);
+    }
+
+    public static void unregister() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Object value = values().get(attribute);
+        if (value == null) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        return value;
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        Map<String, Object> values = values();
+        AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            Object value = values.get(attribute);
+            if (value != null) {
+                list.add(new Attribute(attribute, value));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException(attribute.getName() + " is read-only");
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) {
+        throw new UnsupportedOperationException("No operations on " + OBJECT_NAME);
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> attributes = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : values().entrySet()) {
+            attributes.add(new MBeanAttributeInfo(entry.getKey(), entry.getValue().getClass().getName(),
+                    entry.getKey(), true, false, false));
+        }
+        return new MBeanInfo(MetricsMBean.class.getName(), "NextQue metrics",
+                attributes.toArray(new MBeanAttributeInfo[0]), null, null, null);
+    }
+
+    private Map<String, Object> values() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Family family : registry.families()) {
+            for (Map.Entry<String, ?> sample : family.samples().entrySet()) {
+                String series = family.labelName == null ? family.name
+                        : family.name + "{" + family.labelName + "=" + sample.getKey() + "}";
+                Object value = sample.getValue();
+                if (value instanceof LatencyHistogram) {
+                    LatencyHistogram.Snapshot snapshot = ((LatencyHistogram) value).snapshot();
+                    values.put(series + ".count", snapshot.getCount());
+                    values.put(series + ".meanMillis", snapshot.getMeanNanos() / 1e6);
+                    for (int i = 0; i < PrometheusFormat.QUANTILES.length; i++) {
+                        values.put(series + "." + PERCENTILE_NAMES[i] + "Millis",
+                                snapshot.getValueAtQuantile(PrometheusFormat.QUANTILES[i]) / 1e6);
+                    }
+                    values.put(series + ".maxMillis", snapshot.getMaxNanos() / 1e6);
+                } else if (value instanceof Counter) {
+                    values.put(series, ((Counter) value).get());
+                } else {
+                    values.put(series, ((Number) value).doubleValue());
+                }
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,75 @@
+package com.nextque.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * In-process metrics: latency histograms, counters and gauges, exported as Prometheus text
+ * ({@code /metrics} on the API server) and through the {@link MetricsMBean}. Instrumented code
+ * looks up its families once, in static fields, and records through them on the hot path.
+ */
+public final class MetricsRegistry {
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    private final ConcurrentNavigableMap<String, Family> families = new ConcurrentSkipListMap<>();
+
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    public MetricFamily<LatencyHistogram> histograms(String name, String help, String labelName) {
+        return family(name, help, Family.Type.SUMMARY, labelName, LatencyHistogram::new);
+    }
+
+    public MetricFamily<Counter> counters(String name, String help, String labelName) {
+        return family(name, help, Family.Type.COUNTER, labelName, Counter::new);
+    }
+
+    /**
+     * Registers gauges whose values, keyed by label value, are read from {@code values} at export
+     * time. A later registration under the same name replaces this one.
+     */
+    public Registration gauges(String name, String help, String labelName,
+                               Supplier<? extends Map<String, ? extends Number>> values) {
+        Family previous = families.get(name);
+        if (previous != null && previous.type != Family.Type.GAUGE) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + previous.type.prometheusName);
+        }
+        GaugeFamily family = new GaugeFamily(name, help, labelName, values);
+        families.put(name, family);
+        return () -> families.remove(name, family);
+    }
+
+    public Registration gauge(String name, String help, DoubleSupplier value) {
+        return gauges(name, help, null, () -> Collections.singletonMap("", value.getAsDouble()));
+    }
+
+    public String toPrometheusText() {
+        return PrometheusFormat.write(families());
+    }
+
+    Collection<Family> families() {
+        return new ArrayList<>(families.values());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> MetricFamily<T> family(String name, String help, Family.Type type, String labelName, Supplier<T> factory) {
+        Family family = families.computeIfAbsent(name, key -> new MetricFamily<>(name, help, type, labelName, factory));
+        if (family.type != type || !(family instanceof MetricFamily)) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + family.type.prometheusName);
+        }
+        return (MetricFamily<T>) family;
+    }
+
+    /** Removes gauges registered by an owner that is shutting down. */
+    public interface Registration extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
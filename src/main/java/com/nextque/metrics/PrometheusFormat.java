@@ -0,0 +1,95 @@
+package com.nextque.metrics;
+
+import java.util.Collection;
+import java.util.Map;
+
+/** Renders families in the Prometheus text exposition format, version 0.0.4. */
+final class PrometheusFormat {
+    static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private PrometheusFormat() {
+    }
+
+    static String write(Collection<Family> families) {
+        StringBuilder out = new StringBuilder(8192);
+        for (Family family : families) {
+            Map<String, ?> samples = family.samples();
+            if (samples.isEmpty()) {
+                continue;
+            }
+            out.append("# HELP ").append(family.name).append(' ');
+            escape(out, family.help, false);
+            out.append("\n# TYPE ").append(family.name).append(' ').append(family.type.prometheusName).append('\n');
+            for (Map.Entry<String, ?> sample : samples.entrySet()) {
+                Object value = sample.getValue();
+                if (value instanceof LatencyHistogram) {
+                    writeSummary(out, family, sample.getKey(), ((LatencyHistogram) value).snapshot());
+                } else if (value instanceof Counter) {
+                    line(out, family.name, "", family.labelName, sample.getKey(), null, ((Counter) value).get());
+                } else {
+                    line(out, family.name, "", family.labelName, sample.getKey(), null, ((Number) value).doubleValue());
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    private static void writeSummary(StringBuilder out, Family family, String labelValue, LatencyHistogram.Snapshot snapshot) {
+        for (double quantile : QUANTILES) {
+            double seconds = snapshot.getCount() == 0 ? Double.NaN : snapshot.getValueAtQuantile(quantile) / 1e9;
+            line(out, family.name, "", family.labelName, labelValue, Double.toString(quantile), seconds);
+        }
+        line(out, family.name, "_sum", family.labelName, labelValue, null, snapshot.getTotalNanos() / 1e9);
+        line(out, family.name, "_count", family.labelName, labelValue, null, snapshot.getCount());
+    }
+
+    private static void line(StringBuilder out, String name, String suffix, String labelName, String labelValue,
+                             String quantile, Object value) {
+        out.append(name).append(suffix);
+        boolean labelled = labelName != null;
+        if (labelled || quantile != null) {
+            out.append('{');
+            if (labelled) {
+                out.append(labelName).append("=\"");
+                escape(out, labelValue, true);
+                out.append('"');
+            }
+            if (quantile != null) {
+                out.append(labelled ? "," : "").append("quantile=\"").append(quantile).append('"');
+            }
+            out.append('}');
+        }
+        out.append(' ').append(formatValue(value)).append('\n');
+    }
+
+    private static String formatValue(Object value) {
+        if (value instanceof Double) {
+            double d = (Double) value;
+            if (Double.isNaN(d)) {
+                return "NaN";
+            }
+            if (Double.isInfinite(d)) {
+                return d > 0 ? "+Inf" : "-Inf";
+            }
+            if (d == Math.rint(d) && Math.abs(d) < 1e15) {
+                return Long.toString((long) d);
+            }
+        }
+        return String.valueOf(value);
+    }
+
+    private static void escape(StringBuilder out, String text, boolean quote) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\') {
+                out.append("\\\\");
+            } else if (c == '\n') {
+                out.append("\\n");
+            } else if (c == '"' && quote) {
+                out.append("\\\"");
+            } else {
+                out.append(c);
+            }
+        }
+    }
+}
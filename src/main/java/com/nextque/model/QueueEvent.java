@@ -0,0 +1,45 @@
+package com.nextque.model;
+
+import java.time.LocalDateTime;
+
+public final class QueueEvent {
+
+    public enum Type {
+        TICKET_ISSUED, TICKET_CALLED, SERVICE_STARTED, TICKET_COMPLETED, PRIORITY_CHANGED, SERVICES_RECONFIGURED
+    }
+
+    private final Type type;
+    private final Ticket ticket;
+    private final ServiceType serviceType;
+    private final LocalDateTime occurredAt;
+
+    private QueueEvent(Type type, Ticket ticket, ServiceType serviceType) {
+        this.type = type;
+        this.ticket = ticket;
+        this.serviceType = serviceType;
+        this.occurredAt = LocalDateTime.now();
+    }
+
+    public static QueueEvent forTicket(Type type, Ticket ticket) {
+        if (type == null || ticket == null) {
+            throw new IllegalArgumentException("Event type and ticket are required");
+        }
+        Ticket snapshot = ticket.copy();
+        return new QueueEvent(type, snapshot, snapshot.getServiceType());
+    }
+
+    public static QueueEvent servicesReconfigured() {
+        return new QueueEvent(Type.SERVICES_RECONFIGURED, null, null);
+    }
+
+    public Type getType() { return type; }
+    public Ticket getTicket() { return ticket; }
+    public ServiceType getServiceType() { return serviceType; }
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+
+    @Override
+    public String toString() {
+        return type + (ticket != null ? " " + ticket.getTicketNumber() : "") +
+               (serviceType != null ? " [" + serviceType.getName() + "]" : "");
+    }
+}
@@ -41,6 +41,14 @@ public class Ticket implements Comparable<Ticket> {
         ticketCounter.set(startValue);
     }
 
+    public static int getCounterValue() {
+        return ticketCounter.get();
+    }
+
+    public static void advanceCounter(int atLeast) {
+        ticketCounter.accumulateAndGet(atLeast, Math::max);
+    }
+
     public Ticket(ServiceType serviceType, String customerName, PriorityReason reason) {
         String servicePrefix = serviceType.getName().substring(0, Math.min(serviceType.getName().length(), 3)).toUpperCase();
         this.ticketNumber = String.format("%s-%04d", servicePrefix, ticketCounter.incrementAndGet());
@@ -63,6 +71,10 @@ public class Ticket implements Comparable<Ticket> {
     }
 
     private int calculateNumericalPriority(PriorityReason reason) {
+        return priorityOf(reason);
+    }
+
+    public static int priorityOf(PriorityReason reason) {
         if (reason == null || reason == PriorityReason.NONE) {
             return 0;
         }
@@ -96,6 +108,17 @@ public class Ticket implements Comparable<Ticket> {
     public String getAgentUsername() { return agentUsername; }
     public void setAgentUsername(String agentUsername) { this.agentUsername = agentUsername; }
 
+    public Ticket copy() {
+        Ticket copy = new Ticket(ticketNumber, serviceType, customerName, issueTime, priorityReason);
+        copy.priority = priority;
+        copy.status = status;
+        copy.callTime = callTime;
+        copy.serviceStartTime = serviceStartTime;
+        copy.serviceEndTime = serviceEndTime;
+        copy.agentUsername = agentUsername;
+        return copy;
+    }
+
     public String getFormattedTime(LocalDateTime dateTime) {
         if (dateTime == null) return "---";
         return dateTime.format(DateTimeFormatter.ofPattern("HH:mm:ss"));
@@ -112,6 +135,8 @@ public class Ticket implements Comparable<Ticket> {
     public int compareTo(Ticket other) {
         int priorityCompare = Integer.compare(other.priority, this.priority);
         if (priorityCompare != 0) return priorityCompare;
-        return this.issueTime.compareTo(other.issueTime);
+        int issueCompare = this.issueTime.compareTo(other.issueTime);
+        if (issueCompare != 0) return issueCompare;
+        return this.ticketNumber.compareTo(other.ticketNumber);
     }
 }
@@ -0,0 +1,210 @@
+package com.nextque.service;
+
+import com.nextque.metrics.Counter;
+import com.nextque.metrics.MetricsRegistry;
+import com.nextque.model.QueueEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers queue events to listeners on a dedicated executor instead of the publishing thread.
+ * Events published to a listener within one coalescing window are merged so that only the
+ * latest event per ticket is delivered, and each listener receives at most one batch per window.
+ */
+public class ListenerDispatcher implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ListenerDispatcher.class);
+    private static final String SERVICES_KEY = "\u0000services";
+    private static final Counter COALESCED_TOTAL = MetricsRegistry.global().counters("nextque_dispatch_coalesced_total",
+            "Queue events replaced by a later event for the same ticket before delivery.", null).labels("");
+    private static final Counter DROPPED_TOTAL = MetricsRegistry.global().counters("nextque_dispatch_dropped_total",
+            "Queue events discarded undelivered because a listener fell behind, was removed or the dispatcher stopped.", null).labels("");
+
+    private final ScheduledExecutorService executor;
+    private final long windowMillis;
+    private final int maxPendingPerListener;
+    private final ConcurrentMap<QueueManager.QueueEventListener, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private volatile boolean closed;
+
+    public ListenerDispatcher(long windowMillis, int maxPendingPerListener, int threads) {
+        this.windowMillis = Math.max(0L, windowMillis);
+        this.maxPendingPerListener = Math.max(1, maxPendingPerListener);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newScheduledThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "nextque-event-dispatcher-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public boolean addListener(QueueManager.QueueEventListener listener) {
+        if (listener == null) {
+            return false;
+        }
+        return subscriptions.putIfAbsent(listener, new Subscription(listener)) == null;
+    }
+
+    public void removeListener(QueueManager.QueueEventListener listener) {
+        Subscription removed = subscriptions.remove(listener);
+        if (removed != null) {
+            drop(removed.discard());
+        }
+    }
+
+    public void publish(QueueEvent event) {
+        if (event == null) {
+            return;
+        }
+        published.incrementAndGet();
+        if (closed) {
+            drop(subscriptions.size());
+            return;
+        }
+        for (Subscription subscription : subscriptions.values()) {
+            subscription.enqueue(event);
+        }
+    }
+
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(2, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+        for (Subscription subscription : subscriptions.values()) {
+            drop(subscription.discard());
+        }
+        LOGGER.info("Event dispatcher stopped: {} published, {} delivered in {} batches, {} coalesced, {} dropped.",
+                published.get(), delivered.get(), batches.get(), coalesced.get(), dropped.get());
+    }
+
+    private void drop(long events) {
+        dropped.addAndGet(events);
+        DROPPED_TOTAL.add(events);
+    }
+
+    private static String keyOf(QueueEvent event) {
+        return event.getTicket() != null ? event.getTicket().getTicketNumber() : SERVICES_KEY;
+    }
+
+    private final class Subscription {
+        private final QueueManager.QueueEventListener listener;
+        private final LinkedHashMap<String, QueueEvent> pending = new LinkedHashMap<>();
+        private boolean scheduled;
+        private long lastDeliveryNanos;
+
+        Subscription(QueueManager.QueueEventListener listener) {
+            this.listener = listener;
+            this.lastDeliveryNanos = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        }
+
+        synchronized void enqueue(QueueEvent event) {
+            String key = keyOf(event);
+            if (pending.remove(key) != null) {
+                coalesced.incrementAndGet();
+                COALESCED_TOTAL.increment();
+            }
+            pending.put(key, event);
+            if (pending.size() > maxPendingPerListener) {
+                Iterator<Map.Entry<String, QueueEvent>> eldest = pending.entrySet().iterator();
+                eldest.next();
+                eldest.remove();
+                drop(1);
+            }
+            if (!scheduled) {
+                scheduled = true;
+                long sinceLast = System.nanoTime() - lastDeliveryNanos;
+                long delay = Math.max(0L, TimeUnit.MILLISECONDS.toNanos(windowMillis) - sinceLast);
+                try {
+                    executor.schedule(this::deliver, delay, TimeUnit.NANOSECONDS);
+                } catch (RuntimeException e) {
+                    scheduled = false;
+                    drop(pending.size());
+                    pending.clear();
+                }
+            }
+        }
+
+        private void deliver() {
+            List<QueueEvent> batch;
+            synchronized (this) {
+                batch = new ArrayList<>(pending.values());
+                pending.clear();
+                lastDeliveryNanos = System.nanoTime();
+            }
+            try {
+                if (!batch.isEmpty()) {
+                    listener.onQueueEvents(batch);
+                    delivered.addAndGet(batch.size());
+                    batches.incrementAndGet();
+                }
+            } catch (Exception e) {
+                LOGGER.error("Error notifying listener {} of {} events: {}", listener.getClass().getName(), batch.size(), e.getMessage(), e);
+            } finally {
+                synchronized (this) {
+                    scheduled = false;
+                    if (!pending.isEmpty() && !closed) {
+                        try {
+                            executor.schedule(this::deliver, windowMillis, TimeUnit.MILLISECONDS);
+                            scheduled = true;
+                        } catch (RuntimeException e) {
+                            drop(discard());
+                        }
+                    }
+                }
+            }
+        }
+
+        synchronized int discard() {
+            int count = pending.size();
+            pending.clear();
+            return count;
+        }
+    }
+}
@@ -1,352 +1,802 @@
 package com.nextque.service;
 
 import com.nextque.db.DatabaseManager;
+import com.nextque.db.TicketChangeSet;
+import com.nextque.db.TicketQuery;
+import com.nextque.db.TicketWriteBehind;
+import com.nextque.journal.JournalRecovery;
+import com.nextque.journal.JournalSnapshot;
+import com.nextque.journal.TicketJournal;
+import com.nextque.metrics.Counter;
+import com.nextque.metrics.LatencyHistogram;
+import com.nextque.metrics.MetricFamily;
+import com.nextque.metrics.MetricsRegistry;
+import com.nextque.model.QueueEvent;
 import com.nextque.model.ServiceType;
 import com.nextque.model.Ticket;
 import com.nextque.model.User;
+import com.nextque.stats.QueueStatistics;
+import com.nextque.utils.AppConfig;
 
-import javax.swing.Timer;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.PriorityQueue;
-import java.util.Queue;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class QueueManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(QueueManager.class);
-    private final Map<ServiceType, PriorityQueue<Ticket>> serviceQueues;
-    private final Map<String, Ticket> currentlyServingByAgent;
-    private final List<QueueUpdateListener> listeners;
-    private FeedbackPromptListener feedbackListener;
+    private static final int SYNC_BATCH_SIZE = 500;
+    private static final MetricFamily<LatencyHistogram> OPERATION_LATENCY = MetricsRegistry.global().histograms(
+            "nextque_queue_operation_seconds", "Latency of QueueManager operations, including lock waits.", "operation");
+    private static final LatencyHistogram CHECKPOINT_LATENCY = OPERATION_LATENCY.labels("checkpoint");
+    private static final LatencyHistogram SYNC_LATENCY = OPERATION_LATENCY.labels("syncWithDatabase");
+    private static final LatencyHistogram RECONFIGURE_LATENCY = OPERATION_LATENCY.labels("servicesConfigurationChanged");
+    private static final LatencyHistogram GENERATE_TICKET_LATENCY = OPERATION_LATENCY.labels("generateTicket");
+    private static final LatencyHistogram CALL_NEXT_LATENCY = OPERATION_LATENCY.labels("callNextTicket");
+    private static final LatencyHistogram START_SERVICE_LATENCY = OPERATION_LATENCY.labels("startService");
+    private static final LatencyHistogram COMPLETE_SERVICE_LATENCY = OPERATION_LATENCY.labels("completeService");
+    private static final LatencyHistogram UPDATE_PRIORITY_LATENCY = OPERATION_LATENCY.labels("updateTicketPriority");
+    private static final LatencyHistogram ESTIMATE_WAIT_LATENCY = OPERATION_LATENCY.labels("estimateWait");
+    private static final LatencyHistogram ESTIMATE_NEW_WAIT_LATENCY = OPERATION_LATENCY.labels("estimateWaitForNewTicket");
+    private static final LatencyHistogram QUEUE_SNAPSHOT_LATENCY = OPERATION_LATENCY.labels("getQueueSnapshot");
+    private static final LatencyHistogram[] RECORD_LATENCY = recordLatencies();
+    private static final MetricFamily<Counter> TICKETS_ISSUED = MetricsRegistry.global().counters(
+            "nextque_tickets_issued_total", "Tickets issued.", "service");
+    private static final MetricFamily<Counter> TICKETS_CALLED = MetricsRegistry.global().counters(
+            "nextque_tickets_called_total", "Tickets called to a counter.", "service");
+    private static final MetricFamily<Counter> TICKETS_COMPLETED = MetricsRegistry.global().counters(
+            "nextque_tickets_completed_total", "Tickets whose service was completed.", "service");
+    private final ConcurrentMap<ServiceType, ServiceQueue> serviceQueues;
+    private final ConcurrentMap<String, Ticket> currentlyServingByAgent;
+    private final TicketIndex ticketIndex;
+    private final ServingIndex servingIndex;
+    private final ListenerDispatcher dispatcher;
+    private volatile FeedbackPromptListener feedbackListener;
     private final DatabaseManager dbManager;
-    private Timer pollingTimer;
+    private final TicketWriteBehind ticketWriter;
+    private final TicketJournal journal;
+    private final QueueStatistics statistics = new QueueStatistics();
+    private final WaitTimeEstimator waitEstimator;
+    private final List<MetricsRegistry.Registration> gauges = new ArrayList<>();
+    private final Object syncLock = new Object();
+    private long lastSeenTicketVersion;
+    private long lastSeenServiceTypesVersion;
 
     public QueueManager(DatabaseManager dbManager) {
         if (dbManager == null) {
             throw new IllegalArgumentException("DatabaseManager cannot be null");
         }
         this.dbManager = dbManager;
-        this.serviceQueues = new HashMap<>();
-        this.currentlyServingByAgent = new HashMap<>();
-        this.listeners = new LinkedList<>();
+        this.serviceQueues = new ConcurrentHashMap<>();
+        this.currentlyServingByAgent = new ConcurrentHashMap<>();
+        this.servingIndex = new ServingIndex();
+        this.ticketIndex = new TicketIndex(AppConfig.getInt("nextque.index.closedCapacity", 5_000));
+        this.dispatcher = new ListenerDispatcher(
+                AppConfig.getLong("nextque.events.coalesceWindowMs", 100L),
+                AppConfig.getInt("nextque.events.maxPending", 10_000),
+                AppConfig.getInt("nextque.events.threads", 1));
+        this.ticketWriter = new TicketWriteBehind(dbManager,
+                AppConfig.getInt("nextque.writer.capacity", 10_000),
+                AppConfig.getInt("nextque.writer.batchSize", 200),
+                AppConfig.getLong("nextque.writer.flushIntervalMs", 50L));
+        this.journal = openJournal();
+        this.waitEstimator = new WaitTimeEstimator(statistics,
+                AppConfig.getLong("nextque.estimate.defaultServiceSeconds", 300L));
+
+        JournalRecovery recovery = recoverJournal();
+        if (recovery != null && !recovery.isEmpty()) {
+            restoreFromJournal(recovery);
+        } else {
+            int lastTicketNumber = dbManager.getHighestTicketNumberSuffix();
+            Ticket.initializeCounter(lastTicketNumber);
 
-        int lastTicketNumber = dbManager.getHighestTicketNumberSuffix();
-        Ticket.initializeCounter(lastTicketNumber);
+            loadServicesAndTickets();
+            checkpoint();
+        }
+        loadTodaysStatistics();
+        refreshWaitEstimates();
+        registerGauges();
+    }
 
-        loadServicesAndTickets();
-        startDatabasePolling();
+    private void loadTodaysStatistics() {
+        LocalDate today = LocalDate.now();
+        TicketQuery query = new TicketQuery(null, null, null, null, today, today);
+        List<Ticket> page = dbManager.searchTickets(query, null, null, SYNC_BATCH_SIZE);
+        int loaded = 0;
+        while (!page.isEmpty()) {
+            statistics.recordHistory(page);
+            loaded += page.size();
+            Ticket last = page.get(page.size() - 1);
+            page = page.size() < SYNC_BATCH_SIZE ? Collections.emptyList()
+                    : dbManager.searchTickets(query, last.getIssueTime(), last.getTicketNumber(), SYNC_BATCH_SIZE);
+        }
+        LOGGER.info("Seeded queue statistics from {} tickets issued today.", loaded);
+    }
+
+    private void refreshWaitEstimates() {
+        for (ServiceType type : serviceQueues.keySet()) {
+            waitEstimator.refresh(type, servingIndex.get(type).size());
+        }
+    }
+
+    private void registerGauges() {
+        MetricsRegistry metrics = MetricsRegistry.global();
+        gauges.add(metrics.gauges("nextque_queue_waiting", "Tickets waiting, by service.", "service", () -> {
+            Map<String, Integer> waiting = new HashMap<>();
+            for (Map.Entry<ServiceType, ServiceQueue> entry : serviceQueues.entrySet()) {
+                waiting.put(entry.getKey().getName(), entry.getValue().size());
+            }
+            return waiting;
+        }));
+        gauges.add(metrics.gauges("nextque_queue_serving", "Tickets being served, by service.", "service", () -> {
+            Map<String, Integer> serving = new HashMap<>();
+            for (ServiceType type : serviceQueues.keySet()) {
+                serving.put(type.getName(), 0);
+            }
+            for (Ticket ticket : currentlyServingByAgent.values()) {
+                serving.merge(ticket.getServiceType().getName(), 1, Integer::sum);
+            }
+            return serving;
+        }));
+        gauges.add(metrics.gauge("nextque_ticket_writer_queued", "Ticket changes waiting to be written to the database.",
+                ticketWriter::getQueuedCount));
+        gauges.add(metrics.gauge("nextque_ticket_writer_unwritten", "Tickets whose last database write failed and is being retried.",
+                ticketWriter::getUnwrittenCount));
+        gauges.add(metrics.gauge("nextque_ticket_writer_rejected", "Ticket writes the database refused because the ticket number was already taken.",
+                ticketWriter::getRejectedCount));
+    }
+
+    private TicketJournal openJournal() {
+        if (!AppConfig.getBoolean("nextque.journal.enabled", true)) {
+            return null;
+        }
+        try {
+            return TicketJournal.open(Paths.get(AppConfig.getString("nextque.journal.dir", "nextque-journal")),
+                    AppConfig.getLong("nextque.journal.fsyncIntervalMs", 50L), ticketWriter::submit);
+        } catch (IOException e) {
+            LOGGER.warn("Ticket journal unavailable ({}); persisting to the database only.", e.getMessage());
+            return null;
+        }
     }
-    
-    private void loadServicesAndTickets() {
-        serviceQueues.clear();
-        List<ServiceType> systemServiceTypes = dbManager.getAllServiceTypes();
 
-        if (systemServiceTypes.isEmpty()){
-             LOGGER.warn("No service types are configured in the database.");
+    private JournalRecovery recoverJournal() {
+        if (journal == null) {
+            return null;
         }
+        try {
+            return journal.recover();
+        } catch (IOException e) {
+            LOGGER.error("Ticket journal recovery failed; loading queues from the database: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    private void restoreFromJournal(JournalRecovery recovery) {
+        synchronized (syncLock) {
+            lastSeenServiceTypesVersion = dbManager.getServiceTypesVersion();
+            lastSeenTicketVersion = recovery.getLastSeenTicketVersion();
+            for (ServiceType type : dbManager.getAllServiceTypes()) {
+                serviceQueues.put(type, new ServiceQueue());
+            }
 
-        for (ServiceType type : systemServiceTypes) {
-            serviceQueues.put(type, new PriorityQueue<>());
+            Map<String, Ticket> openTickets = new HashMap<>();
+            for (Ticket ticket : recovery.getOpenTickets()) {
+                ServiceQueue queue = serviceQueues.get(ticket.getServiceType());
+                if (queue == null) {
+                    LOGGER.warn("Journal holds open ticket {} for an inactive service type '{}'.", ticket.getTicketNumber(), ticket.getServiceType().getName());
+                    continue;
+                }
+                boolean restored;
+                if (ticket.getStatus() == Ticket.TicketStatus.WAITING) {
+                    restored = queue.add(ticket);
+                } else {
+                    restored = ticket.getStatus() == Ticket.TicketStatus.SERVING && ticket.getAgentUsername() != null
+                            && currentlyServingByAgent.putIfAbsent(ticket.getAgentUsername(), ticket) == null;
+                }
+                if (restored) {
+                    openTickets.put(ticket.getTicketNumber(), ticket);
+                }
+            }
+            ticketIndex.replaceOpen(openTickets);
+            servingIndex.rebuild(currentlyServingByAgent.values());
+            LOGGER.info("Restored {} waiting and {} serving tickets from the journal.",
+                    openTickets.size() - currentlyServingByAgent.size(), currentlyServingByAgent.size());
         }
-        LOGGER.info("QueueManager initialized for {} service types.", serviceQueues.size());
-        
-        List<Ticket> allTickets = dbManager.getAllTicketsWithResolvedServiceTypes();
-        int pendingCount = 0;
-        for (Ticket ticket : allTickets) {
-            if (ticket.getStatus() == Ticket.TicketStatus.WAITING) {
-                PriorityQueue<Ticket> queue = serviceQueues.get(ticket.getServiceType());
+        Ticket.initializeCounter(Math.max(recovery.getHighestTicketNumber(), dbManager.getHighestTicketNumberSuffix()));
+    }
+
+    private void loadServicesAndTickets() {
+        synchronized (syncLock) {
+            lastSeenServiceTypesVersion = dbManager.getServiceTypesVersion();
+            lastSeenTicketVersion = dbManager.getLatestTicketChangeVersion();
+            List<ServiceType> systemServiceTypes = dbManager.getAllServiceTypes();
+
+            if (systemServiceTypes.isEmpty()){
+                 LOGGER.warn("No service types are configured in the database.");
+            }
+
+            Map<ServiceType, ServiceQueue> freshQueues = new HashMap<>();
+            for (ServiceType type : systemServiceTypes) {
+                freshQueues.put(type, new ServiceQueue());
+            }
+            LOGGER.info("QueueManager initialized for {} service types.", freshQueues.size());
+
+            List<Ticket> waitingTickets = dbManager.getTicketsByStatus(Ticket.TicketStatus.WAITING);
+            Map<String, Ticket> openTickets = new HashMap<>();
+            for (Ticket serving : currentlyServingByAgent.values()) {
+                openTickets.put(serving.getTicketNumber(), serving);
+            }
+            int pendingCount = 0;
+            for (Ticket ticket : waitingTickets) {
+                ServiceQueue queue = freshQueues.get(ticket.getServiceType());
                 if (queue != null) {
-                    queue.add(ticket);
-                    pendingCount++;
+                    Ticket.TicketStatus known = ticketIndex.statusOf(ticket.getTicketNumber());
+                    if ((known == null || known == Ticket.TicketStatus.WAITING)
+                            && !openTickets.containsKey(ticket.getTicketNumber()) && queue.add(ticket)) {
+                        openTickets.put(ticket.getTicketNumber(), ticket);
+                        pendingCount++;
+                    }
                 } else {
                     LOGGER.warn("Found WAITING ticket {} for an inactive service type '{}'.", ticket.getTicketNumber(), ticket.getServiceType().getName());
                 }
             }
+
+            serviceQueues.keySet().retainAll(freshQueues.keySet());
+            for (Map.Entry<ServiceType, ServiceQueue> entry : freshQueues.entrySet()) {
+                serviceQueues.remove(entry.getKey());
+                serviceQueues.put(entry.getKey(), entry.getValue());
+            }
+            ticketIndex.replaceOpen(openTickets);
+            servingIndex.rebuild(currentlyServingByAgent.values());
+            LOGGER.info("Loaded {} pending tickets into active queues.", pendingCount);
+        }
+    }
+
+    /**
+     * Snapshots the open tickets into the journal so that the next startup only replays the
+     * records written after this point.
+     */
+    public void checkpoint() {
+        long started = System.nanoTime();
+        try {
+            if (journal == null) {
+                return;
+            }
+            try {
+                journal.checkpoint(this::captureSnapshot, this::flushTicketWrites);
+            } catch (IOException e) {
+                LOGGER.error("Journal checkpoint failed: {}", e.getMessage(), e);
+            }
+        } finally {
+            CHECKPOINT_LATENCY.recordSince(started);
         }
-        LOGGER.info("Loaded {} pending tickets into active queues.", pendingCount);
     }
 
-    private void startDatabasePolling() {
-        pollingTimer = new Timer(5000, e -> syncWithDatabase());
-        pollingTimer.setInitialDelay(5000);
-        pollingTimer.start();
-        LOGGER.info("Database polling started. Will sync with DB every 5 seconds.");
+    private JournalSnapshot captureSnapshot() {
+        long ticketVersion;
+        synchronized (syncLock) {
+            ticketVersion = lastSeenTicketVersion;
+        }
+        List<Ticket> openTickets = new ArrayList<>();
+        for (ServiceQueue queue : serviceQueues.values()) {
+            openTickets.addAll(queue.snapshot());
+        }
+        openTickets.addAll(currentlyServingByAgent.values());
+        return new JournalSnapshot(openTickets, ticketVersion, Ticket.getCounterValue());
     }
 
-    private synchronized void syncWithDatabase() {
-        LOGGER.debug("Executing database sync...");
-        boolean changed = false;
+    private boolean flushTicketWrites() {
+        try {
+            return ticketWriter.flush(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static LatencyHistogram[] recordLatencies() {
+        MetricFamily<LatencyHistogram> family = MetricsRegistry.global().histograms(
+                "nextque_queue_record_seconds", "Time to journal a ticket event or hand it to the database writer.", "event");
+        QueueEvent.Type[] types = QueueEvent.Type.values();
+        LatencyHistogram[] histograms = new LatencyHistogram[types.length];
+        for (QueueEvent.Type type : types) {
+            histograms[type.ordinal()] = family.labels(type.name());
+        }
+        return histograms;
+    }
+
+    /**
+     * Journals the event or hands it to the database writer. Each ticket's events must be
+     * recorded in the order its state changed, so callers record while holding the ticket's
+     * monitor, or before the ticket is visible to other threads.
+     */
+    private void record(QueueEvent event) {
+        long started = System.nanoTime();
+        if (journal != null) {
+            journal.append(event);
+        } else {
+            ticketWriter.submit(event);
+        }
+        RECORD_LATENCY[event.getType().ordinal()].recordSince(started);
+        statistics.record(event);
+        if (event.getType() == QueueEvent.Type.TICKET_CALLED || event.getType() == QueueEvent.Type.TICKET_COMPLETED) {
+            waitEstimator.refresh(event.getServiceType(), servingIndex.get(event.getServiceType()).size());
+        }
+    }
+
+    public void shutdown() {
+        gauges.forEach(MetricsRegistry.Registration::close);
+        dispatcher.close();
+        checkpoint();
+        if (journal != null) {
+            journal.close();
+        }
+        ticketWriter.close();
+        LOGGER.info("QueueManager shut down; pending ticket writes flushed.");
+    }
+
+    public void syncWithDatabase() {
+        long started = System.nanoTime();
+        try {
+            List<QueueEvent> events = new ArrayList<>();
+            synchronized (syncLock) {
+                LOGGER.debug("Executing database sync from ticket version {}...", lastSeenTicketVersion);
+
+                long serviceTypesVersion = dbManager.getServiceTypesVersion();
+                if (serviceTypesVersion != lastSeenServiceTypesVersion) {
+                    if (syncServiceTypes()) {
+                        events.add(QueueEvent.servicesReconfigured());
+                    }
+                    lastSeenServiceTypesVersion = serviceTypesVersion;
+                }
+
+                TicketChangeSet changes;
+                do {
+                    changes = dbManager.getTicketsChangedSince(lastSeenTicketVersion, SYNC_BATCH_SIZE);
+                    for (Ticket dbTicket : changes.getTickets()) {
+                        QueueEvent event = applyTicketChange(dbTicket);
+                        if (event != null) {
+                            events.add(event);
+                        }
+                    }
+                    lastSeenTicketVersion = changes.getLatestVersion();
+                } while (changes.isTruncated());
+            }
+            refreshWaitEstimates();
+
+            if (!events.isEmpty()) {
+                LOGGER.info("Database sync detected {} changes. Notifying listeners.", events.size());
+                for (QueueEvent event : events) {
+                    publish(event);
+                }
+            } else {
+                LOGGER.debug("DB Sync: No changes detected.");
+            }
+        } finally {
+            SYNC_LATENCY.recordSince(started);
+        }
+    }
 
+    private boolean syncServiceTypes() {
+        boolean changed = false;
         List<ServiceType> dbServiceTypes = dbManager.getAllServiceTypes();
-        Set<ServiceType> dbServiceTypesSet = new HashSet<>(dbServiceTypes);
-        Set<ServiceType> memoryServiceTypesSet = serviceQueues.keySet();
 
         for (ServiceType dbType : dbServiceTypes) {
-            if (!memoryServiceTypesSet.contains(dbType)) {
-                serviceQueues.put(dbType, new PriorityQueue<>());
+            ServiceQueue existing = serviceQueues.remove(dbType);
+            serviceQueues.put(dbType, existing != null ? existing : new ServiceQueue());
+            if (existing == null) {
                 LOGGER.info("DB Sync: Added new service type '{}'", dbType.getName());
                 changed = true;
             }
         }
 
-        Iterator<ServiceType> memoryIterator = serviceQueues.keySet().iterator();
-        while(memoryIterator.hasNext()){
-            ServiceType memType = memoryIterator.next();
-            if(!dbServiceTypesSet.contains(memType)){
-                memoryIterator.remove();
+        for (ServiceType memType : new ArrayList<>(serviceQueues.keySet())) {
+            if (!dbServiceTypes.contains(memType)) {
+                serviceQueues.remove(memType);
                 LOGGER.info("DB Sync: Removed service type '{}'", memType.getName());
                 changed = true;
             }
         }
+        return changed;
+    }
 
-        List<Ticket> dbWaitingTickets = dbManager.getAllTicketsWithResolvedServiceTypes().stream()
-                                                .filter(t -> t.getStatus() == Ticket.TicketStatus.WAITING)
-                                                .collect(Collectors.toList());
-
-        Set<String> dbTicketNumbers = dbWaitingTickets.stream()
-                                                      .map(Ticket::getTicketNumber)
-                                                      .collect(Collectors.toSet());
-
-        List<Ticket> memoryWaitingTickets = serviceQueues.values().stream()
-                                                         .flatMap(Queue::stream)
-                                                         .collect(Collectors.toList());
+    private QueueEvent applyTicketChange(Ticket dbTicket) {
+        String ticketNumber = dbTicket.getTicketNumber();
+        int suffix = ticketNumber.indexOf('-');
+        if (suffix >= 0) {
+            try {
+                Ticket.advanceCounter(Integer.parseInt(ticketNumber.substring(suffix + 1)));
+            } catch (NumberFormatException ignored) {
+                // Not a generated ticket number.
+            }
+        }
+        ServiceQueue queue = serviceQueues.get(dbTicket.getServiceType());
+        if (queue == null || ticketWriter.hasPendingWrites(ticketNumber)) {
+            return null;
+        }
 
-        Set<String> memoryTicketNumbers = memoryWaitingTickets.stream()
-                                                             .map(Ticket::getTicketNumber)
-                                                             .collect(Collectors.toSet());
+        Ticket memTicket = ticketIndex.get(ticketNumber);
+        if (memTicket != null && memTicket.getStatus().compareTo(dbTicket.getStatus()) > 0) {
+            return null;
+        }
+        statistics.recordChange(memTicket, dbTicket);
 
-        for (Ticket dbTicket : dbWaitingTickets) {
-            if (!memoryTicketNumbers.contains(dbTicket.getTicketNumber())) {
-                PriorityQueue<Ticket> queue = serviceQueues.get(dbTicket.getServiceType());
-                if (queue != null) {
-                    queue.add(dbTicket);
-                    LOGGER.info("DB Sync: Added new waiting ticket {}", dbTicket.getTicketNumber());
-                    changed = true;
-                }
+        if (dbTicket.getStatus() != Ticket.TicketStatus.WAITING) {
+            boolean removed = queue.remove(ticketNumber) != null;
+            if (!removed && memTicket != null && memTicket.getStatus() != Ticket.TicketStatus.WAITING) {
+                return null;
+            }
+            ticketIndex.put(dbTicket);
+            if (removed) {
+                LOGGER.info("DB Sync: Removed ticket {} from queue.", ticketNumber);
             }
+            QueueEvent.Type type = dbTicket.getStatus() == Ticket.TicketStatus.SERVING
+                    ? QueueEvent.Type.TICKET_CALLED : QueueEvent.Type.TICKET_COMPLETED;
+            return QueueEvent.forTicket(type, dbTicket);
         }
 
-        List<Ticket> ticketsToRemoveFromMemory = new ArrayList<>();
-        for (Ticket memTicket : memoryWaitingTickets) {
-            if (!dbTicketNumbers.contains(memTicket.getTicketNumber())) {
-                ticketsToRemoveFromMemory.add(memTicket);
+        if (memTicket == null) {
+            if (!queue.add(dbTicket)) {
+                return null;
             }
+            ticketIndex.put(dbTicket);
+            LOGGER.info("DB Sync: Added new waiting ticket {}", ticketNumber);
+            return QueueEvent.forTicket(QueueEvent.Type.TICKET_ISSUED, dbTicket);
         }
 
-        if (!ticketsToRemoveFromMemory.isEmpty()) {
-            for (Ticket toRemove : ticketsToRemoveFromMemory) {
-                PriorityQueue<Ticket> queue = serviceQueues.get(toRemove.getServiceType());
-                if (queue != null && queue.remove(toRemove)) {
-                     LOGGER.info("DB Sync: Removed ticket {} from queue.", toRemove.getTicketNumber());
-                     changed = true;
-                }
+        if (memTicket.getPriorityReason() != dbTicket.getPriorityReason()) {
+            Ticket updated = queue.reprioritize(memTicket.getTicketNumber(), dbTicket.getPriorityReason());
+            if (updated != null) {
+                LOGGER.info("DB Sync: Updated priority of ticket {} to {}.", memTicket.getTicketNumber(), dbTicket.getPriorityReason());
+                return QueueEvent.forTicket(QueueEvent.Type.PRIORITY_CHANGED, updated);
             }
         }
+        return null;
+    }
 
-        if (changed) {
-            LOGGER.info("Database sync detected changes. Notifying listeners.");
-            notifyListeners();
-        } else {
-            LOGGER.debug("DB Sync: No changes detected.");
-        }
+    public void addQueueEventListener(QueueEventListener listener) {
+        dispatcher.addListener(listener);
+    }
+
+    public void removeQueueEventListener(QueueEventListener listener) {
+        dispatcher.removeListener(listener);
+    }
+
+    public ListenerDispatcher getEventDispatcher() {
+        return dispatcher;
     }
 
+    public QueueStatistics getStatistics() {
+        return statistics;
+    }
 
     public void addQueueUpdateListener(QueueUpdateListener listener) {
-        if (listener != null && !listeners.contains(listener)) {
-            listeners.add(listener);
-        }
+        addQueueEventListener(listener);
     }
 
     public void setFeedbackPromptListener(FeedbackPromptListener listener) {
         this.feedbackListener = listener;
     }
 
-    public void notifyListeners() {
-        List<QueueUpdateListener> listenersCopy = new ArrayList<>(listeners);
-        for (QueueUpdateListener listener : listenersCopy) {
-            if (listener != null) {
-                try {
-                    listener.onQueueUpdated();
-                } catch (Exception e) {
-                    LOGGER.error("Error notifying listener {}: {}", listener.getClass().getName(), e.getMessage(), e);
-                }
+    private void publish(QueueEvent event) {
+        dispatcher.publish(event);
+    }
+
+    public void servicesConfigurationChanged() {
+        long started = System.nanoTime();
+        try {
+            LOGGER.info("Service configuration has changed. Reloading services and notifying all listeners.");
+            try {
+                ticketWriter.flush(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
+            loadServicesAndTickets();
+            publish(QueueEvent.servicesReconfigured());
+        } finally {
+            RECONFIGURE_LATENCY.recordSince(started);
         }
     }
-    
-    public synchronized void servicesConfigurationChanged() {
-        LOGGER.info("Service configuration has changed. Reloading services and notifying all listeners.");
-        loadServicesAndTickets();
-        notifyListeners();
-    }
 
-    public synchronized Ticket generateTicket(ServiceType serviceType, String customerName, Ticket.PriorityReason reason) {
-        if (serviceType == null || reason == null) {
-            return null;
+    public Ticket generateTicket(ServiceType serviceType, String customerName, Ticket.PriorityReason reason) {
+        long started = System.nanoTime();
+        try {
+            if (serviceType == null || reason == null) {
+                return null;
+            }
+            Ticket newTicket = new Ticket(serviceType, customerName, reason);
+            QueueEvent event = QueueEvent.forTicket(QueueEvent.Type.TICKET_ISSUED, newTicket);
+            // Recorded before the ticket can be called, so its issue is never written after its call.
+            record(event);
+
+            ticketIndex.put(newTicket);
+            serviceQueues.computeIfAbsent(serviceType, k -> new ServiceQueue()).add(newTicket);
+
+            TICKETS_ISSUED.labels(serviceType.getName()).increment();
+            LOGGER.info("Generated & Saved Ticket: {} for {}", newTicket.getTicketNumber(), serviceType.getDisplayName());
+            publish(event);
+            return newTicket;
+        } finally {
+            GENERATE_TICKET_LATENCY.recordSince(started);
         }
-        Ticket newTicket = new Ticket(serviceType, customerName, reason);
-
-        serviceQueues.computeIfAbsent(serviceType, k -> new PriorityQueue<>()).add(newTicket);
-
-        dbManager.saveTicket(newTicket);
-        LOGGER.info("Generated & Saved Ticket: {} for {}", newTicket.getTicketNumber(), serviceType.getDisplayName());
-        notifyListeners();
-        return newTicket;
     }
 
-    public synchronized Ticket callNextTicket(ServiceType serviceType, User agent) {
-        if (serviceType == null || agent == null || agent.getUsername() == null) {
-            return null;
-        }
+    public Ticket callNextTicket(ServiceType serviceType, User agent) {
+        long started = System.nanoTime();
+        try {
+            if (serviceType == null || agent == null || agent.getUsername() == null) {
+                return null;
+            }
 
-        if (currentlyServingByAgent.containsKey(agent.getUsername())) {
-            return null;
-        }
+            if (currentlyServingByAgent.containsKey(agent.getUsername())) {
+                return null;
+            }
 
-        PriorityQueue<Ticket> queue = serviceQueues.get(serviceType);
+            ServiceQueue queue = serviceQueues.get(serviceType);
+            Ticket nextTicket = (queue != null) ? queue.poll() : null;
 
-        if (queue == null || queue.isEmpty()) {
-            notifyListeners();
-            return null;
-        }
+            if (nextTicket == null) {
+                return null;
+            }
 
-        Ticket nextTicket = queue.poll();
-        nextTicket.setStatus(Ticket.TicketStatus.SERVING);
-        nextTicket.setCallTime(LocalDateTime.now());
-        nextTicket.setAgentUsername(agent.getUsername());
+            QueueEvent event;
+            synchronized (nextTicket) {
+                nextTicket.setStatus(Ticket.TicketStatus.SERVING);
+                nextTicket.setCallTime(LocalDateTime.now());
+                nextTicket.setAgentUsername(agent.getUsername());
+
+                if (currentlyServingByAgent.putIfAbsent(agent.getUsername(), nextTicket) != null) {
+                    nextTicket.setStatus(Ticket.TicketStatus.WAITING);
+                    nextTicket.setCallTime(null);
+                    nextTicket.setAgentUsername(null);
+                    queue.add(nextTicket);
+                    return null;
+                }
+                servingIndex.add(nextTicket);
 
-        currentlyServingByAgent.put(agent.getUsername(), nextTicket);
+                event = QueueEvent.forTicket(QueueEvent.Type.TICKET_CALLED, nextTicket);
+                record(event);
+            }
+            TICKETS_CALLED.labels(serviceType.getName()).increment();
 
-        dbManager.updateTicketStatus(nextTicket.getTicketNumber(), Ticket.TicketStatus.SERVING, agent.getUsername());
-        dbManager.updateTicketTimes(nextTicket.getTicketNumber(), nextTicket.getCallTime(), null, null);
-        
-        notifyListeners();
-        return nextTicket;
+            publish(event);
+            return nextTicket;
+        } finally {
+            CALL_NEXT_LATENCY.recordSince(started);
+        }
     }
 
-    public synchronized void startService(String agentUsername) {
-        if (agentUsername == null || agentUsername.trim().isEmpty()) {
-            return;
-        }
-        Ticket ticket = currentlyServingByAgent.get(agentUsername);
-        if (ticket != null && ticket.getStatus() == Ticket.TicketStatus.SERVING) {
-            if (ticket.getServiceStartTime() == null) {
+    public void startService(String agentUsername) {
+        long started = System.nanoTime();
+        try {
+            if (agentUsername == null || agentUsername.trim().isEmpty()) {
+                return;
+            }
+            Ticket ticket = currentlyServingByAgent.get(agentUsername);
+            if (ticket == null) {
+                return;
+            }
+            QueueEvent event;
+            synchronized (ticket) {
+                if (ticket.getStatus() != Ticket.TicketStatus.SERVING || ticket.getServiceStartTime() != null) {
+                    return;
+                }
                 ticket.setServiceStartTime(LocalDateTime.now());
-                dbManager.updateTicketTimes(ticket.getTicketNumber(), null, ticket.getServiceStartTime(), null);
-                notifyListeners();
+                event = QueueEvent.forTicket(QueueEvent.Type.SERVICE_STARTED, ticket);
+                record(event);
             }
+            publish(event);
+        } finally {
+            START_SERVICE_LATENCY.recordSince(started);
         }
     }
 
-    public synchronized void completeService(String agentUsername) {
-        if (agentUsername == null || agentUsername.trim().isEmpty()) {
-            return;
-        }
-        Ticket ticket = currentlyServingByAgent.get(agentUsername);
-        if (ticket != null && ticket.getStatus() == Ticket.TicketStatus.SERVING) {
-            ticket.setServiceEndTime(LocalDateTime.now());
-            ticket.setStatus(Ticket.TicketStatus.COMPLETED);
-
-            if (ticket.getServiceStartTime() == null) {
-                 ticket.setServiceStartTime(ticket.getCallTime() != null ? ticket.getCallTime() : ticket.getServiceEndTime().minusSeconds(1));
+    public void completeService(String agentUsername) {
+        long started = System.nanoTime();
+        try {
+            if (agentUsername == null || agentUsername.trim().isEmpty()) {
+                return;
             }
+            Ticket ticket = currentlyServingByAgent.remove(agentUsername);
+            if (ticket == null) {
+                return;
+            }
+            servingIndex.remove(ticket);
+            QueueEvent event;
+            synchronized (ticket) {
+                if (ticket.getStatus() != Ticket.TicketStatus.SERVING) {
+                    return;
+                }
+                ticket.setServiceEndTime(LocalDateTime.now());
+                ticket.setStatus(Ticket.TicketStatus.COMPLETED);
+                ticketIndex.put(ticket);
 
-            dbManager.updateTicketStatus(ticket.getTicketNumber(), Ticket.TicketStatus.COMPLETED, agentUsername);
-            dbManager.updateTicketTimes(ticket.getTicketNumber(), ticket.getCallTime(), ticket.getServiceStartTime(), ticket.getServiceEndTime());
-
-            currentlyServingByAgent.remove(agentUsername);
+                if (ticket.getServiceStartTime() == null) {
+                     ticket.setServiceStartTime(ticket.getCallTime() != null ? ticket.getCallTime() : ticket.getServiceEndTime().minusSeconds(1));
+                }
+                event = QueueEvent.forTicket(QueueEvent.Type.TICKET_COMPLETED, ticket);
+                record(event);
+            }
+            TICKETS_COMPLETED.labels(ticket.getServiceType().getName()).increment();
 
-            notifyListeners();
+            publish(event);
             promptForFeedback(ticket.getTicketNumber());
+        } finally {
+            COMPLETE_SERVICE_LATENCY.recordSince(started);
         }
     }
 
-    public synchronized boolean updateTicketPriority(String ticketNumber, Ticket.PriorityReason newReason) {
-        if (ticketNumber == null || newReason == null) {
-            return false;
-        }
-        Optional<Ticket> foundTicketOpt = serviceQueues.values().stream()
-            .flatMap(Queue::stream)
-            .filter(t -> t.getTicketNumber().equals(ticketNumber) && t.getStatus() == Ticket.TicketStatus.WAITING)
-            .findFirst();
-
-        if (foundTicketOpt.isPresent()) {
-            Ticket foundTicket = foundTicketOpt.get();
-            PriorityQueue<Ticket> queue = serviceQueues.get(foundTicket.getServiceType());
-            
-            if (queue != null && queue.remove(foundTicket)) {
-                foundTicket.setPriorityReason(newReason);
-                if (dbManager.updateTicketPriority(ticketNumber, newReason)) {
-                    queue.add(foundTicket);
-                    notifyListeners();
-                    return true;
+    public boolean updateTicketPriority(String ticketNumber, Ticket.PriorityReason newReason) {
+        long started = System.nanoTime();
+        try {
+            if (ticketNumber == null || newReason == null) {
+                return false;
+            }
+            Ticket indexed = ticketIndex.get(ticketNumber);
+            if (indexed == null || indexed.getStatus() != Ticket.TicketStatus.WAITING) {
+                return false;
+            }
+            ServiceQueue queue = serviceQueues.get(indexed.getServiceType());
+            Ticket waiting = (queue != null) ? queue.find(ticketNumber) : null;
+            if (waiting == null) {
+                return false;
+            }
+            QueueEvent event;
+            synchronized (waiting) {
+                Ticket updated = queue.reprioritize(ticketNumber, newReason);
+                if (updated == null) {
+                    return false;
                 }
+                event = QueueEvent.forTicket(QueueEvent.Type.PRIORITY_CHANGED, updated);
+                record(event);
+            }
+            publish(event);
+            return true;
+        } finally {
+            UPDATE_PRIORITY_LATENCY.recordSince(started);
+        }
+    }
+
+    public Ticket findTicket(String ticketNumber) {
+        if (ticketNumber == null || ticketNumber.trim().isEmpty()) return null;
+        return ticketIndex.get(ticketNumber.trim());
+    }
+
+    /** The expected wait of a waiting ticket, or null if it is not waiting. */
+    public WaitEstimate estimateWait(String ticketNumber) {
+        long started = System.nanoTime();
+        try {
+            Ticket ticket = findTicket(ticketNumber);
+            if (ticket == null || ticket.getStatus() != Ticket.TicketStatus.WAITING) {
+                return null;
             }
+            ServiceQueue queue = serviceQueues.get(ticket.getServiceType());
+            int position = queue != null ? queue.positionOf(ticket.getTicketNumber()) : -1;
+            return position < 0 ? null : waitEstimator.estimate(ticket.getServiceType(), position);
+        } finally {
+            ESTIMATE_WAIT_LATENCY.recordSince(started);
+        }
+    }
+
+    /** The expected wait of a ticket issued now for this service and priority. */
+    public WaitEstimate estimateWaitForNewTicket(ServiceType serviceType, Ticket.PriorityReason reason) {
+        long started = System.nanoTime();
+        try {
+            if (serviceType == null) {
+                return null;
+            }
+            ServiceQueue queue = serviceQueues.get(serviceType);
+            int ahead = queue != null ? queue.countAhead(Ticket.priorityOf(reason)) : 0;
+            return waitEstimator.estimate(serviceType, ahead);
+        } finally {
+            ESTIMATE_NEW_WAIT_LATENCY.recordSince(started);
         }
-        return false;
     }
 
     private void promptForFeedback(String ticketNumber) {
-        if (ticketNumber != null && !ticketNumber.trim().isEmpty() && this.feedbackListener != null) {
+        FeedbackPromptListener listener = this.feedbackListener;
+        if (ticketNumber != null && !ticketNumber.trim().isEmpty() && listener != null) {
             try {
-                this.feedbackListener.onServiceCompletedForFeedback(ticketNumber);
+                listener.onServiceCompletedForFeedback(ticketNumber);
             } catch (Exception e) {
                 LOGGER.error("Error prompting feedback listener for ticket {}: {}", ticketNumber, e.getMessage(), e);
             }
         }
     }
 
-    public synchronized Ticket getCurrentlyServing(ServiceType serviceType) {
-        if (serviceType == null) return null;
-        return currentlyServingByAgent.values().stream()
-            .filter(ticket -> serviceType.equals(ticket.getServiceType()) && ticket.getStatus() == Ticket.TicketStatus.SERVING)
-            .findFirst()
-            .orElse(null);
+    public Ticket getCurrentlyServing(ServiceType serviceType) {
+        List<Ticket> serving = getServingTickets(serviceType);
+        return serving.isEmpty() ? null : serving.get(serving.size() - 1);
+    }
+
+    public List<Ticket> getServingTickets(ServiceType serviceType) {
+        if (serviceType == null) return Collections.emptyList();
+        return servingIndex.get(serviceType);
+    }
+
+    public Map<ServiceType, List<Ticket>> getServingSnapshot() {
+        return servingIndex.snapshot();
     }
 
-    public synchronized Ticket getTicketBeingServedByAgent(String agentUsername) {
+    public Ticket getTicketBeingServedByAgent(String agentUsername) {
         if (agentUsername == null || agentUsername.trim().isEmpty()) return null;
         return currentlyServingByAgent.get(agentUsername);
     }
 
-    public synchronized List<Ticket> getQueueSnapshot(ServiceType serviceType) {
-        if (serviceType == null) return new ArrayList<>();
-        Queue<Ticket> queue = serviceQueues.get(serviceType);
-        if (queue == null) return new ArrayList<>();
-        
-        return queue.stream().sorted().collect(Collectors.toList());
+    public List<Ticket> getQueueSnapshot(ServiceType serviceType) {
+        long started = System.nanoTime();
+        try {
+            if (serviceType == null) return Collections.emptyList();
+            ServiceQueue queue = serviceQueues.get(serviceType);
+            if (queue == null) return Collections.emptyList();
+            return queue.snapshot();
+        } finally {
+            QUEUE_SNAPSHOT_LATENCY.recordSince(started);
+        }
     }
 
-    public synchronized int getWaitingCount(ServiceType serviceType) {
+    public int getWaitingCount(ServiceType serviceType) {
         if (serviceType == null) return 0;
-        Queue<Ticket> queue = serviceQueues.get(serviceType);
+        ServiceQueue queue = serviceQueues.get(serviceType);
         return queue != null ? queue.size() : 0;
     }
 
-    public synchronized int getTotalWaitingCount() {
-        return serviceQueues.values().stream().mapToInt(Queue::size).sum();
+    public int getTotalWaitingCount() {
+        int total = 0;
+        for (ServiceQueue queue : serviceQueues.values()) {
+            total += queue.size();
+        }
+        return total;
     }
 
-    public synchronized List<ServiceType> getAvailableServiceTypes() {
+    public List<ServiceType> getAvailableServiceTypes() {
         return serviceQueues.keySet().stream()
             .sorted(Comparator.comparing(ServiceType::getDisplayName))
             .collect(Collectors.toList());
     }
 
-    public interface QueueUpdateListener {
+    public interface QueueEventListener {
+        void onQueueEvent(QueueEvent event);
+
+        /**
+         * Receives the events coalesced during one dispatch window, keeping only the latest
+         * event per ticket. Override to handle a whole batch in a single UI update.
+         */
+        default void onQueueEvents(List<QueueEvent> events) {
+            for (QueueEvent event : events) {
+                onQueueEvent(event);
+            }
+        }
+    }
+
+    /**
+     * Coarse listener kept for callers that only need to know that something changed;
+     * every typed event is delivered to it as a plain update notification.
+     */
+    public interface QueueUpdateListener extends QueueEventListener {
         void onQueueUpdated();
+
+        @Override
+        default void onQueueEvent(QueueEvent event) {
+            onQueueUpdated();
+        }
+
+        @Override
+        default void onQueueEvents(List<QueueEvent> events) {
+            onQueueUpdated();
+        }
     }
 
     public interface FeedbackPromptListener {
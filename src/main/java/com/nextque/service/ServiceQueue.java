@@ -0,0 +1,149 @@
+package com.nextque.service;
+
+import com.nextque.model.Ticket;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+class ServiceQueue {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TicketHeap tickets = new TicketHeap();
+    private final TicketRank ranks = new TicketRank();
+    private final TreeMap<Integer, Integer> countsByPriority = new TreeMap<>();
+    private volatile int size;
+    private volatile List<Ticket> snapshot = Collections.emptyList();
+
+    boolean add(Ticket ticket) {
+        lock.lock();
+        try {
+            if (!tickets.add(ticket)) {
+                return false;
+            }
+            ranks.add(ticket);
+            countsByPriority.merge(ticket.getPriority(), 1, Integer::sum);
+            changed();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Ticket poll() {
+        lock.lock();
+        try {
+            Ticket next = tickets.poll();
+            if (next != null) {
+                ranks.remove(next);
+                uncount(next.getPriority());
+                changed();
+            }
+            return next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Ticket find(String ticketNumber) {
+        lock.lock();
+        try {
+            return tickets.get(ticketNumber);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Ticket remove(String ticketNumber) {
+        lock.lock();
+        try {
+            Ticket removed = tickets.remove(ticketNumber);
+            if (removed != null) {
+                ranks.remove(removed);
+                uncount(removed.getPriority());
+                changed();
+            }
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    Ticket reprioritize(String ticketNumber, Ticket.PriorityReason newReason) {
+        lock.lock();
+        try {
+            Ticket existing = tickets.get(ticketNumber);
+            if (existing == null) {
+                return null;
+            }
+            uncount(existing.getPriority());
+            ranks.remove(existing);
+            existing.setPriorityReason(newReason);
+            ranks.add(existing);
+            countsByPriority.merge(existing.getPriority(), 1, Integer::sum);
+            tickets.changed(ticketNumber);
+            changed();
+            return existing;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** How many waiting tickets would be called before a new ticket of this priority. */
+    int countAhead(int priority) {
+        lock.lock();
+        try {
+            int ahead = 0;
+            for (int count : countsByPriority.tailMap(priority, true).values()) {
+                ahead += count;
+            }
+            return ahead;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** How many tickets will be called before this one, or -1 if it is not waiting here. */
+    int positionOf(String ticketNumber) {
+        lock.lock();
+        try {
+            Ticket ticket = tickets.get(ticketNumber);
+            return ticket != null ? ranks.rankOf(ticket) : -1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    List<Ticket> snapshot() {
+        List<Ticket> current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        lock.lock();
+        try {
+            if (snapshot == null) {
+                snapshot = Collections.unmodifiableList(tickets.toSortedList());
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void uncount(int priority) {
+        countsByPriority.computeIfPresent(priority, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private void changed() {
+        size = tickets.size();
+        snapshot = null;
+    }
+}
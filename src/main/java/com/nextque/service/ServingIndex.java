@@ -0,0 +1,64 @@
+package com.nextque.service;
+
+import com.nextque.model.ServiceType;
+import com.nextque.model.Ticket;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tickets currently being served, grouped by service type in the order they were called.
+ * Readers get an immutable copy-on-write snapshot, so a display can read every counter of
+ * every service without locking and without seeing a half-applied change.
+ */
+class ServingIndex {
+    private volatile Map<ServiceType, List<Ticket>> snapshot = Collections.emptyMap();
+
+    synchronized void add(Ticket ticket) {
+        Map<ServiceType, List<Ticket>> next = new HashMap<>(snapshot);
+        List<Ticket> serving = new ArrayList<>(next.getOrDefault(ticket.getServiceType(), Collections.emptyList()));
+        serving.add(ticket);
+        next.put(ticket.getServiceType(), Collections.unmodifiableList(serving));
+        snapshot = Collections.unmodifiableMap(next);
+    }
+
+    synchronized void remove(Ticket ticket) {
+        List<Ticket> current = snapshot.get(ticket.getServiceType());
+        if (current == null || !current.contains(ticket)) {
+            return;
+        }
+        Map<ServiceType, List<Ticket>> next = new HashMap<>(snapshot);
+        List<Ticket> serving = new ArrayList<>(current);
+        serving.remove(ticket);
+        if (serving.isEmpty()) {
+            next.remove(ticket.getServiceType());
+        } else {
+            next.put(ticket.getServiceType(), Collections.unmodifiableList(serving));
+        }
+        snapshot = Collections.unmodifiableMap(next);
+    }
+
+    synchronized void rebuild(Collection<Ticket> servingTickets) {
+        List<Ticket> ordered = new ArrayList<>(servingTickets);
+        ordered.sort(Comparator.comparing(Ticket::getCallTime, Comparator.nullsFirst(Comparator.naturalOrder())));
+        Map<ServiceType, List<Ticket>> next = new HashMap<>();
+        for (Ticket ticket : ordered) {
+            next.computeIfAbsent(ticket.getServiceType(), k -> new ArrayList<>()).add(ticket);
+        }
+        next.replaceAll((type, tickets) -> Collections.unmodifiableList(tickets));
+        snapshot = Collections.unmodifiableMap(next);
+    }
+
+    List<Ticket> get(ServiceType serviceType) {
+        return snapshot.getOrDefault(serviceType, Collections.emptyList());
+    }
+
+    Map<ServiceType, List<Ticket>> snapshot() {
+        return snapshot;
+    }
+}
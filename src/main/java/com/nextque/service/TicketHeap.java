@@ -0,0 +1,203 @@
+package com.nextque.service;
+
+import com.nextque.model.Ticket;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Binary min-heap of tickets (in {@link Ticket#compareTo} order) that also tracks the array
+ * position of every ticket by number, so lookups are O(1) and removals or priority changes
+ * are O(log n). Not thread-safe; {@link ServiceQueue} guards it with its lock.
+ */
+public class TicketHeap implements Iterable<Ticket> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private Ticket[] heap;
+    private final Map<String, Integer> positions;
+    private int size;
+
+    public TicketHeap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public TicketHeap(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        this.heap = new Ticket[capacity];
+        this.positions = new HashMap<>(capacity * 2);
+    }
+
+    public boolean add(Ticket ticket) {
+        String number = ticket.getTicketNumber();
+        if (positions.containsKey(number)) {
+            return false;
+        }
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        heap[size] = ticket;
+        positions.put(number, size);
+        siftUp(size++);
+        return true;
+    }
+
+    public Ticket peek() {
+        return size == 0 ? null : heap[0];
+    }
+
+    public Ticket poll() {
+        return size == 0 ? null : removeAt(0);
+    }
+
+    public Ticket get(String ticketNumber) {
+        Integer index = positions.get(ticketNumber);
+        return index == null ? null : heap[index];
+    }
+
+    public boolean contains(String ticketNumber) {
+        return positions.containsKey(ticketNumber);
+    }
+
+    public Ticket remove(String ticketNumber) {
+        Integer index = positions.get(ticketNumber);
+        return index == null ? null : removeAt(index);
+    }
+
+    /**
+     * Restores heap order after the ordering fields of the given ticket changed in place
+     * (priority raised or lowered). Returns false if the ticket is not in the heap.
+     */
+    public boolean changed(String ticketNumber) {
+        Integer index = positions.get(ticketNumber);
+        if (index == null) {
+            return false;
+        }
+        if (!siftUp(index)) {
+            siftDown(index);
+        }
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(heap, 0, size, null);
+        positions.clear();
+        size = 0;
+    }
+
+    /**
+     * Tickets in queue order without modifying the heap. Only the frontier of the walk is
+     * kept in a side heap, so taking the first k tickets costs O(k log k).
+     */
+    @Override
+    public Iterator<Ticket> iterator() {
+        return new OrderedIterator();
+    }
+
+    public List<Ticket> toSortedList() {
+        List<Ticket> sorted = new ArrayList<>(size);
+        for (Ticket ticket : this) {
+            sorted.add(ticket);
+        }
+        return sorted;
+    }
+
+    private Ticket removeAt(int index) {
+        Ticket removed = heap[index];
+        positions.remove(removed.getTicketNumber());
+        int last = --size;
+        if (index != last) {
+            Ticket moved = heap[last];
+            heap[last] = null;
+            place(moved, index);
+            if (!siftUp(index)) {
+                siftDown(index);
+            }
+        } else {
+            heap[last] = null;
+        }
+        return removed;
+    }
+
+    private boolean siftUp(int index) {
+        Ticket ticket = heap[index];
+        int start = index;
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent].compareTo(ticket) <= 0) {
+                break;
+            }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(ticket, index);
+        return index != start;
+    }
+
+    private void siftDown(int index) {
+        Ticket ticket = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && heap[right].compareTo(heap[child]) < 0) {
+                child = right;
+            }
+            if (ticket.compareTo(heap[child]) <= 0) {
+                break;
+            }
+            place(heap[child], index);
+            index = child;
+        }
+        place(ticket, index);
+    }
+
+    private void place(Ticket ticket, int index) {
+        heap[index] = ticket;
+        positions.put(ticket.getTicketNumber(), index);
+    }
+
+    private final class OrderedIterator implements Iterator<Ticket> {
+        private final PriorityQueue<Integer> frontier = new PriorityQueue<>((a, b) -> heap[a].compareTo(heap[b]));
+
+        OrderedIterator() {
+            if (size > 0) {
+                frontier.add(0);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !frontier.isEmpty();
+        }
+
+        @Override
+        public Ticket next() {
+            Integer index = frontier.poll();
+            if (index == null) {
+                throw new NoSuchElementException();
+            }
+            int left = 2 * index + 1;
+            if (left < size) {
+                frontier.add(left);
+                if (left + 1 < size) {
+                    frontier.add(left + 1);
+                }
+            }
+            return heap[index];
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.nextque.service;
+
+import com.nextque.model.Ticket;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Ticket-number index over every ticket QueueManager knows about. Waiting and serving tickets
+ * stay indexed until they are closed; closed tickets are kept in a bounded most-recent window
+ * so late or stale database changes cannot bring them back into a queue.
+ */
+class TicketIndex {
+    private final ConcurrentMap<String, Ticket> open = new ConcurrentHashMap<>();
+    private final Map<String, Ticket> recentlyClosed;
+
+    TicketIndex(int closedCapacity) {
+        int capacity = Math.max(1, closedCapacity);
+        this.recentlyClosed = new LinkedHashMap<String, Ticket>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Ticket> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    Ticket get(String ticketNumber) {
+        Ticket ticket = open.get(ticketNumber);
+        if (ticket != null) {
+            return ticket;
+        }
+        synchronized (recentlyClosed) {
+            return recentlyClosed.get(ticketNumber);
+        }
+    }
+
+    Ticket.TicketStatus statusOf(String ticketNumber) {
+        Ticket ticket = get(ticketNumber);
+        return ticket != null ? ticket.getStatus() : null;
+    }
+
+    /**
+     * Records the given ticket under its current status. A ticket never moves backwards
+     * through the lifecycle: an update that would do so is ignored and false is returned.
+     */
+    boolean put(Ticket ticket) {
+        String number = ticket.getTicketNumber();
+        Ticket.TicketStatus known = statusOf(number);
+        if (known != null && known.compareTo(ticket.getStatus()) > 0) {
+            return false;
+        }
+        if (isClosed(ticket.getStatus())) {
+            open.remove(number);
+            synchronized (recentlyClosed) {
+                recentlyClosed.put(number, ticket);
+            }
+        } else {
+            open.put(number, ticket);
+        }
+        return true;
+    }
+
+    void replaceOpen(Map<String, Ticket> tickets) {
+        open.keySet().retainAll(tickets.keySet());
+        open.putAll(tickets);
+    }
+
+    private static boolean isClosed(Ticket.TicketStatus status) {
+        return status == Ticket.TicketStatus.COMPLETED || status == Ticket.TicketStatus.CANCELLED;
+    }
+}
@@ -0,0 +1,134 @@
+package com.nextque.service;
+
+import com.nextque.model.Ticket;
+
+import java.time.LocalDateTime;
+
+/**
+ * Order-statistic tree of the waiting tickets of one queue, in call order (higher priority
+ * first, then issue time, then ticket number to break ties), so the number of tickets ahead of
+ * any one of them is found in O(log n). It is a treap keyed on the ticket's priority as it was
+ * when added: remove a ticket before changing its priority and add it back afterwards. Not
+ * thread-safe; {@link ServiceQueue} guards it with its lock.
+ */
+final class TicketRank {
+    private Node root;
+    private int seed = 0x2545F491;
+
+    void add(Ticket ticket) {
+        Node node = new Node(ticket.getPriority(), ticket.getIssueTime(), ticket.getTicketNumber(), nextWeight());
+        Node[] parts = split(root, node.priority, node.issueTime, node.ticketNumber, false);
+        root = merge(merge(parts[0], node), parts[1]);
+    }
+
+    boolean remove(Ticket ticket) {
+        Node[] below = split(root, ticket.getPriority(), ticket.getIssueTime(), ticket.getTicketNumber(), false);
+        Node[] match = split(below[1], ticket.getPriority(), ticket.getIssueTime(), ticket.getTicketNumber(), true);
+        root = merge(below[0], match[1]);
+        return match[0] != null;
+    }
+
+    /** How many tickets come before this one; it does not have to be in the tree. */
+    int rankOf(Ticket ticket) {
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            if (compare(ticket.getPriority(), ticket.getIssueTime(), ticket.getTicketNumber(), node) <= 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    void clear() {
+        root = null;
+    }
+
+    /**
+     * Splits into the tickets ordered before the key and the rest; with {@code inclusive} the
+     * first part also takes a ticket equal to the key.
+     */
+    private static Node[] split(Node node, int priority, LocalDateTime issueTime, String ticketNumber, boolean inclusive) {
+        if (node == null) {
+            return new Node[2];
+        }
+        int cmp = compare(priority, issueTime, ticketNumber, node);
+        if (cmp > 0 || (inclusive && cmp == 0)) {
+            Node[] parts = split(node.right, priority, issueTime, ticketNumber, inclusive);
+            node.right = parts[0];
+            node.update();
+            parts[0] = node;
+            return parts;
+        }
+        Node[] parts = split(node.left, priority, issueTime, ticketNumber, inclusive);
+        node.left = parts[1];
+        node.update();
+        parts[1] = node;
+        return parts;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.weight > right.weight) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static int compare(int priority, LocalDateTime issueTime, String ticketNumber, Node node) {
+        int cmp = Integer.compare(node.priority, priority);
+        if (cmp != 0) {
+            return cmp;
+        }
+        cmp = issueTime.compareTo(node.issueTime);
+        return cmp != 0 ? cmp : ticketNumber.compareTo(node.ticketNumber);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private int nextWeight() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+
+    private static final class Node {
+        final int priority;
+        final LocalDateTime issueTime;
+        final String ticketNumber;
+        final int weight;
+        Node left;
+        Node right;
+        int size = 1;
+
+        Node(int priority, LocalDateTime issueTime, String ticketNumber, int weight) {
+            this.priority = priority;
+            this.issueTime = issueTime;
+            this.ticketNumber = ticketNumber;
+            this.weight = weight;
+        }
+
+        void update() {
+            size = 1 + TicketRank.size(left) + TicketRank.size(right);
+        }
+    }
+}
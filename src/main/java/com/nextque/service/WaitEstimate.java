@@ -0,0 +1,32 @@
+package com.nextque.service;
+
+/** The expected wait of a ticket: how many tickets will be called before it and roughly how long that takes. */
+public final class WaitEstimate {
+    private final int ticketsAhead;
+    private final long seconds;
+
+    WaitEstimate(int ticketsAhead, long seconds) {
+        this.ticketsAhead = ticketsAhead;
+        this.seconds = seconds;
+    }
+
+    public int getTicketsAhead() {
+        return ticketsAhead;
+    }
+
+    public long getSeconds() {
+        return seconds;
+    }
+
+    /** The wait rounded up to whole minutes for people, e.g. "about 25 min". */
+    public String describe() {
+        long minutes = (seconds + 59) / 60;
+        if (minutes <= 1) {
+            return "about a minute";
+        }
+        if (minutes < 60) {
+            return "about " + minutes + " min";
+        }
+        return String.format("about %d h %02d min", minutes / 60, minutes % 60);
+    }
+}
@@ -0,0 +1,46 @@
+package com.nextque.service;
+
+import com.nextque.model.ServiceType;
+import com.nextque.stats.QueueStatistics;
+import com.nextque.stats.StatsWindow;
+import com.nextque.stats.TimeDistribution;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Turns a position in a service queue into an expected wait. For each service it caches how
+ * long one queue position takes: the mean service time over the last hour (else today, else a
+ * configured default) divided by the agents working that service. The cache is refreshed when
+ * the service's tickets are called or completed and on every database sync, so an estimate is a
+ * single lookup. A ticket with {@code n} tickets ahead is expected to wait {@code n + 0.5}
+ * positions, the half being what remains of the customers at the counters.
+ */
+class WaitTimeEstimator {
+    private static final long ACTIVE_AGENT_SECONDS = 15 * 60;
+
+    private final QueueStatistics statistics;
+    private final double defaultServiceSeconds;
+    private final ConcurrentMap<String, Double> secondsPerPosition = new ConcurrentHashMap<>();
+
+    WaitTimeEstimator(QueueStatistics statistics, double defaultServiceSeconds) {
+        this.statistics = statistics;
+        this.defaultServiceSeconds = defaultServiceSeconds;
+    }
+
+    void refresh(ServiceType serviceType, int servingNow) {
+        TimeDistribution serviceTimes = statistics.forService(serviceType, StatsWindow.LAST_HOUR).getServiceTimes();
+        if (serviceTimes.isEmpty()) {
+            serviceTimes = statistics.forService(serviceType, StatsWindow.TODAY).getServiceTimes();
+        }
+        double meanSeconds = serviceTimes.isEmpty() ? defaultServiceSeconds : serviceTimes.getMeanSeconds();
+        int agents = Math.max(1, Math.max(servingNow, statistics.getActiveAgents(serviceType, ACTIVE_AGENT_SECONDS)));
+        secondsPerPosition.put(serviceType.getName(), meanSeconds / agents);
+    }
+
+    WaitEstimate estimate(ServiceType serviceType, int ticketsAhead) {
+        Double perPosition = secondsPerPosition.get(serviceType.getName());
+        double seconds = (ticketsAhead + 0.5) * (perPosition != null ? perPosition : defaultServiceSeconds);
+        return new WaitEstimate(ticketsAhead, Math.round(seconds));
+    }
+}
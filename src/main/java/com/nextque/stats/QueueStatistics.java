@@ -0,0 +1,159 @@
+package com.nextque.stats;
+
+import com.nextque.model.QueueEvent;
+import com.nextque.model.ServiceType;
+import com.nextque.model.Ticket;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming wait-time, service-time and throughput statistics per service and per agent, fed
+ * from ticket lifecycle events. Each service and agent holds a fixed set of
+ * {@link RollingHistogram}s, so memory does not grow with the number of tickets and reading the
+ * statistics never touches the database.
+ */
+public class QueueStatistics {
+    private final Map<String, Tracker> services = new HashMap<>();
+    private final Map<String, Tracker> agents = new HashMap<>();
+
+    /** Records a lifecycle event raised by this engine. */
+    public synchronized void record(QueueEvent event) {
+        Ticket ticket = event.getTicket();
+        if (ticket == null) {
+            return;
+        }
+        if (event.getType() == QueueEvent.Type.TICKET_CALLED) {
+            recordCall(ticket);
+        } else if (event.getType() == QueueEvent.Type.TICKET_COMPLETED) {
+            recordCompletion(ticket);
+        }
+    }
+
+    /**
+     * Records whatever happened to a ticket between {@code before}, the copy this engine knew
+     * (or null), and {@code after}, as read back from the database.
+     */
+    public synchronized void recordChange(Ticket before, Ticket after) {
+        if (after.getCallTime() != null && (before == null || before.getCallTime() == null)) {
+            recordCall(after);
+        }
+        if (after.getStatus() == Ticket.TicketStatus.COMPLETED
+                && (before == null || before.getStatus() != Ticket.TicketStatus.COMPLETED)) {
+            recordCompletion(after);
+        }
+    }
+
+    /** Seeds the windows from tickets already in the database, e.g. today's tickets at startup. */
+    public synchronized void recordHistory(List<Ticket> tickets) {
+        for (Ticket ticket : tickets) {
+            recordChange(null, ticket);
+        }
+    }
+
+    public synchronized WindowStats forService(ServiceType serviceType, StatsWindow window) {
+        return snapshot(services.get(serviceType.getName()), window);
+    }
+
+    public synchronized WindowStats forAgent(String agentUsername, StatsWindow window) {
+        return snapshot(agents.get(agentUsername), window);
+    }
+
+    /** How many agents called or completed a ticket of this service in the last {@code withinSeconds}. */
+    public synchronized int getActiveAgents(ServiceType serviceType, long withinSeconds) {
+        Tracker tracker = services.get(serviceType.getName());
+        if (tracker == null) {
+            return 0;
+        }
+        long since = localSecond(LocalDateTime.now()) - withinSeconds;
+        tracker.lastActiveByAgent.values().removeIf(lastActive -> lastActive < since);
+        return tracker.lastActiveByAgent.size();
+    }
+
+    /** The agents with any activity recorded, sorted by username. */
+    public synchronized List<String> getAgents() {
+        List<String> names = new ArrayList<>(agents.keySet());
+        Collections.sort(names);
+        return names;
+    }
+
+    private void recordCall(Ticket ticket) {
+        if (ticket.getIssueTime() == null || ticket.getCallTime() == null) {
+            return;
+        }
+        long at = localSecond(ticket.getCallTime());
+        long waited = Duration.between(ticket.getIssueTime(), ticket.getCallTime()).getSeconds();
+        Tracker service = tracker(services, ticket.getServiceType().getName());
+        service.recordWait(at, waited);
+        if (ticket.getAgentUsername() != null) {
+            service.agentActive(ticket.getAgentUsername(), at);
+            tracker(agents, ticket.getAgentUsername()).recordWait(at, waited);
+        }
+    }
+
+    private void recordCompletion(Ticket ticket) {
+        if (ticket.getServiceStartTime() == null || ticket.getServiceEndTime() == null) {
+            return;
+        }
+        long at = localSecond(ticket.getServiceEndTime());
+        long served = Duration.between(ticket.getServiceStartTime(), ticket.getServiceEndTime()).getSeconds();
+        Tracker service = tracker(services, ticket.getServiceType().getName());
+        service.recordService(at, served);
+        if (ticket.getAgentUsername() != null) {
+            service.agentActive(ticket.getAgentUsername(), at);
+            tracker(agents, ticket.getAgentUsername()).recordService(at, served);
+        }
+    }
+
+    private static Tracker tracker(Map<String, Tracker> trackers, String key) {
+        return trackers.computeIfAbsent(key, k -> new Tracker());
+    }
+
+    private static WindowStats snapshot(Tracker tracker, StatsWindow window) {
+        if (tracker == null) {
+            return WindowStats.EMPTY;
+        }
+        long now = localSecond(LocalDateTime.now());
+        return new WindowStats(tracker.waitTimes.get(window).snapshot(now), tracker.serviceTimes.get(window).snapshot(now));
+    }
+
+    private static long localSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static final class Tracker {
+        final Map<StatsWindow, RollingHistogram> waitTimes = new EnumMap<>(StatsWindow.class);
+        final Map<StatsWindow, RollingHistogram> serviceTimes = new EnumMap<>(StatsWindow.class);
+        final Map<String, Long> lastActiveByAgent = new HashMap<>();
+
+        Tracker() {
+            for (StatsWindow window : StatsWindow.values()) {
+                waitTimes.put(window, new RollingHistogram(window));
+                serviceTimes.put(window, new RollingHistogram(window));
+            }
+        }
+
+        void recordWait(long at, long seconds) {
+            for (RollingHistogram histogram : waitTimes.values()) {
+                histogram.record(at, seconds);
+            }
+        }
+
+        void recordService(long at, long seconds) {
+            for (RollingHistogram histogram : serviceTimes.values()) {
+                histogram.record(at, seconds);
+            }
+        }
+
+        void agentActive(String agentUsername, long at) {
+            lastActiveByAgent.merge(agentUsername, at, Math::max);
+        }
+    }
+}
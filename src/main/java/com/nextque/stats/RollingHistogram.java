@@ -0,0 +1,108 @@
+package com.nextque.stats;
+
+import java.util.Arrays;
+
+/**
+ * Durations in whole seconds over a rolling window, kept as a ring of time slots that each hold
+ * a small log-linear histogram (16 buckets per power of two, so percentiles are within about 6%).
+ * A slot is cleared when the ring comes round to it again, so memory stays fixed however many
+ * tickets pass through. Times are seconds on the local clock, which makes day slots start at
+ * local midnight. Not thread-safe.
+ */
+final class RollingHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final long MAX_SECONDS = (1L << 17) - 1;
+    static final int BUCKET_COUNT = indexFor(MAX_SECONDS) + 1;
+
+    private final StatsWindow window;
+    private final int[] counts;
+    private final long[] slotIds;
+    private final int[] slotCounts;
+    private final long[] slotSums;
+    private final long[] slotFirstSeconds;
+
+    RollingHistogram(StatsWindow window) {
+        this.window = window;
+        this.counts = new int[window.slots * BUCKET_COUNT];
+        this.slotIds = new long[window.slots];
+        this.slotCounts = new int[window.slots];
+        this.slotSums = new long[window.slots];
+        this.slotFirstSeconds = new long[window.slots];
+        Arrays.fill(slotIds, Long.MIN_VALUE);
+    }
+
+    /** Records {@code seconds} as observed at {@code atSecond}; observations older than the ring are dropped. */
+    void record(long atSecond, long seconds) {
+        long slotId = Math.floorDiv(atSecond, window.slotSeconds);
+        int slot = (int) Math.floorMod(slotId, (long) window.slots);
+        if (slotIds[slot] > slotId) {
+            return;
+        }
+        if (slotIds[slot] != slotId) {
+            Arrays.fill(counts, slot * BUCKET_COUNT, (slot + 1) * BUCKET_COUNT, 0);
+            slotIds[slot] = slotId;
+            slotCounts[slot] = 0;
+            slotSums[slot] = 0;
+            slotFirstSeconds[slot] = atSecond;
+        }
+        long value = Math.max(0, Math.min(seconds, MAX_SECONDS));
+        counts[slot * BUCKET_COUNT + indexFor(value)]++;
+        slotCounts[slot]++;
+        slotSums[slot] += value;
+        slotFirstSeconds[slot] = Math.min(slotFirstSeconds[slot], atSecond);
+    }
+
+    TimeDistribution snapshot(long nowSecond) {
+        long currentSlotId = Math.floorDiv(nowSecond, window.slotSeconds);
+        int[] merged = new int[BUCKET_COUNT];
+        long count = 0;
+        long sum = 0;
+        long firstSecond = Long.MAX_VALUE;
+        for (int slot = 0; slot < window.slots; slot++) {
+            long age = currentSlotId - slotIds[slot];
+            if (slotIds[slot] == Long.MIN_VALUE || age < 0 || age >= window.slots) {
+                continue;
+            }
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                merged[i] += counts[slot * BUCKET_COUNT + i];
+            }
+            count += slotCounts[slot];
+            sum += slotSums[slot];
+            firstSecond = Math.min(firstSecond, slotFirstSeconds[slot]);
+        }
+        if (count == 0) {
+            return TimeDistribution.EMPTY;
+        }
+        double coveredHours = Math.max(60, Math.min(window.getLengthSeconds(), nowSecond - firstSecond)) / 3600.0;
+        return new TimeDistribution(count, (double) sum / count, valueAt(merged, count, 0.5), valueAt(merged, count, 0.9),
+                count / coveredHours);
+    }
+
+    private static long valueAt(int[] merged, long count, double quantile) {
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < merged.length; i++) {
+            seen += merged[i];
+            if (seen >= rank) {
+                return (lowestValueAt(i) + highestValueAt(i)) / 2;
+            }
+        }
+        return MAX_SECONDS;
+    }
+
+    static int indexFor(long value) {
+        int shift = 63 - Long.numberOfLeadingZeros(value | SUB_BUCKET_COUNT) - SUB_BUCKET_BITS;
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    private static long lowestValueAt(int index) {
+        int shift = Math.max(0, (index >>> SUB_BUCKET_BITS) - 1);
+        return (long) (index - (shift << SUB_BUCKET_BITS)) << shift;
+    }
+
+    private static long highestValueAt(int index) {
+        int shift = Math.max(0, (index >>> SUB_BUCKET_BITS) - 1);
+        return lowestValueAt(index) + (1L << shift) - 1;
+    }
+}
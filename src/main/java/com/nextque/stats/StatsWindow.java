@@ -0,0 +1,31 @@
+package com.nextque.stats;
+
+/** The rolling windows the statistics are kept for. {@link #TODAY} starts at local midnight. */
+public enum StatsWindow {
+    LAST_15_MINUTES("Last 15 min", 15, 60),
+    LAST_HOUR("Last hour", 12, 300),
+    TODAY("Today", 1, 86_400);
+
+    private final String displayName;
+    final int slots;
+    final long slotSeconds;
+
+    StatsWindow(String displayName, int slots, long slotSeconds) {
+        this.displayName = displayName;
+        this.slots = slots;
+        this.slotSeconds = slotSeconds;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public long getLengthSeconds() {
+        return slots * slotSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
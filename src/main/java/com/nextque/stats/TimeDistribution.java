@@ -0,0 +1,45 @@
+package com.nextque.stats;
+
+/** Summary of the durations recorded in a window, in seconds, and how many were recorded per hour. */
+public final class TimeDistribution {
+    public static final TimeDistribution EMPTY = new TimeDistribution(0, 0.0, 0, 0, 0.0);
+
+    private final long count;
+    private final double meanSeconds;
+    private final long p50Seconds;
+    private final long p90Seconds;
+    private final double perHour;
+
+    TimeDistribution(long count, double meanSeconds, long p50Seconds, long p90Seconds, double perHour) {
+        this.count = count;
+        this.meanSeconds = meanSeconds;
+        this.p50Seconds = p50Seconds;
+        this.p90Seconds = p90Seconds;
+        this.perHour = perHour;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMeanSeconds() {
+        return meanSeconds;
+    }
+
+    public long getP50Seconds() {
+        return p50Seconds;
+    }
+
+    public long getP90Seconds() {
+        return p90Seconds;
+    }
+
+    /** Observations per hour, over the part of the window since the first one. */
+    public double getPerHour() {
+        return perHour;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+}
@@ -0,0 +1,29 @@
+package com.nextque.stats;
+
+/**
+ * Wait and service times for one service or agent over one window. The wait-time distribution
+ * counts tickets called, the service-time distribution tickets completed.
+ */
+public final class WindowStats {
+    public static final WindowStats EMPTY = new WindowStats(TimeDistribution.EMPTY, TimeDistribution.EMPTY);
+
+    private final TimeDistribution waitTimes;
+    private final TimeDistribution serviceTimes;
+
+    WindowStats(TimeDistribution waitTimes, TimeDistribution serviceTimes) {
+        this.waitTimes = waitTimes;
+        this.serviceTimes = serviceTimes;
+    }
+
+    public TimeDistribution getWaitTimes() {
+        return waitTimes;
+    }
+
+    public TimeDistribution getServiceTimes() {
+        return serviceTimes;
+    }
+
+    public double getCompletedPerHour() {
+        return serviceTimes.getPerHour();
+    }
+}
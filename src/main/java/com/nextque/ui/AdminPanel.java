@@ -1,33 +1,44 @@
 package com.nextque.ui;
 
 import com.nextque.db.DatabaseManager;
+import com.nextque.db.TicketQuery;
 import com.nextque.model.Feedback;
+import com.nextque.model.QueueEvent;
 import com.nextque.model.ServiceType;
 import com.nextque.model.Ticket;
 import com.nextque.service.QueueManager;
 
 import javax.swing.*;
+import javax.swing.border.Border;
 import javax.swing.border.EmptyBorder;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.table.TableColumnModel;
-import javax.swing.table.TableRowSorter;
 import javax.swing.table.TableCellRenderer;
 import java.awt.*;
 import java.awt.event.ActionEvent;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.Vector;
-import java.util.regex.Pattern;
 
-public class AdminPanel extends JPanel implements QueueManager.QueueUpdateListener {
+public class AdminPanel extends JPanel implements QueueManager.QueueEventListener {
+    private static final int TICKET_PAGE_SIZE = 200;
+    private static final int SEARCH_DEBOUNCE_MS = 300;
     private final DatabaseManager dbManager;
     private final QueueManager queueManager;
     private JTabbedPane adminTabbedPane;
     private JTable ticketsTable;
-    private DefaultTableModel ticketsTableModel;
+    private TicketTableModel ticketsTableModel;
     private JTextField ticketSearchField;
+    private JComboBox<Ticket.TicketStatus> ticketStatusFilter;
+    private JComboBox<ServiceType> ticketServiceFilter;
+    private JTextField ticketAgentField;
+    private JTextField ticketFromField;
+    private JTextField ticketToField;
+    private boolean updatingServiceFilter;
     private JButton changeTicketPriorityButton;
     private JTable feedbackTable;
-    private DefaultTableModel feedbackTableModel;
+    private FeedbackTableModel feedbackTableModel;
     private JTextField feedbackSearchField;
     private JList<ServiceType> serviceTypeList;
     private DefaultListModel<ServiceType> serviceListModel;
@@ -36,7 +47,7 @@ public class AdminPanel extends JPanel implements QueueManager.QueueUpdateListen
     public AdminPanel(DatabaseManager dbManager, QueueManager queueManager) {
         this.dbManager = dbManager;
         this.queueManager = queueManager;
-        this.queueManager.addQueueUpdateListener(this);
+        this.queueManager.addQueueEventListener(this);
         setLayout(new BorderLayout(10,10));
         setBorder(UITheme.BORDER_PANEL_PADDING);
         setBackground(UITheme.COLOR_BACKGROUND_MAIN);
@@ -53,6 +64,12 @@ public class AdminPanel extends JPanel implements QueueManager.QueueUpdateListen
         adminTabbedPane.addTab("Customer Feedback", UITheme.getIcon("tab_feedback.svg"), createFeedbackPanel());
         adminTabbedPane.addTab("Manage Services", UITheme.getIcon("tab_services.svg"), createServicesPanel());
 
+        adminTabbedPane.addChangeListener(e -> {
+            if (adminTabbedPane.getSelectedIndex() == 1) {
+                loadFeedback();
+            }
+        });
+
         add(adminTabbedPane, BorderLayout.CENTER);
     }
 
@@ -60,10 +77,7 @@ public class AdminPanel extends JPanel implements QueueManager.QueueUpdateListen
         JPanel panel = new CardPanel(new BorderLayout(10, 10));
         panel.setBorder(UITheme.BORDER_SECTION_PADDING);
 
-        ticketsTableModel = new DefaultTableModel(
-            new String[]{"Ticket No", "Service", "Customer", "Priority", "Issued", "Status", "Agent"}, 0){
-            @Override public boolean isCellEditable(int row, int column) { return false; }
-        };
+        ticketsTableModel = new TicketTableModel(dbManager, TICKET_PAGE_SIZE);
         ticketsTable = new JTable(ticketsTableModel);
         setupTableStyles(ticketsTable);
         
@@ -76,9 +90,23 @@ public class AdminPanel extends JPanel implements QueueManager.QueueUpdateListen
         tcm.getColumn(5).setPreferredWidth(90);
         tcm.getColumn(6).setPreferredWidth(90);
 
-        ticketSearchField = new JTextField(25);
+        ticketSearchField = new JTextField(18);
         ticketSearchField.setFont(UITheme.FONT_INPUT);
-        ticketSearchField.putClientProperty(com.formdev.flatlaf.FlatClientProperties.PLACEHOLDER_TEXT, "Search tickets...");
+        ticketSearchField.putClientProperty(com.formdev.flatlaf.FlatClientProperties.PLACEHOLDER_TEXT, "Ticket no. or customer...");
+        ticketStatusFilter = new JComboBox<>();
+        ticketStatusFilter.addItem(null);
+        for (Ticket.TicketStatus status : Ticket.TicketStatus.values()) {
+            ticketStatusFilter.addItem(status);
+        }
+        ticketStatusFilter.setRenderer(new AllOptionRenderer("All statuses"));
+        ticketServiceFilter = new JComboBox<>();
+        ticketServiceFilter.setRenderer(new AllOptionRenderer("All services"));
+        ticketAgentField = new JTextField(8);
+        ticketAgentField.putClientProperty(com.formdev.flatlaf.FlatClientProperties.PLACEHOLDER_TEXT, "Agent");
+        ticketFromField = new JTextField(8);
+        ticketFromField.putClientProperty(com.formdev.flatlaf.FlatClientProperties.PLACEHOLDER_TEXT, "From yyyy-MM-dd");
+        ticketToField = new JTextField(8);
+        ticketToField.putClientProperty(com.formdev.flatlaf.FlatClientProperties.PLACEHOLDER_TEXT, "To yyyy-MM-dd");
         JButton searchBtn = new JButton("Search", UITheme.getIcon("search.svg"));
         UITheme.styleSecondaryButton(searchBtn);
 
@@ -90,17 +118,30 @@ public class AdminPanel extends JPanel implements QueueManager.QueueUpdateListen
         topPanel.setOpaque(false);
         topPanel.add(new JLabel("Filter:"));
         topPanel.add(ticketSearchField);
+        topPanel.add(ticketStatusFilter);
+        topPanel.add(ticketServiceFilter);
+        topPanel.add(ticketAgentField);
+        topPanel.add(ticketFromField);
+        topPanel.add(ticketToField);
         topPanel.add(searchBtn);
         topPanel.add(Box.createHorizontalStrut(10));
         topPanel.add(changeTicketPriorityButton);
 
         panel.add(topPanel, BorderLayout.NORTH);
-        panel.add(new JScrollPane(ticketsTable), BorderLayout.CENTER);
-        
-        searchBtn.addActionListener(this::filterTicketsTable);
-        ticketSearchField.addActionListener(this::filterTicketsTable);
+        panel.add(createPagedScrollPane(ticketsTable, ticketsTableModel), BorderLayout.CENTER);
+
+        Timer debounce = createDebounceTimer(this::applyTicketFilters);
+        for (JTextField field : new JTextField[]{ticketSearchField, ticketAgentField, ticketFromField, ticketToField}) {
+            field.setFont(UITheme.FONT_INPUT);
+            restartOnEdit(field, debounce);
+            field.addActionListener(e -> applyTicketFilters());
+        }
+        ticketStatusFilter.addActionListener(e -> applyTicketFilters());
+        ticketServiceFilter.addActionListener(e -> applyTicketFilters());
+        searchBtn.addActionListener(e -> applyTicketFilters());
         changeTicketPriorityButton.addActionListener(this::changeSelectedTicketPriority);
         ticketsTable.getSelectionModel().addListSelectionListener(e -> updateTicketButtonState());
+        ticketsTableModel.addTableModelListener(e -> updateTicketButtonState());
         
         return panel;
     }
@@ -109,9 +150,7 @@ public class AdminPanel extends JPanel implements QueueManager.QueueUpdateListen
         JPanel panel = new CardPanel(new BorderLayout(10, 10));
         panel.setBorder(UITheme.BORDER_SECTION_PADDING);
 
-        feedbackTableModel = new DefaultTableModel(new String[]{"ID", "Ticket No", "Rating", "Comments", "Submitted"}, 0){
-             @Override public boolean isCellEditable(int row, int column) { return false; }
-        };
+        feedbackTableModel = new FeedbackTableModel(dbManager, TICKET_PAGE_SIZE);
         feedbackTable = new JTable(feedbackTableModel);
         setupTableStyles(feedbackTable);
         feedbackTable.getColumnModel().getColumn(3).setCellRenderer(new TextAreaCellRenderer());
@@ -125,7 +164,7 @@ public class AdminPanel extends JPanel implements QueueManager.QueueUpdateListen
 
         feedbackSearchField = new JTextField(25);
         feedbackSearchField.setFont(UITheme.FONT_INPUT);
-        feedbackSearchField.putClientProperty(com.formdev.flatlaf.FlatClientProperties.PLACEHOLDER_TEXT, "Search feedback...");
+        feedbackSearchField.putClientProperty(com.formdev.flatlaf.FlatClientProperties.PLACEHOLDER_TEXT, "Ticket no...");
         JButton searchBtn = new JButton("Search", UITheme.getIcon("search.svg"));
         UITheme.styleSecondaryButton(searchBtn);
         
@@ -135,10 +174,11 @@ public class AdminPanel extends JPanel implements QueueManager.QueueUpdateListen
         topPanel.add(feedbackSearchField);
         topPanel.add(searchBtn);
         panel.add(topPanel, BorderLayout.NORTH);
-        panel.add(new JScrollPane(feedbackTable), BorderLayout.CENTER);
-        
-        searchBtn.addActionListener(this::filterFeedbackTable);
-        feedbackSearchField.addActionListener(this::filterFeedbackTable);
+        panel.add(createPagedScrollPane(feedbackTable, feedbackTableModel), BorderLayout.CENTER);
+
+        restartOnEdit(feedbackSearchField, createDebounceTimer(this::applyFeedbackFilter));
+        searchBtn.addActionListener(e -> applyFeedbackFilter());
+        feedbackSearchField.addActionListener(e -> applyFeedbackFilter());
 
         return panel;
     }
@@ -247,13 +287,18 @@ public class AdminPanel extends JPanel implements QueueManager.QueueUpdateListen
         if (selectedRow == -1) return;
         
         String ticketNumber = ticketsTableModel.getValueAt(selectedRow, 0).toString();
+        Ticket ticket = queueManager.findTicket(ticketNumber);
+        if (ticket == null || ticket.getStatus() != Ticket.TicketStatus.WAITING) {
+            JOptionPane.showMessageDialog(this, "Priority can only be changed for tickets that are still waiting.", "Update Priority", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
 
         Ticket.PriorityReason newReason = (Ticket.PriorityReason) JOptionPane.showInputDialog(
             this, "Set Priority for Ticket: " + ticketNumber, "Update Priority",
             JOptionPane.PLAIN_MESSAGE, null,
-            Ticket.PriorityReason.values(), Ticket.PriorityReason.NONE);
+            Ticket.PriorityReason.values(), ticket.getPriorityReason());
             
-        if (newReason != null) {
+        if (newReason != null && newReason != ticket.getPriorityReason()) {
             queueManager.updateTicketPriority(ticketNumber, newReason);
         }
     }
@@ -266,53 +311,85 @@ public class AdminPanel extends JPanel implements QueueManager.QueueUpdateListen
 
     private void loadServiceTypesForAdminList() {
         serviceListModel.clear();
-        dbManager.getAllServiceTypes().forEach(serviceListModel::addElement);
+        List<ServiceType> serviceTypes = dbManager.getAllServiceTypes();
+        serviceTypes.forEach(serviceListModel::addElement);
+
+        Object selected = ticketServiceFilter.getSelectedItem();
+        updatingServiceFilter = true;
+        try {
+            ticketServiceFilter.removeAllItems();
+            ticketServiceFilter.addItem(null);
+            serviceTypes.forEach(ticketServiceFilter::addItem);
+            ticketServiceFilter.setSelectedItem(serviceTypes.contains(selected) ? selected : null);
+        } finally {
+            updatingServiceFilter = false;
+        }
     }
 
     private void loadTickets() {
-        ticketsTableModel.setRowCount(0);
-        List<Ticket> tickets = dbManager.getAllTicketsWithResolvedServiceTypes();
-        for (Ticket t : tickets) {
-            Vector<Object> row = new Vector<>();
-            row.add(t.getTicketNumber());
-            row.add(t.getServiceType().getDisplayName());
-            row.add(t.getCustomerName());
-            row.add(t.getPriorityReason().getDisplayName());
-            row.add(t.getFormattedIssueTime());
-            row.add(t.getStatus());
-            row.add(t.getAgentUsername() != null ? t.getAgentUsername() : "---");
-            ticketsTableModel.addRow(row);
-        }
+        ticketsTableModel.reload();
     }
-    
+
     private void loadFeedback() {
-        feedbackTableModel.setRowCount(0);
-        dbManager.getAllFeedback().forEach(f -> {
-            Vector<Object> row = new Vector<>();
-            row.add(f.getId());
-            row.add(f.getTicketNumber());
-            row.add(f.getRating());
-            row.add(f.getComments());
-            row.add(f.getFormattedSubmissionTime());
-            feedbackTableModel.addRow(row);
-        });
+        feedbackTableModel.reload();
     }
-    
-    private void filterTicketsTable(ActionEvent e) {
-        filterTable(ticketsTable, ticketSearchField.getText());
+
+    private void applyTicketFilters() {
+        if (updatingServiceFilter) {
+            return;
+        }
+        LocalDate from = parseDateField(ticketFromField);
+        LocalDate to = parseDateField(ticketToField);
+        ServiceType service = (ServiceType) ticketServiceFilter.getSelectedItem();
+        ticketsTableModel.setQuery(new TicketQuery(
+                ticketSearchField.getText(),
+                (Ticket.TicketStatus) ticketStatusFilter.getSelectedItem(),
+                service != null ? service.getName() : null,
+                ticketAgentField.getText(),
+                from, to));
     }
-    
-    private void filterFeedbackTable(ActionEvent e) {
-        filterTable(feedbackTable, feedbackSearchField.getText());
+
+    private void applyFeedbackFilter() {
+        feedbackTableModel.setTicketPrefix(feedbackSearchField.getText());
     }
 
-    private void filterTable(JTable table, String text) {
-        TableRowSorter<?> sorter = (TableRowSorter<?>) table.getRowSorter();
-        if (text.trim().length() == 0) {
-            sorter.setRowFilter(null);
-        } else {
-            sorter.setRowFilter(RowFilter.regexFilter("(?i)" + Pattern.quote(text.trim())));
+    private LocalDate parseDateField(JTextField field) {
+        String text = field.getText().trim();
+        field.putClientProperty(com.formdev.flatlaf.FlatClientProperties.OUTLINE, null);
+        if (text.isEmpty()) {
+            return null;
         }
+        try {
+            return LocalDate.parse(text);
+        } catch (DateTimeParseException e) {
+            field.putClientProperty(com.formdev.flatlaf.FlatClientProperties.OUTLINE, com.formdev.flatlaf.FlatClientProperties.OUTLINE_ERROR);
+            return null;
+        }
+    }
+
+    private Timer createDebounceTimer(Runnable action) {
+        Timer timer = new Timer(SEARCH_DEBOUNCE_MS, e -> action.run());
+        timer.setRepeats(false);
+        return timer;
+    }
+
+    private void restartOnEdit(JTextField field, Timer debounce) {
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { debounce.restart(); }
+            @Override public void removeUpdate(DocumentEvent e) { debounce.restart(); }
+            @Override public void changedUpdate(DocumentEvent e) { debounce.restart(); }
+        });
+    }
+
+    private JScrollPane createPagedScrollPane(JTable table, PagedTableModel<?> model) {
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            BoundedRangeModel range = ((JScrollBar) e.getAdjustable()).getModel();
+            if (range.getValue() + range.getExtent() >= range.getMaximum() - table.getRowHeight() * 20) {
+                model.loadNextPage();
+            }
+        });
+        return scrollPane;
     }
     
     private void updateTicketButtonState() {
@@ -333,7 +410,6 @@ public class AdminPanel extends JPanel implements QueueManager.QueueUpdateListen
 
     private void setupTableStyles(JTable table) {
         table.setFillsViewportHeight(true);
-        table.setAutoCreateRowSorter(true);
         table.getTableHeader().setFont(UITheme.FONT_TABLE_HEADER);
         table.getTableHeader().setBackground(UITheme.COLOR_PRIMARY_STEEL_BLUE);
         table.getTableHeader().setForeground(UITheme.COLOR_TEXT_ON_PRIMARY);
@@ -346,11 +422,46 @@ public class AdminPanel extends JPanel implements QueueManager.QueueUpdateListen
     }
 
     @Override
-    public void onQueueUpdated() {
-         SwingUtilities.invokeLater(this::loadAllData);
+    public void onQueueEvent(QueueEvent event) {
+        onQueueEvents(List.of(event));
+    }
+
+    @Override
+    public void onQueueEvents(List<QueueEvent> events) {
+        SwingUtilities.invokeLater(() -> {
+            for (QueueEvent event : events) {
+                if (event.getType() == QueueEvent.Type.SERVICES_RECONFIGURED) {
+                    loadServiceTypesForAdminList();
+                    loadTickets();
+                } else {
+                    ticketsTableModel.upsert(event.getTicket());
+                }
+            }
+        });
+    }
+
+    private static class AllOptionRenderer extends DefaultListCellRenderer {
+        private final String allLabel;
+
+        AllOptionRenderer(String allLabel) {
+            this.allLabel = allLabel;
+        }
+
+        @Override
+        public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+            super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+            if (value == null) {
+                setText(allLabel);
+            } else if (value instanceof ServiceType) {
+                setText(((ServiceType) value).getDisplayName());
+            }
+            return this;
+        }
     }
 
     private static class ServiceTypeListCellRenderer extends DefaultListCellRenderer {
+        private static final Border CELL_BORDER = new EmptyBorder(6, 8, 6, 8);
+
         @Override
         public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
             super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
@@ -361,7 +472,7 @@ public class AdminPanel extends JPanel implements QueueManager.QueueUpdateListen
                         "</b> <font color='" + UITheme.COLOR_TEXT_LIGHT_HEX() + "'>(" + st.getName() + ")</font></body></html>");
                 setIcon(UITheme.getIcon("service_item_list.svg"));
             }
-            setBorder(new EmptyBorder(6,8,6,8));
+            setBorder(CELL_BORDER);
             return this;
         }
     }
@@ -1,6 +1,7 @@
 package com.nextque.ui;
 
 import com.nextque.auth.AuthService;
+import com.nextque.model.QueueEvent;
 import com.nextque.model.ServiceType;
 import com.nextque.model.Ticket;
 import com.nextque.model.User;
@@ -14,7 +15,7 @@ import java.awt.*;
 import java.util.List;
 import java.util.Vector;
 
-public class AgentPanel extends JPanel implements QueueManager.QueueUpdateListener {
+public class AgentPanel extends JPanel implements QueueManager.QueueEventListener {
     private final QueueManager queueManager;
     private final AuthService authService;
     private User currentAgent;
@@ -32,7 +33,7 @@ public class AgentPanel extends JPanel implements QueueManager.QueueUpdateListen
         this.queueManager = queueManager;
         this.authService = authService;
         this.currentAgent = authService.getCurrentUser();
-        this.queueManager.addQueueUpdateListener(this);
+        this.queueManager.addQueueEventListener(this);
 
         setBackground(UITheme.COLOR_BACKGROUND_MAIN);
         setBorder(UITheme.BORDER_PANEL_PADDING);
@@ -255,10 +256,34 @@ public class AgentPanel extends JPanel implements QueueManager.QueueUpdateListen
     }
 
     @Override
-    public void onQueueUpdated() {
+    public void onQueueEvent(QueueEvent event) {
+        onQueueEvents(List.of(event));
+    }
+
+    @Override
+    public void onQueueEvents(List<QueueEvent> events) {
         SwingUtilities.invokeLater(() -> {
-            loadServiceTypes();
-            updateQueueDisplay();
+            boolean reconfigured = false;
+            boolean relevant = false;
+            for (QueueEvent event : events) {
+                if (event.getType() == QueueEvent.Type.SERVICES_RECONFIGURED) {
+                    reconfigured = true;
+                } else if (affectsThisAgent(event)) {
+                    relevant = true;
+                }
+            }
+            if (reconfigured) {
+                loadServiceTypes();
+            }
+            if (reconfigured || relevant) {
+                updateQueueDisplay();
+            }
         });
     }
+
+    private boolean affectsThisAgent(QueueEvent event) {
+        Ticket ticket = event.getTicket();
+        return event.getServiceType().equals(serviceTypeComboBox.getSelectedItem())
+                || (ticket.getAgentUsername() != null && ticket.getAgentUsername().equals(currentAgent.getUsername()));
+    }
 }
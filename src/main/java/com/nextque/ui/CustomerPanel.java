@@ -1,8 +1,10 @@
 package com.nextque.ui;
 
+import com.nextque.model.QueueEvent;
 import com.nextque.model.ServiceType;
 import com.nextque.model.Ticket;
 import com.nextque.service.QueueManager;
+import com.nextque.service.WaitEstimate;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
@@ -10,7 +12,7 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.util.List;
 
-public class CustomerPanel extends JPanel implements QueueManager.QueueUpdateListener {
+public class CustomerPanel extends JPanel implements QueueManager.QueueEventListener {
     private final QueueManager queueManager;
     private JComboBox<ServiceType> serviceTypeComboBox;
     private JTextField customerNameField;
@@ -21,7 +23,7 @@ public class CustomerPanel extends JPanel implements QueueManager.QueueUpdateLis
 
     public CustomerPanel(QueueManager queueManager) {
         this.queueManager = queueManager;
-        this.queueManager.addQueueUpdateListener(this);
+        this.queueManager.addQueueEventListener(this);
 
         setBackground(UITheme.COLOR_BACKGROUND_MAIN);
         setBorder(new EmptyBorder(20, 40, 30, 40));
@@ -183,6 +185,11 @@ public class CustomerPanel extends JPanel implements QueueManager.QueueUpdateLis
                 return;
             }
 
+            WaitEstimate estimate = queueManager.estimateWait(newTicket.getTicketNumber());
+            String waitInfo = (estimate != null) ?
+                    "<br>Estimated wait: <span style='font-weight: bold;'>" + estimate.describe() + "</span> (" +
+                    (estimate.getTicketsAhead() == 1 ? "1 ticket" : estimate.getTicketsAhead() + " tickets") + " ahead of you)" : "";
+
             String priorityInfo = (selectedReason != Ticket.PriorityReason.NONE) ?
                     "<br>Priority Status: <span style='font-weight: bold; color: " + UITheme.COLOR_ACCENT_GOLD_HEX() + ";'>" + selectedReason.getDisplayName() + "</span>" : "";
 
@@ -192,7 +199,8 @@ public class CustomerPanel extends JPanel implements QueueManager.QueueUpdateLis
                     "Your Ticket Number:<br><strong style='font-size: 28px; color: " + UITheme.COLOR_PRIMARY_STEEL_BLUE_HEX() + ";'>%s</strong><br>" +
                     "Service: <span style='font-weight: bold;'>%s</span>" +
                     priorityInfo +
-                    "<br>Issued at: <span style='font-weight: bold;'>%s</span><br><br>" +
+                    "<br>Issued at: <span style='font-weight: bold;'>%s</span>" +
+                    waitInfo + "<br><br>" +
                     "Please wait for your number to be called.</div></html>",
                     newTicket.getTicketNumber(),
                     newTicket.getServiceType().getDisplayName(),
@@ -208,7 +216,9 @@ public class CustomerPanel extends JPanel implements QueueManager.QueueUpdateLis
     }
 
     @Override
-    public void onQueueUpdated() {
-        SwingUtilities.invokeLater(this::loadServiceTypes);
+    public void onQueueEvent(QueueEvent event) {
+        if (event.getType() == QueueEvent.Type.SERVICES_RECONFIGURED) {
+            SwingUtilities.invokeLater(this::loadServiceTypes);
+        }
     }
 }
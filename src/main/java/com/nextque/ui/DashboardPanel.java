@@ -3,19 +3,41 @@ package com.nextque.ui;
 import com.nextque.model.ServiceType;
 import com.nextque.model.Ticket;
 import com.nextque.service.QueueManager;
+import com.nextque.stats.QueueStatistics;
+import com.nextque.stats.StatsWindow;
+import com.nextque.stats.TimeDistribution;
+import com.nextque.stats.WindowStats;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.table.AbstractTableModel;
 import java.awt.*;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public class DashboardPanel extends JPanel implements QueueManager.QueueUpdateListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DashboardPanel.class);
+    private static final int WINDOW_REFRESH_MS = 30_000;
     private final QueueManager queueManager;
     private JPanel statsCardsPanel;
+    private JComboBox<StatsWindow> windowSelector;
+    private final AgentStatsTableModel agentStatsModel = new AgentStatsTableModel();
     private JLabel totalWaitingLabel;
     private JLabel lastUpdatedLabel;
+    private JLabel noServicesLabel;
+    private final Map<ServiceType, ServiceStatCard> serviceCards = new LinkedHashMap<>();
+    private long refreshCount;
+    private long totalRefreshNanos;
+    private long maxRefreshNanos;
 
     public DashboardPanel(QueueManager queueManager) {
         this.queueManager = queueManager;
@@ -28,6 +50,10 @@ public class DashboardPanel extends JPanel implements QueueManager.QueueUpdateLi
         initComponents();
         layoutComponents();
         updateDashboard();
+
+        // Rolling windows move on even when nothing happens in the queues.
+        Timer windowRefresh = new Timer(WINDOW_REFRESH_MS, e -> updateDashboard());
+        windowRefresh.start();
     }
 
     private void initComponents() {
@@ -42,6 +68,15 @@ public class DashboardPanel extends JPanel implements QueueManager.QueueUpdateLi
         lastUpdatedLabel = new JLabel("Last updated: --:--:--", SwingConstants.RIGHT);
         lastUpdatedLabel.setFont(UITheme.FONT_GENERAL_REGULAR);
         lastUpdatedLabel.setForeground(UITheme.COLOR_TEXT_LIGHT);
+
+        noServicesLabel = new JLabel("No services available to display statistics.", SwingConstants.CENTER);
+        noServicesLabel.setFont(UITheme.FONT_TITLE_H3);
+        noServicesLabel.setForeground(UITheme.COLOR_TEXT_LIGHT);
+
+        windowSelector = new JComboBox<>(StatsWindow.values());
+        windowSelector.setSelectedItem(StatsWindow.LAST_HOUR);
+        windowSelector.setFont(UITheme.FONT_GENERAL_REGULAR);
+        windowSelector.addActionListener(e -> updateDashboard());
     }
 
     private void layoutComponents() {
@@ -54,75 +89,240 @@ public class DashboardPanel extends JPanel implements QueueManager.QueueUpdateLi
         titleLabel.setIcon(UITheme.getIcon("dashboard_stats.svg", 32, 32));
         titleLabel.setIconTextGap(10);
         headerPanel.add(titleLabel, BorderLayout.WEST);
-        headerPanel.add(lastUpdatedLabel, BorderLayout.EAST);
+        JPanel headerControls = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+        headerControls.setOpaque(false);
+        headerControls.add(windowSelector);
+        headerControls.add(lastUpdatedLabel);
+        headerPanel.add(headerControls, BorderLayout.EAST);
         add(headerPanel, BorderLayout.NORTH);
 
         JScrollPane scrollPane = new JScrollPane(statsCardsPanel);
         scrollPane.setBorder(BorderFactory.createEmptyBorder());
         scrollPane.getViewport().setBackground(UITheme.COLOR_BACKGROUND_MAIN);
-        add(scrollPane, BorderLayout.CENTER);
+
+        JTable agentTable = new JTable(agentStatsModel);
+        agentTable.setFont(UITheme.FONT_GENERAL_REGULAR);
+        agentTable.setRowHeight(24);
+        agentTable.setFillsViewportHeight(true);
+        JScrollPane agentScrollPane = new JScrollPane(agentTable);
+        agentScrollPane.setPreferredSize(new Dimension(0, 160));
+        agentScrollPane.setBorder(BorderFactory.createTitledBorder("Agents"));
+
+        JPanel centerPanel = new JPanel(new BorderLayout(0, 15));
+        centerPanel.setOpaque(false);
+        centerPanel.add(scrollPane, BorderLayout.CENTER);
+        centerPanel.add(agentScrollPane, BorderLayout.SOUTH);
+        add(centerPanel, BorderLayout.CENTER);
         add(totalWaitingLabel, BorderLayout.SOUTH);
     }
 
     private void updateDashboard() {
-        statsCardsPanel.removeAll();
+        long started = System.nanoTime();
         List<ServiceType> serviceTypes = queueManager.getAvailableServiceTypes();
+        if (!serviceTypes.equals(new ArrayList<>(serviceCards.keySet()))) {
+            rebuildCards(serviceTypes);
+        }
+
+        StatsWindow window = (StatsWindow) windowSelector.getSelectedItem();
+        QueueStatistics statistics = queueManager.getStatistics();
+        Map<ServiceType, List<Ticket>> serving = queueManager.getServingSnapshot();
+        for (Map.Entry<ServiceType, ServiceStatCard> entry : serviceCards.entrySet()) {
+            ServiceType type = entry.getKey();
+            entry.getValue().update(type, queueManager.getWaitingCount(type),
+                    DisplayPanel.formatTicketNumbers(serving.getOrDefault(type, Collections.emptyList())),
+                    statistics.forService(type, window));
+        }
+        agentStatsModel.update(statistics, window);
+
+        setTextIfChanged(totalWaitingLabel, "Total People Waiting Across All Services: " + queueManager.getTotalWaitingCount());
+        lastUpdatedLabel.setText("Last updated: " + LocalTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss")));
+        recordRefreshTime(System.nanoTime() - started);
+    }
+
+    private void rebuildCards(List<ServiceType> serviceTypes) {
+        Map<ServiceType, ServiceStatCard> previous = new LinkedHashMap<>(serviceCards);
+        serviceCards.clear();
+        statsCardsPanel.removeAll();
 
         if (serviceTypes.isEmpty()) {
-            JLabel noServicesLabel = new JLabel("No services available to display statistics.", SwingConstants.CENTER);
-            noServicesLabel.setFont(UITheme.FONT_TITLE_H3);
-            noServicesLabel.setForeground(UITheme.COLOR_TEXT_LIGHT);
             statsCardsPanel.setLayout(new BorderLayout());
             statsCardsPanel.add(noServicesLabel, BorderLayout.CENTER);
         } else {
             int numServices = serviceTypes.size();
             int cols = (numServices <= 1) ? 1 : (numServices <= 4 ? 2 : (numServices <= 9 ? 3 : 4));
             statsCardsPanel.setLayout(new GridLayout(0, cols, 15, 15));
-
             for (ServiceType type : serviceTypes) {
-                statsCardsPanel.add(createServiceStatCard(type));
+                ServiceStatCard card = previous.get(type);
+                if (card == null) {
+                    card = new ServiceStatCard(type);
+                }
+                serviceCards.put(type, card);
+                statsCardsPanel.add(card);
             }
         }
-
-        totalWaitingLabel.setText("Total People Waiting Across All Services: " + queueManager.getTotalWaitingCount());
-        lastUpdatedLabel.setText("Last updated: " + LocalTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss")));
-
         statsCardsPanel.revalidate();
         statsCardsPanel.repaint();
     }
 
-    private JPanel createServiceStatCard(ServiceType type) {
-        CardPanel card = new CardPanel(new BorderLayout(5,5));
-        card.setBorder(new EmptyBorder(12, 12, 12, 12));
+    private void recordRefreshTime(long nanos) {
+        refreshCount++;
+        totalRefreshNanos += nanos;
+        maxRefreshNanos = Math.max(maxRefreshNanos, nanos);
+        LOGGER.debug("Dashboard refresh took {} us on the EDT.", TimeUnit.NANOSECONDS.toMicros(nanos));
+        if (refreshCount % 100 == 0) {
+            LOGGER.info("Dashboard EDT time over {} refreshes: avg {} us, max {} us.", refreshCount,
+                    TimeUnit.NANOSECONDS.toMicros(totalRefreshNanos / refreshCount), TimeUnit.NANOSECONDS.toMicros(maxRefreshNanos));
+        }
+    }
 
-        JLabel serviceNameLabel = new JLabel(type.getDisplayName(), SwingConstants.LEFT);
-        serviceNameLabel.setFont(UITheme.FONT_TITLE_H3);
-        serviceNameLabel.setForeground(UITheme.COLOR_PRIMARY_STEEL_BLUE);
-        serviceNameLabel.setIcon(UITheme.getIcon("service_tag.svg"));
-        serviceNameLabel.setIconTextGap(8);
-        card.add(serviceNameLabel, BorderLayout.NORTH);
+    public long getRefreshCount() {
+        return refreshCount;
+    }
 
-        JPanel detailsPanel = new JPanel(new GridLayout(0, 1, 3, 3));
-        detailsPanel.setOpaque(false);
+    public long getAverageRefreshNanos() {
+        return refreshCount == 0 ? 0 : totalRefreshNanos / refreshCount;
+    }
 
-        int waitingCount = queueManager.getWaitingCount(type);
-        Ticket current = queueManager.getCurrentlyServing(type);
-        String servingInfo = (current != null) ? current.getTicketNumber() : "---";
+    public long getMaxRefreshNanos() {
+        return maxRefreshNanos;
+    }
 
-        detailsPanel.add(createStatLabel("Waiting:", String.valueOf(waitingCount)));
-        detailsPanel.add(createStatLabel("Now Serving:", servingInfo));
+    private static void setTextIfChanged(JLabel label, String text) {
+        if (!text.equals(label.getText())) {
+            label.setText(text);
+        }
+    }
 
-        card.add(detailsPanel, BorderLayout.CENTER);
-        return card;
+    static String formatDuration(long seconds) {
+        if (seconds < 60) {
+            return seconds + "s";
+        }
+        if (seconds < 3600) {
+            return String.format("%dm %02ds", seconds / 60, seconds % 60);
+        }
+        return String.format("%dh %02dm", seconds / 3600, (seconds % 3600) / 60);
     }
 
-    private JLabel createStatLabel(String title, String value) {
-        JLabel label = new JLabel("<html><body style='width: 150px'><b>" + title + "</b> " + value + "</body></html>");
+    private static String formatPercentiles(TimeDistribution distribution) {
+        if (distribution.isEmpty()) {
+            return "---";
+        }
+        return formatDuration(distribution.getP50Seconds()) + " / " + formatDuration(distribution.getP90Seconds());
+    }
+
+    private static JLabel createStatTitle(String title) {
+        JLabel label = new JLabel(title);
+        label.setFont(UITheme.FONT_GENERAL_BOLD);
+        label.setForeground(UITheme.COLOR_TEXT_DARK);
+        return label;
+    }
+
+    private static JLabel createStatValue() {
+        JLabel label = new JLabel("---");
         label.setFont(UITheme.FONT_GENERAL_REGULAR);
         label.setForeground(UITheme.COLOR_TEXT_DARK);
         return label;
     }
 
+    private static final class ServiceStatCard extends CardPanel {
+        private final JLabel serviceNameLabel;
+        private final JLabel waitingValue = createStatValue();
+        private final JLabel servingValue = createStatValue();
+        private final JLabel waitTimeValue = createStatValue();
+        private final JLabel serviceTimeValue = createStatValue();
+        private final JLabel throughputValue = createStatValue();
+
+        ServiceStatCard(ServiceType type) {
+            super(new BorderLayout(5, 5));
+            setBorder(new EmptyBorder(12, 12, 12, 12));
+
+            serviceNameLabel = new JLabel(type.getDisplayName(), SwingConstants.LEFT);
+            serviceNameLabel.setFont(UITheme.FONT_TITLE_H3);
+            serviceNameLabel.setForeground(UITheme.COLOR_PRIMARY_STEEL_BLUE);
+            serviceNameLabel.setIcon(UITheme.getIcon("service_tag.svg"));
+            serviceNameLabel.setIconTextGap(8);
+            add(serviceNameLabel, BorderLayout.NORTH);
+
+            JPanel detailsPanel = new JPanel(new GridLayout(0, 2, 6, 3));
+            detailsPanel.setOpaque(false);
+            detailsPanel.add(createStatTitle("Waiting:"));
+            detailsPanel.add(waitingValue);
+            detailsPanel.add(createStatTitle("Now Serving:"));
+            detailsPanel.add(servingValue);
+            detailsPanel.add(createStatTitle("Wait p50 / p90:"));
+            detailsPanel.add(waitTimeValue);
+            detailsPanel.add(createStatTitle("Service p50 / p90:"));
+            detailsPanel.add(serviceTimeValue);
+            detailsPanel.add(createStatTitle("Served per hour:"));
+            detailsPanel.add(throughputValue);
+            add(detailsPanel, BorderLayout.CENTER);
+        }
+
+        void update(ServiceType type, int waitingCount, String servingInfo, WindowStats stats) {
+            setTextIfChanged(serviceNameLabel, type.getDisplayName());
+            setTextIfChanged(waitingValue, String.valueOf(waitingCount));
+            setTextIfChanged(servingValue, servingInfo);
+            setTextIfChanged(waitTimeValue, formatPercentiles(stats.getWaitTimes()));
+            setTextIfChanged(serviceTimeValue, formatPercentiles(stats.getServiceTimes()));
+            setTextIfChanged(throughputValue, stats.getServiceTimes().isEmpty() ? "---"
+                    : String.format("%.1f", stats.getCompletedPerHour()));
+        }
+    }
+
+    private static final class AgentStatsTableModel extends AbstractTableModel {
+        private static final String[] COLUMNS = {"Agent", "Called", "Completed", "Wait p50 / p90", "Service p50 / p90", "Served per hour"};
+        private final List<String> agents = new ArrayList<>();
+        private final List<WindowStats> stats = new ArrayList<>();
+
+        void update(QueueStatistics statistics, StatsWindow window) {
+            agents.clear();
+            stats.clear();
+            for (String agent : statistics.getAgents()) {
+                WindowStats agentStats = statistics.forAgent(agent, window);
+                if (agentStats.getWaitTimes().isEmpty() && agentStats.getServiceTimes().isEmpty()) {
+                    continue;
+                }
+                agents.add(agent);
+                stats.add(agentStats);
+            }
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return agents.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            WindowStats agentStats = stats.get(row);
+            switch (column) {
+                case 0:
+                    return agents.get(row);
+                case 1:
+                    return agentStats.getWaitTimes().getCount();
+                case 2:
+                    return agentStats.getServiceTimes().getCount();
+                case 3:
+                    return formatPercentiles(agentStats.getWaitTimes());
+                case 4:
+                    return formatPercentiles(agentStats.getServiceTimes());
+                default:
+                    return agentStats.getServiceTimes().isEmpty() ? "---" : String.format("%.1f", agentStats.getCompletedPerHour());
+            }
+        }
+    }
+
     @Override
     public void onQueueUpdated() {
         SwingUtilities.invokeLater(this::updateDashboard);
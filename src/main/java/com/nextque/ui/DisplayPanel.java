@@ -1,5 +1,6 @@
 package com.nextque.ui;
 
+import com.nextque.model.QueueEvent;
 import com.nextque.model.ServiceType;
 import com.nextque.model.Ticket;
 import com.nextque.service.QueueManager;
@@ -9,13 +10,17 @@ import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
 
-public class DisplayPanel extends JPanel implements QueueManager.QueueUpdateListener {
+public class DisplayPanel extends JPanel implements QueueManager.QueueEventListener {
     private final QueueManager queueManager;
     private final Map<ServiceType, JLabel> servingTicketLabels = new HashMap<>();
+    private final Map<ServiceType, JLabel> estimatedWaitLabels = new HashMap<>();
     private JLabel clockLabel;
     private JPanel servicesGridPanel;
     private final CardLayout contentCardLayout = new CardLayout();
@@ -23,7 +28,7 @@ public class DisplayPanel extends JPanel implements QueueManager.QueueUpdateList
 
     public DisplayPanel(QueueManager queueManager) {
         this.queueManager = queueManager;
-        this.queueManager.addQueueUpdateListener(this);
+        this.queueManager.addQueueEventListener(this);
 
         setBackground(UITheme.COLOR_BACKGROUND_MAIN);
         setBorder(UITheme.BORDER_PANEL_PADDING);
@@ -72,6 +77,7 @@ public class DisplayPanel extends JPanel implements QueueManager.QueueUpdateList
 
     private void updateServiceDisplayLayout() {
         servingTicketLabels.clear();
+        estimatedWaitLabels.clear();
         servicesGridPanel.removeAll();
         
         List<ServiceType> serviceTypes = queueManager.getAvailableServiceTypes();
@@ -105,10 +111,16 @@ public class DisplayPanel extends JPanel implements QueueManager.QueueUpdateList
             servingTicketLabel.setFont(ticketNumberFont);
             servingTicketLabel.setForeground(UITheme.COLOR_ACCENT_GOLD);
             
+            JLabel estimatedWaitLabel = new JLabel(" ", SwingConstants.CENTER);
+            estimatedWaitLabel.setFont(UITheme.FONT_GENERAL_REGULAR);
+            estimatedWaitLabel.setForeground(UITheme.COLOR_TEXT_LIGHT);
+
             servingTicketLabels.put(type, servingTicketLabel);
+            estimatedWaitLabels.put(type, estimatedWaitLabel);
 
             serviceCard.add(serviceNameLabel, BorderLayout.NORTH);
             serviceCard.add(servingTicketLabel, BorderLayout.CENTER);
+            serviceCard.add(estimatedWaitLabel, BorderLayout.SOUTH);
             servicesGridPanel.add(serviceCard);
         }
         servicesGridPanel.revalidate();
@@ -133,23 +145,64 @@ public class DisplayPanel extends JPanel implements QueueManager.QueueUpdateList
     }
 
     private void updateDisplayData() {
+        Map<ServiceType, List<Ticket>> serving = queueManager.getServingSnapshot();
         for (Map.Entry<ServiceType, JLabel> entry : servingTicketLabels.entrySet()) {
-            ServiceType type = entry.getKey();
-            JLabel ticketLabel = entry.getValue();
-            Ticket servingTicket = queueManager.getCurrentlyServing(type);
-            ticketLabel.setText(servingTicket != null ? servingTicket.getTicketNumber() : "---");
+            List<Ticket> servingTickets = serving.getOrDefault(entry.getKey(), Collections.emptyList());
+            entry.getValue().setText(formatTicketNumbers(servingTickets));
+            updateEstimatedWait(entry.getKey());
         }
     }
 
+    static String formatTicketNumbers(List<Ticket> tickets) {
+        if (tickets.isEmpty()) {
+            return "---";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Ticket ticket : tickets) {
+            if (sb.length() > 0) {
+                sb.append("  ");
+            }
+            sb.append(ticket.getTicketNumber());
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void onQueueEvent(QueueEvent event) {
+        onQueueEvents(List.of(event));
+    }
+
     @Override
-    public void onQueueUpdated() {
-        SwingUtilities.invokeLater(() -> {
-            boolean layoutNeedsUpdate = servingTicketLabels.size() != queueManager.getAvailableServiceTypes().size();
-            if (layoutNeedsUpdate) {
-                updateServiceDisplayLayout();
-            } else {
-                updateDisplayData();
+    public void onQueueEvents(List<QueueEvent> events) {
+        boolean reconfigured = false;
+        Set<ServiceType> changedServices = new HashSet<>();
+        for (QueueEvent event : events) {
+            QueueEvent.Type type = event.getType();
+            if (type == QueueEvent.Type.SERVICES_RECONFIGURED) {
+                reconfigured = true;
+            } else if (event.getServiceType() != null) {
+                changedServices.add(event.getServiceType());
             }
-        });
+        }
+        if (reconfigured) {
+            SwingUtilities.invokeLater(this::updateServiceDisplayLayout);
+        } else if (!changedServices.isEmpty()) {
+            SwingUtilities.invokeLater(() -> changedServices.forEach(this::updateServingTicket));
+        }
+    }
+
+    private void updateServingTicket(ServiceType type) {
+        JLabel ticketLabel = servingTicketLabels.get(type);
+        if (ticketLabel != null) {
+            ticketLabel.setText(formatTicketNumbers(queueManager.getServingTickets(type)));
+        }
+        updateEstimatedWait(type);
+    }
+
+    private void updateEstimatedWait(ServiceType type) {
+        JLabel waitLabel = estimatedWaitLabels.get(type);
+        if (waitLabel != null) {
+            waitLabel.setText("Estimated wait: " + queueManager.estimateWaitForNewTicket(type, Ticket.PriorityReason.NONE).describe());
+        }
     }
 }
@@ -0,0 +1,60 @@
+package com.nextque.ui;
+
+import com.nextque.db.DatabaseManager;
+import com.nextque.model.Feedback;
+
+import java.util.Comparator;
+import java.util.List;
+
+public class FeedbackTableModel extends PagedTableModel<Feedback> {
+    private static final String[] COLUMNS = {"ID", "Ticket No", "Rating", "Comments", "Submitted"};
+    private static final Comparator<Feedback> NEWEST_FIRST = Comparator
+            .comparing(Feedback::getSubmissionTime, Comparator.reverseOrder())
+            .thenComparing(Feedback::getId, Comparator.reverseOrder());
+
+    private final DatabaseManager dbManager;
+    private volatile String ticketPrefix = "";
+
+    public FeedbackTableModel(DatabaseManager dbManager, int pageSize) {
+        super(COLUMNS, pageSize);
+        this.dbManager = dbManager;
+    }
+
+    public void setTicketPrefix(String ticketPrefix) {
+        String next = ticketPrefix != null ? ticketPrefix.trim() : "";
+        if (!next.equals(this.ticketPrefix)) {
+            this.ticketPrefix = next;
+            reload();
+        }
+    }
+
+    @Override
+    protected List<Feedback> fetchPage(Feedback after, int limit) {
+        if (after == null) {
+            return dbManager.searchFeedback(ticketPrefix, null, 0, limit);
+        }
+        return dbManager.searchFeedback(ticketPrefix, after.getSubmissionTime(), after.getId(), limit);
+    }
+
+    @Override
+    protected String keyOf(Feedback feedback) {
+        return String.valueOf(feedback.getId());
+    }
+
+    @Override
+    protected Comparator<Feedback> rowOrder() {
+        return NEWEST_FIRST;
+    }
+
+    @Override
+    protected Object valueAt(Feedback f, int column) {
+        switch (column) {
+            case 0: return f.getId();
+            case 1: return f.getTicketNumber();
+            case 2: return f.getRating();
+            case 3: return f.getComments();
+            case 4: return f.getFormattedSubmissionTime();
+            default: return null;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.nextque.ui;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Table model that loads its rows from the database one page at a time, on a background
+ * worker, as the user scrolls. Rows are kept in the order defined by {@link #rowOrder()} and
+ * each page is fetched after the last loaded row (keyset pagination), so loading the next page
+ * costs the same no matter how much history is already on screen.
+ * All methods except {@link #fetchPage} must be called on the EDT.
+ */
+public abstract class PagedTableModel<T> extends AbstractTableModel {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PagedTableModel.class);
+
+    private final String[] columnNames;
+    private final int pageSize;
+    private final List<T> rows = new ArrayList<>();
+    private final Map<String, T> rowsByKey = new HashMap<>();
+    private boolean loading;
+    private boolean exhausted;
+    private int generation;
+
+    protected PagedTableModel(String[] columnNames, int pageSize) {
+        this.columnNames = columnNames.clone();
+        this.pageSize = Math.max(1, pageSize);
+    }
+
+    /** Runs on a background thread. Returns up to {@code limit} rows that sort after {@code after}. */
+    protected abstract List<T> fetchPage(T after, int limit) throws Exception;
+
+    protected abstract String keyOf(T row);
+
+    protected abstract Comparator<T> rowOrder();
+
+    protected abstract Object valueAt(T row, int column);
+
+    /** Whether a row pushed through {@link #upsert} belongs in this model, e.g. under the current filter. */
+    protected boolean accepts(T row) {
+        return true;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        return valueAt(rows.get(rowIndex), columnIndex);
+    }
+
+    public T getRow(int rowIndex) {
+        return rows.get(rowIndex);
+    }
+
+    public boolean isExhausted() {
+        return exhausted;
+    }
+
+    public boolean isLoading() {
+        return loading;
+    }
+
+    public void reload() {
+        generation++;
+        rows.clear();
+        rowsByKey.clear();
+        exhausted = false;
+        loading = false;
+        fireTableDataChanged();
+        loadNextPage();
+    }
+
+    public void loadNextPage() {
+        if (loading || exhausted) {
+            return;
+        }
+        loading = true;
+        int requestGeneration = generation;
+        T after = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+        new SwingWorker<List<T>, Void>() {
+            @Override
+            protected List<T> doInBackground() throws Exception {
+                return fetchPage(after, pageSize);
+            }
+
+            @Override
+            protected void done() {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                loading = false;
+                try {
+                    appendPage(get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    LOGGER.error("Failed to load table page: {}", e.getCause().getMessage(), e.getCause());
+                }
+            }
+        }.execute();
+    }
+
+    private void appendPage(List<T> page) {
+        if (page.size() < pageSize) {
+            exhausted = true;
+        }
+        int first = rows.size();
+        for (T row : page) {
+            if (!rowsByKey.containsKey(keyOf(row))) {
+                rowsByKey.put(keyOf(row), row);
+                rows.add(row);
+            }
+        }
+        if (rows.size() > first) {
+            fireTableRowsInserted(first, rows.size() - 1);
+        }
+    }
+
+    /**
+     * Inserts or refreshes a single row in place. Rows that would sort below the last loaded
+     * page are ignored while more pages remain; they will arrive with the page that contains them.
+     */
+    public void upsert(T row) {
+        String key = keyOf(row);
+        T existing = rowsByKey.get(key);
+        if (!accepts(row)) {
+            if (existing != null) {
+                remove(existing, Collections.binarySearch(rows, existing, rowOrder()));
+            }
+            return;
+        }
+        if (existing != null) {
+            int index = Collections.binarySearch(rows, existing, rowOrder());
+            if (index >= 0 && rowOrder().compare(existing, row) == 0) {
+                rows.set(index, row);
+                rowsByKey.put(key, row);
+                fireTableRowsUpdated(index, index);
+                return;
+            }
+            remove(existing, index);
+        }
+        int insertAt = Collections.binarySearch(rows, row, rowOrder());
+        if (insertAt < 0) {
+            insertAt = -insertAt - 1;
+        }
+        if (insertAt == rows.size() && !exhausted) {
+            return;
+        }
+        rows.add(insertAt, row);
+        rowsByKey.put(key, row);
+        fireTableRowsInserted(insertAt, insertAt);
+    }
+
+    private void remove(T existing, int index) {
+        if (index < 0) {
+            index = rows.indexOf(existing);
+        }
+        rowsByKey.remove(keyOf(existing));
+        if (index >= 0) {
+            rows.remove(index);
+            fireTableRowsDeleted(index, index);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.nextque.ui;
+
+import com.nextque.db.DatabaseManager;
+import com.nextque.db.TicketQuery;
+import com.nextque.model.Ticket;
+
+import java.util.Comparator;
+import java.util.List;
+
+public class TicketTableModel extends PagedTableModel<Ticket> {
+    private static final String[] COLUMNS = {"Ticket No", "Service", "Customer", "Priority", "Issued", "Status", "Agent"};
+    private static final Comparator<Ticket> NEWEST_FIRST = Comparator
+            .comparing(Ticket::getIssueTime, Comparator.reverseOrder())
+            .thenComparing(Ticket::getTicketNumber, Comparator.reverseOrder());
+
+    private final DatabaseManager dbManager;
+    private volatile TicketQuery query = TicketQuery.ALL;
+
+    public TicketTableModel(DatabaseManager dbManager, int pageSize) {
+        super(COLUMNS, pageSize);
+        this.dbManager = dbManager;
+    }
+
+    public TicketQuery getQuery() {
+        return query;
+    }
+
+    public void setQuery(TicketQuery query) {
+        TicketQuery next = query != null ? query : TicketQuery.ALL;
+        if (!next.equals(this.query)) {
+            this.query = next;
+            reload();
+        }
+    }
+
+    @Override
+    protected List<Ticket> fetchPage(Ticket after, int limit) {
+        TicketQuery current = query;
+        if (after == null) {
+            return dbManager.searchTickets(current, null, null, limit);
+        }
+        return dbManager.searchTickets(current, after.getIssueTime(), after.getTicketNumber(), limit);
+    }
+
+    @Override
+    protected boolean accepts(Ticket ticket) {
+        return query.matches(ticket);
+    }
+
+    @Override
+    protected String keyOf(Ticket ticket) {
+        return ticket.getTicketNumber();
+    }
+
+    @Override
+    protected Comparator<Ticket> rowOrder() {
+        return NEWEST_FIRST;
+    }
+
+    @Override
+    protected Object valueAt(Ticket t, int column) {
+        switch (column) {
+            case 0: return t.getTicketNumber();
+            case 1: return t.getServiceType().getDisplayName();
+            case 2: return t.getCustomerName();
+            case 3: return t.getPriorityReason().getDisplayName();
+            case 4: return t.getFormattedIssueTime();
+            case 5: return t.getStatus();
+            case 6: return t.getAgentUsername() != null ? t.getAgentUsername() : "---";
+            default: return null;
+        }
+    }
+}
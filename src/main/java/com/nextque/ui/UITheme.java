@@ -2,6 +2,9 @@ package com.nextque.ui;
 
 import com.formdev.flatlaf.FlatClientProperties;
 import com.formdev.flatlaf.extras.FlatSVGIcon;
+import com.nextque.utils.AppConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.swing.*;
 import javax.swing.border.Border;
@@ -9,6 +12,11 @@ import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
 import java.awt.*;
 import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class UITheme {
 
@@ -47,23 +55,102 @@ public class UITheme {
     public static final Border BORDER_SECTION_PADDING = new EmptyBorder(15, 20, 15, 20);
     public static final Border BORDER_BUTTON_ROUNDED = new EmptyBorder(10, 20, 10, 20);
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(UITheme.class);
+    private static final int ICON_CACHE_CAPACITY = Math.max(16, AppConfig.getInt("nextque.ui.iconCacheSize", 256));
+    private static final Map<String, Optional<Icon>> ICON_CACHE = new LinkedHashMap<String, Optional<Icon>>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Optional<Icon>> eldest) {
+            return size() > ICON_CACHE_CAPACITY;
+        }
+    };
+    private static final AtomicLong ICON_CACHE_HITS = new AtomicLong();
+    private static final AtomicLong ICON_CACHE_MISSES = new AtomicLong();
+    private static final String[] PRELOAD_ICONS = {
+            "add_circle.svg", "admin_settings.svg", "agent_headset.svg", "agent_profile.svg",
+            "call_next_arrow.svg", "check_circle.svg", "dashboard_chart.svg", "delete_trash.svg",
+            "display_screen.svg", "edit_pencil.svg", "feedback_bubbles.svg", "kiosk.svg", "logout.svg",
+            "play_circle.svg", "priority_star.svg", "search.svg", "service_item_list.svg",
+            "service_tag.svg", "submit_send.svg", "tab_feedback.svg", "tab_services.svg", "tab_tickets.svg"
+    };
+    private static final String[] PRELOAD_HEADER_ICONS = {
+            "dashboard_stats.svg", "display_board.svg", "feedback_chat.svg", "feedback_notification.svg",
+            "feedback_submitted.svg", "login_key.svg", "logout_question.svg", "signup_user_add.svg"
+    };
+
     public static Icon getIcon(String name, int width, int height) {
+        String key = name + '@' + width + 'x' + height;
+        Optional<Icon> cached;
+        synchronized (ICON_CACHE) {
+            cached = ICON_CACHE.get(key);
+        }
+        if (cached != null) {
+            ICON_CACHE_HITS.incrementAndGet();
+            return cached.orElse(null);
+        }
+        ICON_CACHE_MISSES.incrementAndGet();
+        Optional<Icon> loaded = Optional.ofNullable(loadIcon(name, width, height));
+        synchronized (ICON_CACHE) {
+            ICON_CACHE.putIfAbsent(key, loaded);
+        }
+        return loaded.orElse(null);
+    }
+
+    public static Icon getIcon(String name) {
+        return getIcon(name, 16, 16);
+    }
+
+    private static Icon loadIcon(String name, int width, int height) {
         String resourcePath = "/com/nextque/ui/icons/" + name;
         try {
             URL iconUrl = UITheme.class.getResource(resourcePath);
             if (iconUrl != null) {
-                return new FlatSVGIcon(iconUrl).derive(width, height);
+                FlatSVGIcon icon = new FlatSVGIcon(iconUrl).derive(width, height);
+                icon.hasFound();
+                return icon;
             } else {
-                System.err.println("Warning: SVG Icon resource '" + resourcePath + "' not found.");
+                LOGGER.warn("SVG icon resource '{}' not found.", resourcePath);
                 return null;
             }
         } catch (Exception e) {
-            System.err.println("Error loading SVG Icon '" + name + "': " + e.getMessage());
+            LOGGER.warn("Error loading SVG icon '{}': {}", name, e.getMessage());
             return null;
         }
     }
-     public static Icon getIcon(String name) {
-        return getIcon(name, 16, 16);
+
+    /**
+     * Loads the application's icon set into the icon cache on a background thread so the first
+     * screens don't pay for SVG parsing on the EDT.
+     */
+    public static void preloadIconsAsync() {
+        Thread preloader = new Thread(() -> {
+            long started = System.nanoTime();
+            for (String name : PRELOAD_ICONS) {
+                getIcon(name);
+            }
+            for (String name : PRELOAD_HEADER_ICONS) {
+                getIcon(name, 32, 32);
+            }
+            getIcon("ticket_get.svg", 20, 20);
+            getIcon("ticket_confirm.svg", 48, 48);
+            LOGGER.info("Preloaded {} icons in {} ms.", getIconCacheSize(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        }, "nextque-icon-preload");
+        preloader.setDaemon(true);
+        preloader.start();
+    }
+
+    public static long getIconCacheHits() {
+        return ICON_CACHE_HITS.get();
+    }
+
+    public static long getIconCacheMisses() {
+        return ICON_CACHE_MISSES.get();
+    }
+
+    public static int getIconCacheSize() {
+        synchronized (ICON_CACHE) {
+            return ICON_CACHE.size();
+        }
     }
 
     public static Font getFont(String family, int style, int size) {
@@ -0,0 +1,133 @@
+package com.nextque.api;
+
+import com.nextque.db.DatabaseManager;
+import com.nextque.service.QueueManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApiServerTest {
+    private static final String TOKEN = "s3cret-token";
+    private static final String FORM = "application/x-www-form-urlencoded";
+
+    @TempDir
+    Path directory;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private DatabaseManager dbManager;
+    private QueueManager queueManager;
+    private ApiServer server;
+
+    @BeforeEach
+    void setUp() {
+        System.setProperty("nextque.journal.enabled", "false");
+        dbManager = new DatabaseManager("jdbc:sqlite:" + directory.resolve("api.db"), 2);
+        queueManager = new QueueManager(dbManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop();
+        }
+        queueManager.shutdown();
+        dbManager.close();
+        System.clearProperty("nextque.journal.enabled");
+    }
+
+    @Test
+    void readsNeedNoToken() throws Exception {
+        start("127.0.0.1", TOKEN);
+        HttpResponse<String> response = get("/api/counts");
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("\"totalWaiting\":0"), response.body());
+    }
+
+    @Test
+    void changesNeedTheConfiguredToken() throws Exception {
+        start("127.0.0.1", TOKEN);
+        assertEquals(401, post("/api/tickets", "service=INQUIRY", null).statusCode());
+        assertEquals(401, post("/api/tickets", "service=INQUIRY", "wrong-token").statusCode());
+        assertEquals(401, post("/api/tickets", "service=INQUIRY", TOKEN + "x").statusCode());
+
+        HttpResponse<String> issued = post("/api/tickets", "service=INQUIRY&customerName=Ana", TOKEN);
+        assertEquals(201, issued.statusCode());
+        assertTrue(issued.body().contains("\"customerName\":\"Ana\""), issued.body());
+        assertEquals(1, queueManager.getTotalWaitingCount());
+    }
+
+    @Test
+    void loopbackServerAcceptsChangesWithoutAToken() throws Exception {
+        start("127.0.0.1", null);
+        assertEquals(201, post("/api/tickets", "service=INQUIRY", null).statusCode());
+    }
+
+    @Test
+    void refusesChangesOnANetworkAddressWithoutAToken() throws Exception {
+        start("0.0.0.0", "");
+        HttpResponse<String> response = post("/api/tickets", "service=INQUIRY", null);
+        assertEquals(403, response.statusCode());
+        assertTrue(response.body().contains("nextque.api.token"), response.body());
+        assertEquals(0, queueManager.getTotalWaitingCount());
+        assertEquals(200, get("/api/services").statusCode());
+    }
+
+    @Test
+    void answersMalformedRequestsWithClientErrors() throws Exception {
+        start("127.0.0.1", TOKEN);
+        assertEquals(400, post("/api/tickets", "service=%zz", TOKEN).statusCode());
+        assertEquals(400, post("/api/tickets", "customerName=Ana", TOKEN).statusCode());
+        assertEquals(400, post("/api/tickets", "service=INQUIRY&priority=VIP", TOKEN).statusCode());
+        assertEquals(404, post("/api/tickets", "service=NO_SUCH_SERVICE", TOKEN).statusCode());
+        assertEquals(404, get("/api/tickets/Z-999").statusCode());
+        assertEquals(404, get("/api/nothing/here").statusCode());
+        assertEquals(0, queueManager.getTotalWaitingCount());
+    }
+
+    @Test
+    void rejectsOversizedBodiesAndUnknownMethods() throws Exception {
+        start("127.0.0.1", TOKEN);
+        String body = "service=INQUIRY&customerName=" + "a".repeat(20_000);
+        HttpResponse<String> tooLarge = post("/api/tickets", body, TOKEN);
+        assertEquals(413, tooLarge.statusCode());
+        assertEquals(0, queueManager.getTotalWaitingCount());
+
+        HttpRequest delete = HttpRequest.newBuilder(uri("/api/tickets/A-001"))
+                .header("Authorization", "Bearer " + TOKEN).DELETE().build();
+        assertEquals(405, client.send(delete, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    private void start(String host, String token) throws IOException {
+        server = new ApiServer(queueManager, dbManager, host, 0, 2, 16, token);
+        server.start();
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String form, String token) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", FORM)
+                .POST(HttpRequest.BodyPublishers.ofString(form));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.getPort() + path);
+    }
+}
@@ -0,0 +1,105 @@
+package com.nextque.db;
+
+import com.nextque.model.ServiceType;
+import com.nextque.model.Ticket;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatabaseManagerTest {
+    private static final ServiceType SERVICE = new ServiceType("INQUIRY", "General Inquiry");
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 8, 0);
+
+    @TempDir
+    Path directory;
+
+    private DatabaseManager db;
+
+    @BeforeEach
+    void setUp() {
+        db = new DatabaseManager("jdbc:sqlite:" + directory.resolve("test.db"), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.close();
+    }
+
+    @Test
+    void highestTicketNumberComesFromTheNewestTickets() throws SQLException {
+        assertEquals(0, db.getHighestTicketNumberSuffix());
+
+        List<Ticket> tickets = new ArrayList<>();
+        for (int i = 1; i <= 1_500; i++) {
+            tickets.add(ticket(String.format("INQ-%04d", i), i));
+        }
+        tickets.add(ticket("WALKIN", 1_501));
+        db.persistTicketStates(tickets);
+
+        assertEquals(1_500, db.getHighestTicketNumberSuffix());
+    }
+
+    @Test
+    void refusesToOverwriteATicketThatOnlySharesTheNumber() throws SQLException {
+        Ticket original = ticket("INQ-0001", 0);
+        assertTrue(db.persistTicketStates(List.of(original)).isEmpty());
+
+        original.setStatus(Ticket.TicketStatus.COMPLETED);
+        Ticket other = ticket("INQ-0001", 30);
+        Ticket fresh = ticket("INQ-0002", 31);
+        assertEquals(Set.of("INQ-0001"), db.persistTicketStates(List.of(other, fresh)));
+        assertEquals(Set.of(), db.persistTicketStates(List.of(original)));
+
+        List<Ticket> stored = db.getTicketsByStatus(Ticket.TicketStatus.COMPLETED);
+        assertEquals(1, stored.size());
+        assertEquals(START, stored.get(0).getIssueTime());
+        assertEquals(1, db.getTicketsByStatus(Ticket.TicketStatus.WAITING).size());
+    }
+
+    @Test
+    void searchMatchesNamePrefixesInAnyCase() throws SQLException {
+        List<Ticket> tickets = List.of(
+                ticket("INQ-0001", 0, "Zoe Park"),
+                ticket("INQ-0002", 1, "Liza Cruz"),
+                ticket("INQ-0003", 2, "lizzie ong"),
+                ticket("INQ-0004", 3, "Lia Tan"),
+                ticket("INQ-0005", 4, "Z\uffffgate"));
+        db.persistTicketStates(tickets);
+
+        assertEquals(List.of("INQ-0005", "INQ-0001"), search("Z"));
+        assertEquals(List.of("INQ-0003", "INQ-0002"), search("LIZ"));
+        assertEquals(List.of("INQ-0003", "INQ-0002"), search("liz"));
+        assertEquals(List.of("INQ-0005"), search("z\uffff"));
+        assertEquals(List.of("INQ-0005", "INQ-0004", "INQ-0003", "INQ-0002", "INQ-0001"), search("inq-000"));
+    }
+
+    private List<String> search(String text) {
+        List<String> numbers = new ArrayList<>();
+        TicketQuery query = new TicketQuery(text, null, null, null, null, null);
+        for (Ticket ticket : db.searchTickets(query, null, null, 10)) {
+            numbers.add(ticket.getTicketNumber());
+        }
+        return numbers;
+    }
+
+    static Ticket ticket(String number, int minutesAfterStart) {
+        return ticket(number, minutesAfterStart, "Customer");
+    }
+
+    static Ticket ticket(String number, int minutesAfterStart, String customerName) {
+        Ticket ticket = new Ticket(number, SERVICE, customerName, START.plusMinutes(minutesAfterStart), Ticket.PriorityReason.NONE);
+        ticket.setStatus(Ticket.TicketStatus.WAITING);
+        return ticket;
+    }
+}
@@ -0,0 +1,23 @@
+package com.nextque.db;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TicketQueryTest {
+    @Test
+    void upperBoundFollowsEveryStringWithThePrefix() {
+        assertEquals("INR", TicketQuery.upperBoundForPrefix("INQ"));
+        assertEquals("li{", TicketQuery.upperBoundForPrefix("liz"));
+        assertEquals("b", TicketQuery.upperBoundForPrefix("a\uffff\uffff"));
+        assertNull(TicketQuery.upperBoundForPrefix("\uffff"));
+    }
+
+    @Test
+    void namePrefixIsFoldedLikeTheNocaseCollation() {
+        assertEquals("liz", TicketQuery.nocasePrefix("LIZ"));
+        assertEquals("o'brien", TicketQuery.nocasePrefix("O'Brien"));
+        assertEquals("Élise", TicketQuery.nocasePrefix("Élise"));
+    }
+}
@@ -0,0 +1,194 @@
+package com.nextque.db;
+
+import com.nextque.model.QueueEvent;
+import com.nextque.model.ServiceType;
+import com.nextque.model.Ticket;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TicketWriteBehindTest {
+    private static final ServiceType SERVICE = new ServiceType("GENERAL", "General");
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 8, 0);
+    private static final long LONG_FLUSH_MILLIS = 10_000L;
+
+    @TempDir
+    Path directory;
+
+    private RecordingDatabase db;
+    private TicketWriteBehind writer;
+
+    @BeforeEach
+    void setUp() {
+        db = new RecordingDatabase("jdbc:sqlite:" + directory.resolve("test.db"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.close();
+        }
+        db.close();
+    }
+
+    @Test
+    void collapsesABatchToTheLatestStateOfEachTicket() throws InterruptedException {
+        writer = new TicketWriteBehind(db, 100, 4, LONG_FLUSH_MILLIS);
+        Ticket first = ticket("G-001", 0);
+        Ticket second = ticket("G-002", 1);
+        submit(QueueEvent.Type.TICKET_ISSUED, first);
+        submit(QueueEvent.Type.TICKET_ISSUED, second);
+        first.setStatus(Ticket.TicketStatus.SERVING);
+        submit(QueueEvent.Type.TICKET_CALLED, first);
+        first.setStatus(Ticket.TicketStatus.COMPLETED);
+        submit(QueueEvent.Type.TICKET_COMPLETED, first);
+
+        assertTrue(writer.flush(5, TimeUnit.SECONDS));
+        assertEquals(List.of(List.of("G-001:COMPLETED", "G-002:WAITING")), db.batches);
+        assertFalse(writer.hasPendingWrites("G-001"));
+    }
+
+    @Test
+    void writesBatchesInTheOrderTheyWereSubmitted() throws InterruptedException {
+        writer = new TicketWriteBehind(db, 100, 2, LONG_FLUSH_MILLIS);
+        for (int i = 1; i <= 6; i++) {
+            submit(QueueEvent.Type.TICKET_ISSUED, ticket(String.format("G-%03d", i), i));
+        }
+
+        assertTrue(writer.flush(5, TimeUnit.SECONDS));
+        assertEquals(List.of(
+                List.of("G-001:WAITING", "G-002:WAITING"),
+                List.of("G-003:WAITING", "G-004:WAITING"),
+                List.of("G-005:WAITING", "G-006:WAITING")), db.batches);
+    }
+
+    @Test
+    void aNewerStateReplacesOneThatFailedToWrite() throws InterruptedException {
+        writer = new TicketWriteBehind(db, 100, 1, 0);
+        Ticket ticket = ticket("G-001", 0);
+        db.failing = t -> t.getStatus() == Ticket.TicketStatus.WAITING;
+        submit(QueueEvent.Type.TICKET_ISSUED, ticket);
+        awaitTrue(() -> writer.getUnwrittenCount() == 1);
+        assertTrue(writer.hasPendingWrites("G-001"));
+
+        ticket.setStatus(Ticket.TicketStatus.CANCELLED);
+        submit(QueueEvent.Type.TICKET_COMPLETED, ticket);
+
+        assertTrue(writer.flush(5, TimeUnit.SECONDS));
+        assertEquals(0, writer.getUnwrittenCount());
+        assertFalse(writer.hasPendingWrites("G-001"));
+        assertEquals(List.of(List.of("G-001:CANCELLED")), db.batches);
+    }
+
+    @Test
+    void keepsRetryingUntilTheDatabaseAcceptsTheTicket() throws InterruptedException {
+        writer = new TicketWriteBehind(db, 100, 2, LONG_FLUSH_MILLIS);
+        db.failing = t -> t.getTicketNumber().equals("G-002");
+        submit(QueueEvent.Type.TICKET_ISSUED, ticket("G-001", 0));
+        submit(QueueEvent.Type.TICKET_ISSUED, ticket("G-002", 1));
+        awaitTrue(() -> writer.getUnwrittenCount() == 2);
+        submit(QueueEvent.Type.TICKET_ISSUED, ticket("G-003", 2));
+        submit(QueueEvent.Type.TICKET_ISSUED, ticket("G-004", 3));
+
+        // The next retry splits the failed batch, so G-001 gets through while G-002 stays behind.
+        awaitTrue(() -> db.batches.contains(List.of("G-001:WAITING")) && writer.getUnwrittenCount() == 1);
+        assertEquals(List.of("G-003:WAITING", "G-004:WAITING"), db.batches.get(0));
+        assertTrue(writer.hasPendingWrites("G-002"));
+        assertFalse(writer.flush(100, TimeUnit.MILLISECONDS));
+
+        db.failing = t -> false;
+        assertTrue(writer.flush(5, TimeUnit.SECONDS));
+        assertEquals(0, writer.getUnwrittenCount());
+        assertFalse(writer.hasPendingWrites("G-002"));
+        assertEquals(List.of("G-002:WAITING"), db.batches.get(db.batches.size() - 1));
+    }
+
+    @Test
+    void keepsTicketsTheDatabaseRefusesPendingAndCountsThem() throws InterruptedException {
+        writer = new TicketWriteBehind(db, 100, 2, LONG_FLUSH_MILLIS);
+        db.taken = t -> t.getTicketNumber().equals("G-002");
+        submit(QueueEvent.Type.TICKET_ISSUED, ticket("G-001", 0));
+        submit(QueueEvent.Type.TICKET_ISSUED, ticket("G-002", 1));
+
+        assertFalse(writer.flush(500, TimeUnit.MILLISECONDS));
+        assertEquals(List.of("G-001:WAITING"), db.batches.get(0));
+        assertFalse(writer.hasPendingWrites("G-001"));
+        assertTrue(writer.hasPendingWrites("G-002"));
+        assertEquals(1, writer.getUnwrittenCount());
+        assertEquals(1, writer.getRejectedCount());
+
+        db.taken = t -> false;
+        assertTrue(writer.flush(5, TimeUnit.SECONDS));
+        assertEquals(0, writer.getUnwrittenCount());
+        assertFalse(writer.hasPendingWrites("G-002"));
+        assertEquals(List.of("G-002:WAITING"), db.batches.get(db.batches.size() - 1));
+    }
+
+    private void submit(QueueEvent.Type type, Ticket ticket) {
+        writer.submit(QueueEvent.forTicket(type, ticket));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 10 seconds");
+            Thread.sleep(10);
+        }
+    }
+
+    private static Ticket ticket(String number, int minutesAfterStart) {
+        Ticket ticket = new Ticket(number, SERVICE, "Customer", START.plusMinutes(minutesAfterStart), Ticket.PriorityReason.NONE);
+        ticket.setStatus(Ticket.TicketStatus.WAITING);
+        return ticket;
+    }
+
+    /**
+     * Records each committed batch instead of writing it. Fails any batch holding a {@code failing}
+     * ticket and refuses the {@code taken} ones, as a number collision does.
+     */
+    private static final class RecordingDatabase extends DatabaseManager {
+        final List<List<String>> batches = new CopyOnWriteArrayList<>();
+        volatile Predicate<Ticket> failing = t -> false;
+        volatile Predicate<Ticket> taken = t -> false;
+
+        RecordingDatabase(String url) {
+            super(url, 1);
+        }
+
+        @Override
+        public Set<String> persistTicketStates(Collection<Ticket> tickets) throws SQLException {
+            List<String> batch = new ArrayList<>();
+            Set<String> refused = new LinkedHashSet<>();
+            for (Ticket ticket : tickets) {
+                if (failing.test(ticket)) {
+                    throw new SQLException("constraint failed for " + ticket.getTicketNumber());
+                }
+                if (taken.test(ticket)) {
+                    refused.add(ticket.getTicketNumber());
+                } else {
+                    batch.add(ticket.getTicketNumber() + ":" + ticket.getStatus());
+                }
+            }
+            batches.add(batch);
+            return refused;
+        }
+    }
+}
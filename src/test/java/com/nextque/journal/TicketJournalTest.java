@@ -0,0 +1,219 @@
+package com.nextque.journal;
+
+import com.nextque.model.QueueEvent;
+import com.nextque.model.ServiceType;
+import com.nextque.model.Ticket;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TicketJournalTest {
+    private static final ServiceType SERVICE = new ServiceType("GENERAL", "General");
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 8, 0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversNothingFromAnEmptyDirectory() throws IOException {
+        try (TicketJournal journal = open()) {
+            JournalRecovery recovery = journal.recover();
+            assertTrue(recovery.isEmpty());
+            assertTrue(recovery.getOpenTickets().isEmpty());
+            assertEquals(0, journal.getLastSequence());
+        }
+    }
+
+    @Test
+    void replaysRecordsAndHandsThemDownstreamAgain() throws IOException {
+        Ticket first = ticket("G-001", 0);
+        Ticket second = ticket("G-002", 1);
+        try (TicketJournal journal = openRecovered()) {
+            journal.append(QueueEvent.forTicket(QueueEvent.Type.TICKET_ISSUED, first));
+            journal.append(QueueEvent.forTicket(QueueEvent.Type.TICKET_ISSUED, second));
+            first.setStatus(Ticket.TicketStatus.COMPLETED);
+            journal.append(QueueEvent.forTicket(QueueEvent.Type.TICKET_COMPLETED, first));
+        }
+
+        List<QueueEvent> downstream = new ArrayList<>();
+        try (TicketJournal journal = TicketJournal.open(directory, 0, downstream::add)) {
+            JournalRecovery recovery = journal.recover();
+            assertFalse(recovery.isEmpty());
+            assertEquals(List.of("G-002"), numbers(recovery));
+            assertEquals(3, recovery.getReplayedEvents().size());
+            assertEquals(2, recovery.getHighestTicketNumber());
+            assertEquals(3, journal.getLastSequence());
+            assertEquals(recovery.getReplayedEvents(), downstream);
+        }
+    }
+
+    @Test
+    void truncatesATornRecordAtTheEndOfTheLog() throws IOException {
+        long validSize;
+        try (TicketJournal journal = openRecovered()) {
+            journal.append(QueueEvent.forTicket(QueueEvent.Type.TICKET_ISSUED, ticket("G-001", 0)));
+            journal.append(QueueEvent.forTicket(QueueEvent.Type.TICKET_ISSUED, ticket("G-002", 1)));
+            validSize = Files.size(onlySegment());
+        }
+        Path segment = onlySegment();
+        // A header promising more payload than made it to disk, as a crash mid-write leaves it.
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 100, 1, 2, 3, 4, 5, 6}));
+        }
+
+        try (TicketJournal journal = open()) {
+            JournalRecovery recovery = journal.recover();
+            assertEquals(List.of("G-001", "G-002"), numbers(recovery));
+            assertEquals(validSize, Files.size(segment));
+            journal.append(QueueEvent.forTicket(QueueEvent.Type.TICKET_ISSUED, ticket("G-003", 2)));
+        }
+
+        try (TicketJournal journal = open()) {
+            assertEquals(List.of("G-001", "G-002", "G-003"), numbers(journal.recover()));
+            assertEquals(3, journal.getLastSequence());
+        }
+    }
+
+    @Test
+    void dropsEverythingFromTheFirstRecordWithABadChecksum() throws IOException {
+        long firstRecordEnd;
+        try (TicketJournal journal = openRecovered()) {
+            journal.append(QueueEvent.forTicket(QueueEvent.Type.TICKET_ISSUED, ticket("G-001", 0)));
+            firstRecordEnd = Files.size(onlySegment());
+            journal.append(QueueEvent.forTicket(QueueEvent.Type.TICKET_ISSUED, ticket("G-002", 1)));
+            journal.append(QueueEvent.forTicket(QueueEvent.Type.TICKET_ISSUED, ticket("G-003", 2)));
+        }
+        Path segment = onlySegment();
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[(int) firstRecordEnd + 12] ^= 0x40;
+        Files.write(segment, bytes);
+
+        try (TicketJournal journal = open()) {
+            JournalRecovery recovery = journal.recover();
+            assertEquals(List.of("G-001"), numbers(recovery));
+            assertEquals(1, recovery.getReplayedEvents().size());
+            assertEquals(firstRecordEnd, Files.size(segment));
+            assertEquals(1, journal.getLastSequence());
+        }
+    }
+
+    @Test
+    void recoversFromTheSnapshotAndDeletesTheSegmentsItCovers() throws IOException {
+        Ticket open = ticket("G-001", 0);
+        Ticket done = ticket("G-002", 1);
+        try (TicketJournal journal = openRecovered()) {
+            journal.append(QueueEvent.forTicket(QueueEvent.Type.TICKET_ISSUED, open));
+            journal.append(QueueEvent.forTicket(QueueEvent.Type.TICKET_ISSUED, done));
+            done.setStatus(Ticket.TicketStatus.COMPLETED);
+            journal.append(QueueEvent.forTicket(QueueEvent.Type.TICKET_COMPLETED, done));
+            journal.checkpoint(() -> new JournalSnapshot(List.of(open.copy()), 7L, 2), () -> true);
+            journal.append(QueueEvent.forTicket(QueueEvent.Type.TICKET_ISSUED, ticket("G-003", 2)));
+        }
+        assertEquals(List.of("segment-00000000000000000004.log"), files("segment-"));
+
+        try (TicketJournal journal = open()) {
+            JournalRecovery recovery = journal.recover();
+            assertEquals(3, recovery.getSnapshotSequence());
+            assertEquals(7L, recovery.getLastSeenTicketVersion());
+            assertEquals(3, recovery.getHighestTicketNumber());
+            assertEquals(List.of("G-001", "G-003"), numbers(recovery));
+            assertEquals(1, recovery.getReplayedEvents().size());
+        }
+    }
+
+    @Test
+    void keepsSegmentsUntilDownstreamHasCaughtUp() throws IOException {
+        Ticket done = ticket("G-001", 0);
+        try (TicketJournal journal = openRecovered()) {
+            journal.append(QueueEvent.forTicket(QueueEvent.Type.TICKET_ISSUED, done));
+            done.setStatus(Ticket.TicketStatus.COMPLETED);
+            journal.append(QueueEvent.forTicket(QueueEvent.Type.TICKET_COMPLETED, done));
+            journal.checkpoint(() -> new JournalSnapshot(Collections.emptyList(), 0L, 1), () -> false);
+            journal.append(QueueEvent.forTicket(QueueEvent.Type.TICKET_ISSUED, ticket("G-002", 1)));
+        }
+        assertEquals(2, files("segment-").size());
+        assertEquals(1, files("snapshot-").size());
+
+        // The database may never have stored G-001, so it gets every record again, in order.
+        List<QueueEvent> downstream = new ArrayList<>();
+        try (TicketJournal journal = TicketJournal.open(directory, 0, downstream::add)) {
+            JournalRecovery recovery = journal.recover();
+            assertEquals(2, recovery.getSnapshotSequence());
+            assertEquals(List.of("G-002"), numbers(recovery));
+            assertEquals(1, recovery.getReplayedEvents().size());
+            assertEquals(List.of("G-001:WAITING", "G-001:COMPLETED", "G-002:WAITING"), states(downstream));
+
+            journal.checkpoint(() -> new JournalSnapshot(List.copyOf(recovery.getOpenTickets()), 0L, 2), () -> true);
+        }
+
+        downstream.clear();
+        try (TicketJournal journal = TicketJournal.open(directory, 0, downstream::add)) {
+            assertEquals(List.of("G-002"), numbers(journal.recover()));
+            assertTrue(downstream.isEmpty());
+        }
+    }
+
+    @Test
+    void refusesASecondOpenOfTheSameDirectory() throws IOException {
+        try (TicketJournal journal = openRecovered()) {
+            assertThrows(IOException.class, this::open);
+        }
+    }
+
+    private TicketJournal open() throws IOException {
+        return TicketJournal.open(directory, 0, event -> { });
+    }
+
+    private TicketJournal openRecovered() throws IOException {
+        TicketJournal journal = open();
+        journal.recover();
+        return journal;
+    }
+
+    private Path onlySegment() throws IOException {
+        List<String> segments = files("segment-");
+        assertEquals(1, segments.size(), "segments: " + segments);
+        return directory.resolve(segments.get(0));
+    }
+
+    private List<String> files(String prefix) throws IOException {
+        try (Stream<Path> entries = Files.list(directory)) {
+            return entries.map(p -> p.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static List<String> states(List<QueueEvent> events) {
+        return events.stream().map(e -> e.getTicket().getTicketNumber() + ":" + e.getTicket().getStatus())
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> numbers(JournalRecovery recovery) {
+        return recovery.getOpenTickets().stream().map(Ticket::getTicketNumber).collect(Collectors.toList());
+    }
+
+    private static Ticket ticket(String number, int minutesAfterStart) {
+        Ticket ticket = new Ticket(number, SERVICE, "Customer", START.plusMinutes(minutesAfterStart), Ticket.PriorityReason.NONE);
+        ticket.setStatus(Ticket.TicketStatus.WAITING);
+        return ticket;
+    }
+}
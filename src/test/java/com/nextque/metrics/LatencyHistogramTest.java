@@ -0,0 +1,101 @@
+package com.nextque.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+    private static final long MAX_TRACKABLE_NANOS = (1L << 38) - 1;
+
+    @Test
+    void countsSmallValuesExactly() {
+        for (long value = 0; value < 128; value++) {
+            int index = LatencyHistogram.indexFor(value);
+            assertEquals(value, LatencyHistogram.lowestValueAt(index));
+            assertEquals(value, LatencyHistogram.highestValueAt(index));
+        }
+    }
+
+    @Test
+    void bucketsTileTheRangeWithoutGapsOrOverlap() {
+        int top = LatencyHistogram.indexFor(MAX_TRACKABLE_NANOS);
+        assertEquals(0, LatencyHistogram.lowestValueAt(0));
+        for (int index = 0; index < top; index++) {
+            assertEquals(LatencyHistogram.highestValueAt(index) + 1, LatencyHistogram.lowestValueAt(index + 1),
+                    "bucket " + index);
+        }
+        assertEquals(MAX_TRACKABLE_NANOS, LatencyHistogram.highestValueAt(top));
+    }
+
+    @Test
+    void bucketHoldsTheValueWithinOneSixtyFourth() {
+        Random random = new Random(5);
+        for (int i = 0; i < 10_000; i++) {
+            long value = random.nextLong() & MAX_TRACKABLE_NANOS;
+            int index = LatencyHistogram.indexFor(value);
+            long low = LatencyHistogram.lowestValueAt(index);
+            long high = LatencyHistogram.highestValueAt(index);
+            assertTrue(low <= value && value <= high, value + " outside [" + low + ", " + high + "]");
+            assertTrue(high - low <= value / 64, "bucket for " + value + " is " + (high - low + 1) + " wide");
+        }
+    }
+
+    @Test
+    void reportsQuantilesMeanAndMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 1000; micros++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(500_500.0, snapshot.getMeanNanos(), 0.001);
+        assertEquals(1_000_000, snapshot.getMaxNanos());
+        assertWithinOneSixtyFourth(500_000, snapshot.getValueAtQuantile(0.5));
+        assertWithinOneSixtyFourth(990_000, snapshot.getValueAtQuantile(0.99));
+        assertWithinOneSixtyFourth(1_000, snapshot.getValueAtQuantile(0.0));
+        assertEquals(1_000_000, snapshot.getValueAtQuantile(1.0));
+    }
+
+    @Test
+    void clampsNegativeAndOversizedValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(2, snapshot.getCount());
+        assertEquals(MAX_TRACKABLE_NANOS, snapshot.getMaxNanos());
+        assertEquals(MAX_TRACKABLE_NANOS, snapshot.getTotalNanos());
+        assertEquals(0, snapshot.getValueAtQuantile(0.5));
+        assertEquals(MAX_TRACKABLE_NANOS, snapshot.getValueAtQuantile(1.0), MAX_TRACKABLE_NANOS / 64.0);
+    }
+
+    @Test
+    void emptySnapshotReportsZero() {
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0.0, snapshot.getMeanNanos());
+        assertEquals(0, snapshot.getValueAtQuantile(0.99));
+    }
+
+    @Test
+    void snapshotIsNotAffectedByLaterRecords() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000);
+        LatencyHistogram.Snapshot before = histogram.snapshot();
+        histogram.record(2_000_000);
+
+        assertEquals(1, before.getCount());
+        assertEquals(1_000, before.getMaxNanos());
+        assertEquals(2, histogram.snapshot().getCount());
+    }
+
+    private static void assertWithinOneSixtyFourth(long expected, long actual) {
+        assertEquals(expected, actual, expected / 64.0, "expected about " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,63 @@
+package com.nextque.service;
+
+import com.nextque.metrics.MetricsRegistry;
+import com.nextque.model.QueueEvent;
+import com.nextque.model.ServiceType;
+import com.nextque.model.Ticket;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ListenerDispatcherTest {
+    private static final ServiceType SERVICE = new ServiceType("GENERAL", "General");
+
+    @Test
+    void exportsCoalescedAndDroppedEvents() throws InterruptedException {
+        double coalescedBefore = exported("nextque_dispatch_coalesced_total");
+        double droppedBefore = exported("nextque_dispatch_dropped_total");
+
+        CountDownLatch delivering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ListenerDispatcher dispatcher = new ListenerDispatcher(0, 1, 1)) {
+            dispatcher.addListener(event -> {
+                delivering.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            dispatcher.publish(issued("G-001"));
+            assertTrue(delivering.await(5, TimeUnit.SECONDS));
+
+            // The listener is busy, so these wait: G-002 replaces its own earlier event and then
+            // pushes it out of the single pending slot.
+            dispatcher.publish(issued("G-002"));
+            dispatcher.publish(issued("G-002"));
+            dispatcher.publish(issued("G-003"));
+            release.countDown();
+
+            assertEquals(1, dispatcher.getCoalescedCount());
+            assertEquals(1, dispatcher.getDroppedCount());
+        }
+        assertEquals(coalescedBefore + 1, exported("nextque_dispatch_coalesced_total"));
+        assertTrue(exported("nextque_dispatch_dropped_total") >= droppedBefore + 1);
+    }
+
+    private static QueueEvent issued(String number) {
+        Ticket ticket = new Ticket(number, SERVICE, "Customer", LocalDateTime.of(2024, 3, 1, 8, 0), Ticket.PriorityReason.NONE);
+        return QueueEvent.forTicket(QueueEvent.Type.TICKET_ISSUED, ticket);
+    }
+
+    private static double exported(String name) {
+        Matcher matcher = Pattern.compile("(?m)^" + name + " (\\S+)$").matcher(MetricsRegistry.global().toPrometheusText());
+        return matcher.find() ? Double.parseDouble(matcher.group(1)) : 0;
+    }
+}
@@ -0,0 +1,149 @@
+package com.nextque.service;
+
+import com.nextque.model.ServiceType;
+import com.nextque.model.Ticket;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ServiceQueueTest {
+    private static final ServiceType SERVICE = new ServiceType("GENERAL", "General");
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 8, 0);
+    private static final int REGULAR = Ticket.priorityOf(Ticket.PriorityReason.NONE);
+    private static final int PRIORITY = Ticket.priorityOf(Ticket.PriorityReason.PWD);
+
+    @Test
+    void priorityTicketsAreAheadOfEarlierRegularOnes() {
+        ServiceQueue queue = new ServiceQueue();
+        queue.add(ticket("G-001", 0, Ticket.PriorityReason.NONE));
+        queue.add(ticket("G-002", 1, Ticket.PriorityReason.NONE));
+        queue.add(ticket("G-003", 2, Ticket.PriorityReason.SENIOR_CITIZEN));
+        queue.add(ticket("G-004", 3, Ticket.PriorityReason.NONE));
+        queue.add(ticket("G-005", 4, Ticket.PriorityReason.PREGNANT));
+
+        assertEquals(0, queue.positionOf("G-003"));
+        assertEquals(1, queue.positionOf("G-005"));
+        assertEquals(2, queue.positionOf("G-001"));
+        assertEquals(3, queue.positionOf("G-002"));
+        assertEquals(4, queue.positionOf("G-004"));
+        assertEquals(-1, queue.positionOf("G-404"));
+    }
+
+    @Test
+    void newTicketsQueueBehindEveryTicketOfTheirPriorityOrHigher() {
+        ServiceQueue queue = new ServiceQueue();
+        assertEquals(0, queue.countAhead(REGULAR));
+        queue.add(ticket("G-001", 0, Ticket.PriorityReason.NONE));
+        queue.add(ticket("G-002", 1, Ticket.PriorityReason.PWD));
+        queue.add(ticket("G-003", 2, Ticket.PriorityReason.NONE));
+
+        assertEquals(3, queue.countAhead(REGULAR));
+        assertEquals(1, queue.countAhead(PRIORITY));
+
+        queue.reprioritize("G-003", Ticket.PriorityReason.SENIOR_CITIZEN);
+        assertEquals(2, queue.countAhead(PRIORITY));
+        queue.remove("G-002");
+        assertEquals(1, queue.countAhead(PRIORITY));
+        assertEquals(2, queue.countAhead(REGULAR));
+    }
+
+    @Test
+    void positionsFollowReprioritizeRemoveAndPoll() {
+        ServiceQueue queue = new ServiceQueue();
+        queue.add(ticket("G-001", 0, Ticket.PriorityReason.NONE));
+        queue.add(ticket("G-002", 1, Ticket.PriorityReason.NONE));
+        queue.add(ticket("G-003", 2, Ticket.PriorityReason.PWD));
+        queue.add(ticket("G-004", 3, Ticket.PriorityReason.NONE));
+        queue.add(ticket("G-005", 4, Ticket.PriorityReason.PWD));
+
+        queue.reprioritize("G-004", Ticket.PriorityReason.SENIOR_CITIZEN);
+        assertEquals(0, queue.positionOf("G-003"));
+        assertEquals(1, queue.positionOf("G-004"));
+        assertEquals(2, queue.positionOf("G-005"));
+
+        queue.reprioritize("G-003", Ticket.PriorityReason.NONE);
+        assertEquals(0, queue.positionOf("G-004"));
+        assertEquals(1, queue.positionOf("G-005"));
+        assertEquals(2, queue.positionOf("G-001"));
+        assertEquals(3, queue.positionOf("G-002"));
+        assertEquals(4, queue.positionOf("G-003"));
+
+        assertEquals("G-004", queue.poll().getTicketNumber());
+        queue.remove("G-001");
+        assertEquals(0, queue.positionOf("G-005"));
+        assertEquals(1, queue.positionOf("G-002"));
+        assertEquals(2, queue.positionOf("G-003"));
+        assertEquals(-1, queue.positionOf("G-001"));
+        assertEquals(-1, queue.positionOf("G-004"));
+    }
+
+    @Test
+    void ticketsIssuedAtTheSameTimeAreCalledInTicketNumberOrder() {
+        ServiceQueue queue = new ServiceQueue();
+        queue.add(ticket("G-004", 0, Ticket.PriorityReason.NONE));
+        queue.add(ticket("G-002", 0, Ticket.PriorityReason.NONE));
+        queue.add(ticket("G-005", 0, Ticket.PriorityReason.PWD));
+        queue.add(ticket("G-001", 0, Ticket.PriorityReason.NONE));
+        queue.add(ticket("G-003", 0, Ticket.PriorityReason.PWD));
+        queue.reprioritize("G-004", Ticket.PriorityReason.PWD);
+        assertPositionsMatchSnapshot(queue);
+
+        List<String> positions = new ArrayList<>();
+        for (String number : List.of("G-003", "G-004", "G-005", "G-001", "G-002")) {
+            assertEquals(positions.size(), queue.positionOf(number), number);
+            positions.add(number);
+        }
+        List<String> called = new ArrayList<>();
+        while (queue.size() > 0) {
+            called.add(queue.poll().getTicketNumber());
+        }
+        assertEquals(positions, called);
+    }
+
+    @Test
+    void positionsMatchTheCallOrderAfterRandomChanges() {
+        Random random = new Random(11);
+        ServiceQueue queue = new ServiceQueue();
+        List<String> numbers = new ArrayList<>();
+        Ticket.PriorityReason[] reasons = Ticket.PriorityReason.values();
+        for (int step = 0; step < 2_000; step++) {
+            int op = random.nextInt(10);
+            if (op < 5 || numbers.isEmpty()) {
+                String number = "G-" + step;
+                queue.add(ticket(number, step, reasons[random.nextInt(4) == 0 ? 1 + random.nextInt(reasons.length - 1) : 0]));
+                numbers.add(number);
+            } else if (op < 8) {
+                queue.reprioritize(numbers.get(random.nextInt(numbers.size())), reasons[random.nextInt(reasons.length)]);
+            } else if (op == 8) {
+                numbers.remove(queue.poll().getTicketNumber());
+            } else {
+                String number = numbers.remove(random.nextInt(numbers.size()));
+                queue.remove(number);
+            }
+            if (step % 100 == 99) {
+                assertPositionsMatchSnapshot(queue);
+            }
+        }
+        assertPositionsMatchSnapshot(queue);
+    }
+
+    private static void assertPositionsMatchSnapshot(ServiceQueue queue) {
+        List<Ticket> callOrder = queue.snapshot();
+        assertEquals(callOrder.size(), queue.size());
+        for (int i = 0; i < callOrder.size(); i++) {
+            Ticket ticket = callOrder.get(i);
+            assertEquals(i, queue.positionOf(ticket.getTicketNumber()), ticket.getTicketNumber());
+            assertSame(ticket, queue.find(ticket.getTicketNumber()));
+        }
+    }
+
+    private static Ticket ticket(String number, int minutesAfterStart, Ticket.PriorityReason reason) {
+        return new Ticket(number, SERVICE, "Customer", START.plusMinutes(minutesAfterStart), reason);
+    }
+}
@@ -0,0 +1,143 @@
+package com.nextque.service;
+
+import com.nextque.model.ServiceType;
+import com.nextque.model.Ticket;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TicketHeapTest {
+    private static final ServiceType SERVICE = new ServiceType("GENERAL", "General");
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 8, 0);
+
+    @Test
+    void pollsPriorityTicketsFirstThenByIssueTime() {
+        TicketHeap heap = new TicketHeap(2);
+        Ticket first = ticket("A-001", 0, Ticket.PriorityReason.NONE);
+        Ticket second = ticket("A-002", 1, Ticket.PriorityReason.NONE);
+        Ticket senior = ticket("A-003", 2, Ticket.PriorityReason.SENIOR_CITIZEN);
+        Ticket pwd = ticket("A-004", 3, Ticket.PriorityReason.PWD);
+        heap.add(second);
+        heap.add(pwd);
+        heap.add(first);
+        heap.add(senior);
+
+        assertSame(senior, heap.poll());
+        assertSame(pwd, heap.poll());
+        assertSame(first, heap.poll());
+        assertSame(second, heap.poll());
+        assertNull(heap.poll());
+    }
+
+    @Test
+    void drainsInSortedOrder() {
+        Random random = new Random(3);
+        List<Integer> minutes = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            minutes.add(i);
+        }
+        Collections.shuffle(minutes, random);
+        List<Ticket> tickets = new ArrayList<>();
+        TicketHeap heap = new TicketHeap();
+        for (int i = 0; i < 500; i++) {
+            Ticket ticket = ticket("A-" + i, minutes.get(i),
+                    random.nextInt(5) == 0 ? Ticket.PriorityReason.PREGNANT : Ticket.PriorityReason.NONE);
+            tickets.add(ticket);
+            heap.add(ticket);
+        }
+        Collections.sort(tickets);
+
+        assertEquals(tickets, heap.toSortedList());
+        assertEquals(500, heap.size());
+        for (Ticket expected : tickets) {
+            assertSame(expected, heap.poll());
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    void rejectsASecondTicketWithTheSameNumber() {
+        TicketHeap heap = new TicketHeap();
+        assertTrue(heap.add(ticket("A-001", 0, Ticket.PriorityReason.NONE)));
+        assertFalse(heap.add(ticket("A-001", 5, Ticket.PriorityReason.PWD)));
+        assertEquals(1, heap.size());
+    }
+
+    @Test
+    void removesByNumberFromAnyPosition() {
+        TicketHeap heap = new TicketHeap();
+        List<Ticket> tickets = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Ticket ticket = ticket("A-" + i, 50 - i, Ticket.PriorityReason.NONE);
+            tickets.add(ticket);
+            heap.add(ticket);
+        }
+        for (int i = 0; i < 50; i += 3) {
+            assertSame(tickets.get(i), heap.remove("A-" + i));
+            assertFalse(heap.contains("A-" + i));
+        }
+        assertNull(heap.remove("A-0"));
+
+        List<Ticket> remaining = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            if (i % 3 != 0) {
+                remaining.add(tickets.get(i));
+            }
+        }
+        Collections.sort(remaining);
+        List<Ticket> drained = new ArrayList<>();
+        Ticket next;
+        while ((next = heap.poll()) != null) {
+            drained.add(next);
+        }
+        assertEquals(remaining, drained);
+    }
+
+    @Test
+    void changedRestoresOrderWhenPriorityIsRaisedOrLowered() {
+        TicketHeap heap = new TicketHeap();
+        Ticket first = ticket("A-001", 0, Ticket.PriorityReason.SENIOR_CITIZEN);
+        Ticket second = ticket("A-002", 1, Ticket.PriorityReason.NONE);
+        Ticket third = ticket("A-003", 2, Ticket.PriorityReason.NONE);
+        heap.add(first);
+        heap.add(second);
+        heap.add(third);
+
+        third.setPriorityReason(Ticket.PriorityReason.PWD);
+        assertTrue(heap.changed("A-003"));
+        first.setPriorityReason(Ticket.PriorityReason.NONE);
+        assertTrue(heap.changed("A-001"));
+        assertFalse(heap.changed("A-404"));
+
+        assertSame(third, heap.poll());
+        assertSame(first, heap.poll());
+        assertSame(second, heap.poll());
+    }
+
+    @Test
+    void iterationDoesNotModifyTheHeap() {
+        TicketHeap heap = new TicketHeap();
+        for (int i = 0; i < 20; i++) {
+            heap.add(ticket("A-" + i, 20 - i, Ticket.PriorityReason.NONE));
+        }
+        List<Ticket> sorted = heap.toSortedList();
+
+        assertEquals(20, heap.size());
+        assertSame(sorted.get(0), heap.peek());
+        assertEquals(sorted, heap.toSortedList());
+    }
+
+    private static Ticket ticket(String number, int minutesAfterStart, Ticket.PriorityReason reason) {
+        return new Ticket(number, SERVICE, "Customer", START.plusMinutes(minutesAfterStart), reason);
+    }
+}
@@ -0,0 +1,38 @@
+package com.nextque.service;
+
+import com.nextque.model.ServiceType;
+import com.nextque.stats.QueueStatistics;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WaitTimeEstimatorTest {
+    private static final ServiceType SERVICE = new ServiceType("GENERAL", "General");
+
+    @Test
+    void usesTheDefaultServiceTimeBeforeAnyRefresh() {
+        WaitTimeEstimator estimator = new WaitTimeEstimator(new QueueStatistics(), 300);
+        WaitEstimate estimate = estimator.estimate(SERVICE, 2);
+
+        assertEquals(2, estimate.getTicketsAhead());
+        assertEquals(750, estimate.getSeconds());
+    }
+
+    @Test
+    void splitsEachPositionAcrossTheAgentsServing() {
+        WaitTimeEstimator estimator = new WaitTimeEstimator(new QueueStatistics(), 300);
+        estimator.refresh(SERVICE, 3);
+
+        assertEquals(50, estimator.estimate(SERVICE, 0).getSeconds());
+        assertEquals(450, estimator.estimate(SERVICE, 4).getSeconds());
+        assertEquals(750, estimator.estimate(new ServiceType("OTHER", "Other"), 2).getSeconds());
+    }
+
+    @Test
+    void describesTheWaitInWholeMinutes() {
+        WaitTimeEstimator estimator = new WaitTimeEstimator(new QueueStatistics(), 300);
+
+        assertEquals("about 3 min", estimator.estimate(SERVICE, 0).describe());
+        assertEquals("about 1 h 03 min", estimator.estimate(SERVICE, 12).describe());
+    }
+}
@@ -0,0 +1,103 @@
+package com.nextque.stats;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RollingHistogramTest {
+    private static final long DAY = 86_400L;
+    private static final long MONDAY = 19_800L * DAY;
+
+    @Test
+    void reportsCountMeanAndPercentilesWithinTheBucketError() {
+        RollingHistogram histogram = new RollingHistogram(StatsWindow.LAST_HOUR);
+        for (int seconds = 1; seconds <= 100; seconds++) {
+            histogram.record(MONDAY + 600, seconds);
+        }
+        TimeDistribution distribution = histogram.snapshot(MONDAY + 600);
+
+        assertEquals(100, distribution.getCount());
+        assertEquals(50.5, distribution.getMeanSeconds(), 0.001);
+        assertWithinSixPercent(50, distribution.getP50Seconds());
+        assertWithinSixPercent(90, distribution.getP90Seconds());
+    }
+
+    @Test
+    void countsShortDurationsExactly() {
+        for (long seconds = 0; seconds < 32; seconds++) {
+            RollingHistogram histogram = new RollingHistogram(StatsWindow.LAST_15_MINUTES);
+            histogram.record(MONDAY, seconds);
+            assertEquals(seconds, histogram.snapshot(MONDAY).getP50Seconds());
+        }
+    }
+
+    @Test
+    void dropsSlotsOnceTheyFallOutOfTheWindow() {
+        RollingHistogram histogram = new RollingHistogram(StatsWindow.LAST_15_MINUTES);
+        histogram.record(MONDAY, 100);
+        histogram.record(MONDAY + 300, 200);
+
+        assertEquals(2, histogram.snapshot(MONDAY + 899).getCount());
+        TimeDistribution later = histogram.snapshot(MONDAY + 900);
+        assertEquals(1, later.getCount());
+        assertWithinSixPercent(200, later.getP50Seconds());
+        assertEquals(1, histogram.snapshot(MONDAY + 1199).getCount());
+        assertSame(TimeDistribution.EMPTY, histogram.snapshot(MONDAY + 1200));
+    }
+
+    @Test
+    void clearsASlotWhenTheRingComesRoundToIt() {
+        RollingHistogram histogram = new RollingHistogram(StatsWindow.LAST_15_MINUTES);
+        histogram.record(MONDAY + 30, 100);
+        histogram.record(MONDAY + 930, 10);
+
+        TimeDistribution distribution = histogram.snapshot(MONDAY + 930);
+        assertEquals(1, distribution.getCount());
+        assertEquals(10.0, distribution.getMeanSeconds(), 0.001);
+
+        // An observation for the slot the ring has already moved past is dropped.
+        histogram.record(MONDAY + 40, 500);
+        assertEquals(1, histogram.snapshot(MONDAY + 930).getCount());
+    }
+
+    @Test
+    void todayStartsAgainAtMidnight() {
+        RollingHistogram histogram = new RollingHistogram(StatsWindow.TODAY);
+        histogram.record(MONDAY + DAY - 1, 60);
+
+        assertEquals(1, histogram.snapshot(MONDAY + DAY - 1).getCount());
+        assertSame(TimeDistribution.EMPTY, histogram.snapshot(MONDAY + DAY));
+        histogram.record(MONDAY + DAY + 5, 30);
+        assertEquals(30.0, histogram.snapshot(MONDAY + DAY + 5).getMeanSeconds(), 0.001);
+    }
+
+    @Test
+    void ratePerHourCoversOnlyTheTimeSinceTheFirstObservation() {
+        RollingHistogram histogram = new RollingHistogram(StatsWindow.LAST_HOUR);
+        for (int i = 0; i < 30; i++) {
+            histogram.record(MONDAY + i * 20, 60);
+        }
+        assertEquals(180.0, histogram.snapshot(MONDAY + 600).getPerHour(), 0.001);
+
+        RollingHistogram single = new RollingHistogram(StatsWindow.LAST_HOUR);
+        single.record(MONDAY, 60);
+        assertEquals(60.0, single.snapshot(MONDAY).getPerHour(), 0.001);
+    }
+
+    @Test
+    void clampsNegativeAndOversizedDurations() {
+        RollingHistogram histogram = new RollingHistogram(StatsWindow.LAST_HOUR);
+        histogram.record(MONDAY, -10);
+        assertEquals(0, histogram.snapshot(MONDAY).getP50Seconds());
+
+        histogram.record(MONDAY, Long.MAX_VALUE / 2);
+        TimeDistribution distribution = histogram.snapshot(MONDAY);
+        assertTrue(distribution.getP90Seconds() < (1L << 17), "p90 was " + distribution.getP90Seconds());
+    }
+
+    private static void assertWithinSixPercent(long expected, long actual) {
+        assertEquals(expected, actual, expected * 0.0625, "expected about " + expected + " but was " + actual);
+    }
+}